@@ -0,0 +1,345 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.Nullable;
+
+import com.blackduck.method.analyzer.core.report.ReportOptions;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Represents configuration which controls how a {@link MethodUseAnalyzer} performs analysis
+ *
+ * <p>
+ * Instances are immutable, and are created via {@link #builder()}. The {@link #defaults()} options match the behavior
+ * of the analyzer prior to the introduction of configuration
+ *
+ * @author romeara
+ */
+public final class AnalysisOptions {
+
+    private static final AnalysisOptions DEFAULTS = builder().build();
+
+    private final int parallelism;
+
+    private final boolean discoverOwnersFirst;
+
+    private final ParseMode parseMode;
+
+    @Nullable
+    private final ExecutorService executorService;
+
+    @Nullable
+    private final ClassAnalysisCache cache;
+
+    @Nullable
+    private final Long memoryBudget;
+
+    @Nullable
+    private final Path spillDirectory;
+
+    private final WalkOptions walkOptions;
+
+    private final ReportOptions reportOptions;
+
+    private AnalysisOptions(Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.discoverOwnersFirst = builder.discoverOwnersFirst;
+        this.parseMode = builder.parseMode;
+        this.executorService = builder.executorService;
+        this.cache = builder.cache;
+        this.memoryBudget = builder.memoryBudget;
+        this.spillDirectory = builder.spillDirectory;
+        this.walkOptions = builder.walkOptions;
+        this.reportOptions = builder.reportOptions;
+    }
+
+    /**
+     * @return Options which perform single-threaded analysis
+     */
+    public static AnalysisOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @return A builder for creating a customized set of options
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The number of class files which may be parsed concurrently
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return True if class file headers are read in a first pass to discover the classes defined within the analyzed
+     *         source, before references are recorded
+     */
+    public boolean isDiscoverOwnersFirst() {
+        return discoverOwnersFirst;
+    }
+
+    /**
+     * @return How much of each class file is parsed during analysis
+     */
+    public ParseMode getParseMode() {
+        return parseMode;
+    }
+
+    /**
+     * @return A caller-managed executor to parse class files and walk directories on, if one was provided. When absent,
+     *         a pool is created and shut down for each analysis, and directories are walked on a dedicated thread
+     */
+    public Optional<ExecutorService> getExecutorService() {
+        return Optional.ofNullable(executorService);
+    }
+
+    /**
+     * @return A cache of previous analysis results to re-use for unchanged class files, if one was provided
+     */
+    public Optional<ClassAnalysisCache> getCache() {
+        return Optional.ofNullable(cache);
+    }
+
+    /**
+     * @return The approximate number of bytes recorded references may occupy in memory before being written to
+     *         temporary files, if a budget was provided. When absent, all references are held in memory
+     */
+    public OptionalLong getMemoryBudget() {
+        return memoryBudget != null ? OptionalLong.of(memoryBudget) : OptionalLong.empty();
+    }
+
+    /**
+     * @return The directory temporary reference files are written to, if one was provided. When absent, the system
+     *         temporary directory is used
+     */
+    public Optional<Path> getSpillDirectory() {
+        return Optional.ofNullable(spillDirectory);
+    }
+
+    /**
+     * @return Configuration controlling how source directories are searched for class files
+     */
+    public WalkOptions getWalkOptions() {
+        return walkOptions;
+    }
+
+    /**
+     * @return Configuration controlling how the report of analysis results is written
+     */
+    public ReportOptions getReportOptions() {
+        return reportOptions;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("parallelism", getParallelism())
+                .add("discoverOwnersFirst", isDiscoverOwnersFirst())
+                .add("parseMode", parseMode)
+                .add("executorService", executorService)
+                .add("cache", cache)
+                .add("memoryBudget", memoryBudget)
+                .add("spillDirectory", spillDirectory)
+                .add("walkOptions", walkOptions)
+                .add("reportOptions", reportOptions)
+                .toString();
+    }
+
+    /**
+     * Handles step-wise construction of {@link AnalysisOptions} instances
+     *
+     * @author romeara
+     */
+    public static final class Builder {
+
+        private int parallelism;
+
+        private boolean discoverOwnersFirst;
+
+        private ParseMode parseMode;
+
+        @Nullable
+        private ExecutorService executorService;
+
+        @Nullable
+        private ClassAnalysisCache cache;
+
+        @Nullable
+        private Long memoryBudget;
+
+        @Nullable
+        private Path spillDirectory;
+
+        private WalkOptions walkOptions;
+
+        private ReportOptions reportOptions;
+
+        private Builder() {
+            this.parallelism = 1;
+            this.discoverOwnersFirst = false;
+            this.parseMode = ParseMode.FULL;
+            this.executorService = null;
+            this.cache = null;
+            this.memoryBudget = null;
+            this.spillDirectory = null;
+            this.walkOptions = WalkOptions.defaults();
+            this.reportOptions = ReportOptions.defaults();
+        }
+
+        /**
+         * @param parallelism
+         *            The number of class files which may be parsed concurrently. A value of 1 (the default) parses all
+         *            files on the calling thread
+         * @return This builder
+         */
+        public Builder parallelism(int parallelism) {
+            Preconditions.checkArgument(parallelism > 0, "Parallelism must be a positive value (was %s)", parallelism);
+
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param discoverOwnersFirst
+         *            True to read the headers of all class files in a first pass, so that references to classes defined
+         *            within the analyzed source are discarded as they are found instead of being stored until the owning
+         *            class is parsed. This reads each class file twice, in exchange for lower memory use when many
+         *            references are internal. Defaults to false
+         * @return This builder
+         */
+        public Builder discoverOwnersFirst(boolean discoverOwnersFirst) {
+            this.discoverOwnersFirst = discoverOwnersFirst;
+            return this;
+        }
+
+        /**
+         * @param parseMode
+         *            How much of each class file is parsed during analysis. Modes other than {@link ParseMode#FULL} (the
+         *            default) skip parts of each class file for faster analysis, and may record less detail about each
+         *            method use. Modes which record less detail than a full parse may not be combined with a cache
+         * @return This builder
+         */
+        public Builder parseMode(ParseMode parseMode) {
+            this.parseMode = Objects.requireNonNull(parseMode);
+            return this;
+        }
+
+        /**
+         * @param executorService
+         *            A caller-managed executor to run parsing workers on when parallelism is greater than one, and to walk
+         *            directory sources on. As the walk runs alongside the workers, the executor must have at least two
+         *            threads when parallelism is greater than one. The executor is not shut down by the analyzer. May be
+         *            null to have the analyzer manage its own pool
+         * @return This builder
+         */
+        public Builder executorService(@Nullable ExecutorService executorService) {
+            this.executorService = executorService;
+            return this;
+        }
+
+        /**
+         * @param cache
+         *            A cache to read results for unchanged class files from, and to store new results to. The cache is
+         *            loaded at the start of each analysis and saved at the end. May be null to parse all class files
+         *            (the default)
+         * @return This builder
+         */
+        public Builder cache(@Nullable ClassAnalysisCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        /**
+         * @param memoryBudget
+         *            The approximate number of bytes recorded references may occupy in memory. Once exceeded, references
+         *            are written to temporary files as sorted runs, which are merged when the report is generated. The
+         *            budget is divided between parsing workers. By default, no budget is applied and all references are
+         *            held in memory
+         * @return This builder
+         */
+        public Builder memoryBudget(long memoryBudget) {
+            Preconditions.checkArgument(memoryBudget > 0, "Memory budget must be a positive value (was %s)", memoryBudget);
+
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * @param spillDirectory
+         *            The directory to write temporary reference files to when a memory budget is exceeded. May be null to
+         *            use the system temporary directory (the default)
+         * @return This builder
+         */
+        public Builder spillDirectory(@Nullable Path spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        /**
+         * @param walkOptions
+         *            Configuration controlling how source directories are searched for class files, such as reading
+         *            sub-directories concurrently. Include and exclude patterns are not applied to archives, which may
+         *            not be analyzed when patterns are configured. Defaults to {@link WalkOptions#defaults()}
+         * @return This builder
+         */
+        public Builder walkOptions(WalkOptions walkOptions) {
+            this.walkOptions = Objects.requireNonNull(walkOptions);
+            return this;
+        }
+
+        /**
+         * @param reportOptions
+         *            Configuration controlling how the report of analysis results is written. Defaults to
+         *            {@link ReportOptions#defaults()}
+         * @return This builder
+         */
+        public Builder reportOptions(ReportOptions reportOptions) {
+            this.reportOptions = Objects.requireNonNull(reportOptions);
+            return this;
+        }
+
+        /**
+         * @return A new options instance reflecting the current state of this builder
+         */
+        public AnalysisOptions build() {
+            Preconditions.checkState(cache == null || parseMode.isCacheable(), "A cache may not be used with parse mode %s, which records less detail than a full parse",
+                    parseMode);
+
+            return new AnalysisOptions(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,276 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import com.blackduck.method.analyzer.core.bytecode.MethodReferenceRegistry;
+import com.blackduck.method.analyzer.core.model.MethodReferences;
+import com.blackduck.method.analyzer.core.model.MethodUse;
+import com.blackduck.method.analyzer.core.model.ReferencedMethod;
+import com.blackduck.method.analyzer.core.report.ReportGenerator;
+import com.blackduck.method.analyzer.core.report.ReportOptions;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Multimap;
+
+/**
+ * Represents the outcome of analyzing a Java project, held in memory so that it may be queried directly, and rendered
+ * as a report only if and when one is needed
+ *
+ * <p>
+ * References are held in the same packed form used during analysis - {@link MethodUse} instances are only created as
+ * references are read. When analysis was performed with a memory budget, references may be partially stored in
+ * temporary files, which are removed once the result is closed. Results should be closed once no longer needed
+ *
+ * @author romeara
+ */
+public final class AnalysisResult implements Closeable {
+
+    private final String sourceLocation;
+
+    private final MethodReferenceRegistry references;
+
+    private final Map<String, String> brokenFiles;
+
+    private final Instant startTime;
+
+    private final Duration duration;
+
+    private final ParseMode parseMode;
+
+    private final ReportOptions reportOptions;
+
+    private final Closeable resources;
+
+    private final AnalysisStatistics statistics;
+
+    /**
+     * @param sourceLocation
+     *            Description of where the analyzed classes originated from
+     * @param references
+     *            The references found during analysis
+     * @param brokenFiles
+     *            Locations of any classes which failed to parse, mapped to a description of the failure
+     * @param startTime
+     *            The time analysis began
+     * @param duration
+     *            The time taken to perform the analysis
+     * @param parseMode
+     *            How much of each class file was parsed, which determines the form of the uses recorded
+     * @param reportOptions
+     *            Configuration controlling how reports of the result are generated
+     * @param resources
+     *            Resources backing the references, released when the result is closed
+     * @param statistics
+     *            Measurements of the analysis, such as cache use and the time taken by each phase
+     */
+    AnalysisResult(String sourceLocation, MethodReferenceRegistry references, Map<String, String> brokenFiles, Instant startTime, Duration duration,
+            ParseMode parseMode, ReportOptions reportOptions, Closeable resources, AnalysisStatistics statistics) {
+        this.sourceLocation = Objects.requireNonNull(sourceLocation);
+        this.references = Objects.requireNonNull(references);
+        this.brokenFiles = Collections.unmodifiableMap(new HashMap<>(Objects.requireNonNull(brokenFiles)));
+        this.startTime = Objects.requireNonNull(startTime);
+        this.duration = Objects.requireNonNull(duration);
+        this.parseMode = Objects.requireNonNull(parseMode);
+        this.reportOptions = Objects.requireNonNull(reportOptions);
+        this.resources = Objects.requireNonNull(resources);
+        this.statistics = Objects.requireNonNull(statistics);
+    }
+
+    /**
+     * @return Description of where the analyzed classes originated from, such as the analyzed directory or archive
+     */
+    public String getSourceLocation() {
+        return sourceLocation;
+    }
+
+    /**
+     * @return Read access to the methods referenced within the analyzed project, and the locations each is used from
+     */
+    public MethodReferences getReferences() {
+        return references;
+    }
+
+    /**
+     * Creates a copy of all references found
+     *
+     * <p>
+     * All uses are created at once - when the references only need to be read once, {@link #getReferences()} avoids
+     * holding a full copy in memory
+     *
+     * @return A mapping of referenced methods to one or more locations use was detected in
+     */
+    public Multimap<ReferencedMethod, MethodUse> getReferenceMultimap() {
+        return references.getReferences();
+    }
+
+    /**
+     * @return Locations of any classes which failed to parse, mapped to a description of the failure. Classes stored
+     *         on a file system are described by their path, while other classes are described by the location
+     *         provided by their {@link ClassSource}
+     */
+    public Map<String, String> getBrokenFiles() {
+        return brokenFiles;
+    }
+
+    /**
+     * @return The time analysis began
+     */
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return The time taken to perform the analysis, excluding any report generation
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return How much of each class file was parsed during the analysis, which determines the form of the uses
+     *         recorded. Recorded in the meta-data of generated reports
+     */
+    public ParseMode getParseMode() {
+        return parseMode;
+    }
+
+    /**
+     * @return Measurements of this analysis, such as cache hits and misses and the time taken by each phase. Not
+     *         affected by other analyses sharing the same cache
+     */
+    public AnalysisStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Generates a report of the analysis result, saved to the file system
+     *
+     * @param outputDirectory
+     *            The directory to output the generated report of method calls to
+     * @param outputFileName
+     *            The file name (without extension) to save the report as
+     * @param codeLocationName
+     *            A name to associate with the analyzed source in the report
+     * @return The full path to the generated report on the file system
+     * @throws IOException
+     *             If there is an error saving the report
+     */
+    public Path generateReport(Path outputDirectory, String outputFileName, @Nullable String codeLocationName) throws IOException {
+        Objects.requireNonNull(outputDirectory, "The outputDirectory parameter is required, and may not be null");
+        Objects.requireNonNull(outputFileName, "The outputFileName parameter is required, and may not be null");
+
+        return generateReport(codeLocationName,
+                (reportGenerator, references, brokenFiles) -> reportGenerator.generateReport(references, brokenFiles, outputDirectory, outputFileName));
+    }
+
+    /**
+     * Generates a report of the analysis result, written directly to a stream
+     *
+     * @param outputStream
+     *            The stream to write the generated report of method calls to. Flushed, but not closed, by this method
+     * @param codeLocationName
+     *            A name to associate with the analyzed source in the report
+     * @throws IOException
+     *             If there is an error writing the report
+     */
+    public void generateReport(OutputStream outputStream, @Nullable String codeLocationName) throws IOException {
+        Objects.requireNonNull(outputStream, "The outputStream parameter is required, and may not be null");
+
+        generateReport(codeLocationName, (reportGenerator, references, brokenFiles) -> {
+            reportGenerator.generateReport(references, brokenFiles, outputStream);
+            return null;
+        });
+    }
+
+    /**
+     * Generates a report of the analysis result
+     *
+     * <p>
+     * The local host name is only resolved when a report is generated, as it is not needed to query the result
+     *
+     * @param codeLocationName
+     *            A name to associate with the analyzed source in the report
+     * @param reportTarget
+     *            Handles writing the report to its destination
+     * @return The result of writing the report
+     * @throws IOException
+     *             If there is an error writing the report
+     */
+    <T> T generateReport(@Nullable String codeLocationName, ReportTarget<T> reportTarget) throws IOException {
+        Objects.requireNonNull(reportTarget);
+
+        ReportGenerator reportGenerator = new ReportGenerator(InetAddress.getLocalHost().getHostName(), sourceLocation, codeLocationName, parseMode.name(),
+                reportOptions);
+
+        return reportTarget.write(reportGenerator, references, brokenFiles);
+    }
+
+    /**
+     * Removes any temporary files holding references of the result
+     *
+     * @throws IOException
+     *             If there is an error removing a temporary file
+     */
+    @Override
+    public void close() throws IOException {
+        resources.close();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("sourceLocation", sourceLocation)
+                .add("brokenFiles", brokenFiles.size())
+                .add("startTime", startTime)
+                .add("duration", duration)
+                .add("parseMode", parseMode)
+                .add("statistics", statistics)
+                .toString();
+    }
+
+    /**
+     * Represents writing the report of an analysis to its destination, such as a file or a stream
+     *
+     * @author romeara
+     */
+    @FunctionalInterface
+    interface ReportTarget<T> {
+
+        T write(ReportGenerator reportGenerator, MethodReferences references, Map<String, String> brokenFiles) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Represents measurements of a single analysis, such as how effective the cache was and how long each phase took
+ *
+ * <p>
+ * Statistics are gathered separately for each analysis, so that they are not mixed with those of other analyses which
+ * share the same {@link ClassAnalysisCache} or run at the same time. Class file discovery overlaps parsing, so the walk
+ * duration overlaps the parse duration rather than adding to it
+ *
+ * @author romeara
+ */
+public final class AnalysisStatistics {
+
+    private final LongAdder cacheHitCount;
+
+    private final LongAdder cacheMissCount;
+
+    private final LongAdder walkNanos;
+
+    private final LongAdder parseNanos;
+
+    private final LongAdder mergeNanos;
+
+    AnalysisStatistics() {
+        this.cacheHitCount = new LongAdder();
+        this.cacheMissCount = new LongAdder();
+        this.walkNanos = new LongAdder();
+        this.parseNanos = new LongAdder();
+        this.mergeNanos = new LongAdder();
+    }
+
+    /**
+     * @return The number of classes whose results were read from the cache during the analysis
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount.sum();
+    }
+
+    /**
+     * @return The number of classes which were not found in the cache, and were parsed, during the analysis. Zero if
+     *         the analysis was not performed with a cache
+     */
+    public long getCacheMissCount() {
+        return cacheMissCount.sum();
+    }
+
+    /**
+     * @return The time taken to discover class files on a file system, from the start of each directory walk until it
+     *         completed. Zero if no file system was walked
+     */
+    public Duration getWalkDuration() {
+        return Duration.ofNanos(walkNanos.sum());
+    }
+
+    /**
+     * @return The time taken to read and parse classes, including any discovery of project classes ahead of time, and
+     *         excluding merging of parallel results
+     */
+    public Duration getParseDuration() {
+        return Duration.ofNanos(parseNanos.sum());
+    }
+
+    /**
+     * @return The time taken to merge the references found by parallel workers into a single result. Zero if parsing
+     *         was not performed in parallel
+     */
+    public Duration getMergeDuration() {
+        return Duration.ofNanos(mergeNanos.sum());
+    }
+
+    void recordCacheHit() {
+        cacheHitCount.increment();
+    }
+
+    void recordCacheMiss() {
+        cacheMissCount.increment();
+    }
+
+    void recordWalk(long nanos) {
+        walkNanos.add(nanos);
+    }
+
+    void recordParse(long nanos) {
+        parseNanos.add(nanos);
+    }
+
+    void recordMerge(long nanos) {
+        mergeNanos.add(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("cacheHitCount", getCacheHitCount())
+                .add("cacheMissCount", getCacheMissCount())
+                .add("walkDuration", getWalkDuration())
+                .add("parseDuration", getParseDuration())
+                .add("mergeDuration", getMergeDuration())
+                .toString();
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Represents the class files within a Java archive, including those within archives nested inside it (such as
+ * {@code WEB-INF/lib} or {@code BOOT-INF/lib} libraries)
+ *
+ * <p>
+ * Entries are streamed directly from the archive - no content is extracted to disk
+ *
+ * @author romeara
+ */
+final class ArchiveClassSource implements ClassSource {
+
+    private final Path archive;
+
+    /**
+     * @param archive
+     *            The archive to read class files from
+     */
+    ArchiveClassSource(Path archive) {
+        this.archive = Objects.requireNonNull(archive);
+    }
+
+    @Override
+    public String getLocation() {
+        return archive.toString();
+    }
+
+    @Override
+    public void accept(ClassSourceVisitor visitor) throws IOException {
+        Objects.requireNonNull(visitor);
+
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(archive))) {
+            visitor.visitArchive(archive.toString(), inputStream);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("archive", archive)
+                .toString();
+    }
+
+}
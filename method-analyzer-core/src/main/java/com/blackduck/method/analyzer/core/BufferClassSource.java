@@ -0,0 +1,81 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Represents class files held in memory, such as those produced by the compiler API or a build tool transform
+ *
+ * <p>
+ * As the name of a class is not known until it is parsed, each class is described by its position within the source
+ *
+ * @author romeara
+ */
+final class BufferClassSource implements ClassSource {
+
+    private final String location;
+
+    private final Iterable<ByteBuffer> classes;
+
+    /**
+     * @param location
+     *            Description of where the classes originated from, used to describe the source in reports
+     * @param classes
+     *            The content of each class file, from each buffer's position to its limit
+     */
+    BufferClassSource(String location, Iterable<ByteBuffer> classes) {
+        this.location = Objects.requireNonNull(location);
+        this.classes = Objects.requireNonNull(classes);
+    }
+
+    @Override
+    public String getLocation() {
+        return location;
+    }
+
+    @Override
+    public void accept(ClassSourceVisitor visitor) throws IOException {
+        Objects.requireNonNull(visitor);
+
+        int index = 0;
+
+        for (ByteBuffer content : classes) {
+            // Duplicated so that reading the class does not move the position of the caller's buffer
+            visitor.visitClass(location + "[" + index + "]", content.duplicate());
+            index++;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("location", location)
+                .toString();
+    }
+
+}
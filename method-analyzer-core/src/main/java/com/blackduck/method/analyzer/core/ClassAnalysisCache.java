@@ -0,0 +1,603 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.blackduck.method.analyzer.core.bytecode.MethodReferenceRegistry;
+import com.blackduck.method.analyzer.core.model.MethodUse;
+import com.blackduck.method.analyzer.core.model.ReferencedMethod;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Multimap;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+/**
+ * Represents an on-disk store of per-class analysis results, which allows repeated analyses of mostly-unchanged class
+ * files to skip parsing any class which has not changed since it was last analyzed
+ *
+ * <p>
+ * Results are keyed by the SHA-256 hash of each class file's content. For class files on a file system, the size and
+ * last-modified time of the file are also recorded, so that unchanged files may be matched without reading them. Each
+ * result records the class's qualified name (to exclude it as an internal method owner) and the method references it
+ * makes
+ *
+ * <p>
+ * The cache is stored as a single file within the provided directory. The file is read into memory when loaded, and
+ * cached results are only decoded when they are used. The file is not held open or mapped between loading and saving,
+ * so that it may be replaced on any platform. When saved, only results used by the most recent analysis are retained
+ *
+ * <p>
+ * A cache may be shared by parallel workers within an analysis, but may not be used by multiple analyses at once
+ *
+ * @author romeara
+ */
+public class ClassAnalysisCache {
+
+    private static final String CACHE_FILE_NAME = "method-use-analysis.cache";
+
+    private static final int FORMAT_MAGIC = 0x42444d43;
+
+    // Increment whenever the stored format, or the data extracted from class files during analysis, is altered
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HASH_LENGTH = 32;
+
+    // Minimum stored sizes of index entries - a path of at least its length, size, last-modified time, and result ordinal
+    private static final int FILE_ENTRY_MIN_BYTES = Short.BYTES + Long.BYTES * 2 + Integer.BYTES;
+
+    // Hash, data offset, and data length
+    private static final int RESULT_ENTRY_BYTES = HASH_LENGTH + Integer.BYTES * 2;
+
+    /** Logger reference to output information to the application log files */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Path cacheFile;
+
+    private final AtomicLong hitCount;
+
+    private final AtomicLong missCount;
+
+    // Results available from the previous analysis. Only modified while loading
+    private Map<String, FileRecord> loadedFiles;
+
+    private Map<HashCode, ByteBuffer> loadedResults;
+
+    // Results used by the current analysis, which will be retained when saved
+    private final Map<String, FileRecord> currentFiles;
+
+    private final Map<HashCode, ByteBuffer> currentResults;
+
+    /**
+     * @param cacheDirectory
+     *            The directory to store cached analysis results in. Created if it does not exist
+     */
+    public ClassAnalysisCache(Path cacheDirectory) {
+        Objects.requireNonNull(cacheDirectory);
+
+        this.cacheFile = cacheDirectory.resolve(CACHE_FILE_NAME);
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.loadedFiles = Collections.emptyMap();
+        this.loadedResults = Collections.emptyMap();
+        this.currentFiles = new ConcurrentHashMap<>();
+        this.currentResults = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return The number of classes whose results were read from the cache during the most recent analysis. See
+     *         {@link AnalysisResult#getStatistics()} for the counts of a specific analysis
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return The number of classes which were not found in the cache, and were parsed, during the most recent analysis.
+     *         See {@link AnalysisResult#getStatistics()} for the counts of a specific analysis
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Loads results stored by a previous analysis, and resets hit/miss statistics
+     *
+     * <p>
+     * If the stored results are missing, or were written in an incompatible format, analysis proceeds with an empty
+     * cache
+     *
+     * @throws IOException
+     *             If there is an error reading the stored results
+     */
+    synchronized void load() throws IOException {
+        hitCount.set(0);
+        missCount.set(0);
+        currentFiles.clear();
+        currentResults.clear();
+        loadedFiles = Collections.emptyMap();
+        loadedResults = Collections.emptyMap();
+
+        if (Files.isRegularFile(cacheFile)) {
+            try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+                ByteBuffer buffer = read(channel);
+
+                if (buffer.remaining() >= Integer.BYTES * 2 && buffer.getInt() == FORMAT_MAGIC && buffer.getInt() == FORMAT_VERSION) {
+                    readIndex(buffer);
+                } else {
+                    logger.info("Ignoring analysis cache in unsupported format: {}", cacheFile);
+                }
+            } catch (RuntimeException e) {
+                // A truncated or otherwise damaged cache should not stop analysis - it will be replaced when saved
+                logger.warn("Ignoring unreadable analysis cache: {}", cacheFile, e);
+
+                loadedFiles = Collections.emptyMap();
+                loadedResults = Collections.emptyMap();
+            }
+        }
+    }
+
+    /**
+     * Finds a result for a class file using only its file system metadata, without reading the file
+     *
+     * @param path
+     *            The path of the class file
+     * @param size
+     *            The current size of the class file, in bytes
+     * @param lastModified
+     *            The current last-modified time of the class file, in milliseconds since the epoch
+     * @return The cached result, if the file is unchanged since it was last analyzed
+     */
+    Optional<CachedClass> find(Path path, long size, long lastModified) {
+        FileRecord record = loadedFiles.get(path.toString());
+
+        if (record != null && record.size == size && record.lastModified == lastModified) {
+            ByteBuffer result = loadedResults.get(record.hash);
+
+            if (result != null) {
+                currentFiles.put(path.toString(), record);
+
+                return Optional.of(hit(record.hash, result));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Finds a result for a class by its content
+     *
+     * @param path
+     *            The path of the class file if it is stored on a file system, or null if it is not
+     * @param size
+     *            The current size of the class file, in bytes. Ignored if {@code path} is null
+     * @param lastModified
+     *            The current last-modified time of the class file. Ignored if {@code path} is null
+     * @param contentHash
+     *            The hash of the class file's content, as generated by {@link #hash(byte[])}
+     * @return The cached result, if a class with identical content was previously analyzed
+     */
+    Optional<CachedClass> find(@Nullable Path path, long size, long lastModified, HashCode contentHash) {
+        ByteBuffer result = currentResults.get(contentHash);
+
+        if (result == null) {
+            result = loadedResults.get(contentHash);
+        }
+
+        if (result != null) {
+            if (path != null) {
+                currentFiles.put(path.toString(), new FileRecord(size, lastModified, contentHash));
+            }
+
+            return Optional.of(hit(contentHash, result));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Records the result of analyzing a class
+     *
+     * @param path
+     *            The path of the class file if it is stored on a file system, or null if it is not
+     * @param size
+     *            The size of the class file, in bytes. Ignored if {@code path} is null
+     * @param lastModified
+     *            The last-modified time of the class file. Ignored if {@code path} is null
+     * @param contentHash
+     *            The hash of the class file's content, as generated by {@link #hash(byte[])}
+     * @param className
+     *            The qualified name of the class defined by the class file
+     * @param references
+     *            The external method references made by the class
+     */
+    void store(@Nullable Path path, long size, long lastModified, HashCode contentHash, String className, Multimap<ReferencedMethod, MethodUse> references) {
+        Objects.requireNonNull(contentHash);
+        Objects.requireNonNull(className);
+        Objects.requireNonNull(references);
+
+        missCount.incrementAndGet();
+
+        currentResults.put(contentHash, ByteBuffer.wrap(encode(className, references)));
+
+        if (path != null) {
+            currentFiles.put(path.toString(), new FileRecord(size, lastModified, contentHash));
+        }
+    }
+
+    /**
+     * Writes all results used by the current analysis to the cache directory, replacing any previously stored results
+     *
+     * @throws IOException
+     *             If there is an error writing the results
+     */
+    synchronized void save() throws IOException {
+        Files.createDirectories(cacheFile.getParent());
+
+        // Each retained result is identified in the index by its position within the data section
+        List<Entry<HashCode, ByteBuffer>> results = new ArrayList<>(currentResults.entrySet());
+        Map<HashCode, Integer> resultOrdinals = new HashMap<>();
+
+        for (int i = 0; i < results.size(); i++) {
+            resultOrdinals.put(results.get(i).getKey(), i);
+        }
+
+        // Offsets are stored as integers, so the data section is limited to the largest integer value
+        long dataLength = 0;
+
+        for (Entry<HashCode, ByteBuffer> result : results) {
+            dataLength += result.getValue().remaining();
+        }
+
+        if (dataLength > Integer.MAX_VALUE) {
+            throw new IOException("Analysis cache results (" + dataLength + " bytes) exceed the maximum size which may be stored (" + Integer.MAX_VALUE
+                    + " bytes)");
+        }
+
+        Path temporaryFile = cacheFile.resolveSibling(CACHE_FILE_NAME + ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            output.writeInt(FORMAT_MAGIC);
+            output.writeInt(FORMAT_VERSION);
+
+            output.writeInt(currentFiles.size());
+
+            for (Entry<String, FileRecord> file : currentFiles.entrySet()) {
+                output.writeUTF(file.getKey());
+                output.writeLong(file.getValue().size);
+                output.writeLong(file.getValue().lastModified);
+                output.writeInt(resultOrdinals.get(file.getValue().hash));
+            }
+
+            output.writeInt(results.size());
+
+            long offset = 0;
+
+            for (Entry<HashCode, ByteBuffer> result : results) {
+                output.write(result.getKey().asBytes());
+                output.writeInt(Math.toIntExact(offset));
+                output.writeInt(result.getValue().remaining());
+
+                offset += result.getValue().remaining();
+            }
+
+            for (Entry<HashCode, ByteBuffer> result : results) {
+                output.write(toByteArray(result.getValue()));
+            }
+        }
+
+        try {
+            Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        logger.info("Analysis cache hits: {}, misses: {}", getHitCount(), getMissCount());
+    }
+
+    /**
+     * @param classFileContent
+     *            The content of a class file
+     * @return The hash to use to identify the class file's analysis result
+     */
+    static HashCode hash(byte[] classFileContent) {
+        return Hashing.sha256().hashBytes(classFileContent);
+    }
+
+    private CachedClass hit(HashCode contentHash, ByteBuffer result) {
+        hitCount.incrementAndGet();
+
+        // Retain the result for the next analysis, as it is still in use
+        currentResults.putIfAbsent(contentHash, result);
+
+        return new CachedClass(result);
+    }
+
+    private void readIndex(ByteBuffer buffer) {
+        Map<String, Integer> fileOrdinals = new HashMap<>();
+        Map<String, FileRecord> files = new HashMap<>();
+        Map<HashCode, ByteBuffer> results = new HashMap<>();
+
+        int fileCount = readCount(buffer, FILE_ENTRY_MIN_BYTES);
+        List<String> paths = new ArrayList<>(fileCount);
+        long[] sizes = new long[fileCount];
+        long[] lastModifiedTimes = new long[fileCount];
+
+        for (int i = 0; i < fileCount; i++) {
+            paths.add(readUtf(buffer));
+            sizes[i] = buffer.getLong();
+            lastModifiedTimes[i] = buffer.getLong();
+            fileOrdinals.put(paths.get(i), buffer.getInt());
+        }
+
+        int resultCount = readCount(buffer, RESULT_ENTRY_BYTES);
+        int[] offsets = new int[resultCount];
+        int[] lengths = new int[resultCount];
+        HashCode[] resultHashes = new HashCode[resultCount];
+
+        for (int i = 0; i < resultCount; i++) {
+            byte[] hash = new byte[HASH_LENGTH];
+            buffer.get(hash);
+
+            resultHashes[i] = HashCode.fromBytes(hash);
+            offsets[i] = buffer.getInt();
+            lengths[i] = buffer.getInt();
+        }
+
+        // Results are kept as views of the file content, and decoded only if used
+        int dataStart = buffer.position();
+
+        for (int i = 0; i < resultCount; i++) {
+            ByteBuffer result = buffer.duplicate();
+            result.limit(dataStart + offsets[i] + lengths[i]);
+            result.position(dataStart + offsets[i]);
+
+            results.put(resultHashes[i], result.slice());
+        }
+
+        for (int i = 0; i < fileCount; i++) {
+            int ordinal = fileOrdinals.get(paths.get(i));
+
+            if (ordinal >= 0 && ordinal < resultCount) {
+                files.put(paths.get(i), new FileRecord(sizes[i], lastModifiedTimes[i], resultHashes[ordinal]));
+            }
+        }
+
+        loadedFiles = files;
+        loadedResults = results;
+    }
+
+    /**
+     * @param channel
+     *            The stored cache file
+     * @return The full content of the file
+     * @throws IOException
+     *             If there is an error reading the file
+     */
+    private static ByteBuffer read(FileChannel channel) throws IOException {
+        long size = channel.size();
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Analysis cache file is larger (" + size + " bytes) than may be stored");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // Channels may read fewer bytes than requested
+        }
+
+        buffer.flip();
+
+        return buffer;
+    }
+
+    /**
+     * @param buffer
+     *            The stored index, positioned at a count of entries
+     * @param entryBytes
+     *            The minimum number of bytes each entry is stored in
+     * @return The number of entries
+     * @throws IllegalStateException
+     *             If the remaining index is too short to contain the number of entries read, such as when the count is
+     *             damaged
+     */
+    private static int readCount(ByteBuffer buffer, int entryBytes) {
+        int count = buffer.getInt();
+
+        if (count < 0 || count > buffer.remaining() / entryBytes) {
+            throw new IllegalStateException("Invalid analysis cache entry count (" + count + ")");
+        }
+
+        return count;
+    }
+
+    private static byte[] toByteArray(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        byte[] result = new byte[view.remaining()];
+        view.get(result);
+
+        return result;
+    }
+
+    private static String readUtf(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        byte[] encoded = new byte[length + 2];
+        encoded[0] = (byte) (length >>> 8);
+        encoded[1] = (byte) length;
+        buffer.get(encoded, 2, length);
+
+        try {
+            return new DataInputStream(new ByteArrayInputStream(encoded)).readUTF();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encode(String className, Multimap<ReferencedMethod, MethodUse> references) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeUTF(className);
+            output.writeInt(references.keySet().size());
+
+            for (Entry<ReferencedMethod, Collection<MethodUse>> reference : references.asMap().entrySet()) {
+                output.writeUTF(reference.getKey().getMethodOwner());
+                output.writeUTF(reference.getKey().getMethodName());
+                output.writeInt(reference.getKey().getInputs().size());
+
+                for (String input : reference.getKey().getInputs()) {
+                    output.writeUTF(input);
+                }
+
+                output.writeUTF(reference.getKey().getOutput());
+                output.writeInt(reference.getValue().size());
+
+                for (MethodUse use : reference.getValue()) {
+                    output.writeUTF(use.getQualifiedMethodName());
+                    output.writeBoolean(use.getLineNumber().isPresent());
+                    output.writeInt(use.getLineNumber().orElse(0));
+                }
+            }
+        } catch (IOException e) {
+            // In-memory streams do not fail to write
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Represents the stored analysis result of a single class
+     *
+     * @author romeara
+     */
+    static final class CachedClass {
+
+        private final ByteBuffer content;
+
+        private CachedClass(ByteBuffer content) {
+            this.content = Objects.requireNonNull(content);
+        }
+
+        /**
+         * Registers the class's name as an excluded method owner, and its method references, with a registry - matching
+         * the registrations made when the class was originally parsed
+         *
+         * @param referenceRegistry
+         *            The registry to record to
+         */
+        void registerTo(MethodReferenceRegistry referenceRegistry) {
+            try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(toByteArray(content)))) {
+                referenceRegistry.registerExclusion(input.readUTF());
+
+                int referenceCount = input.readInt();
+
+                for (int i = 0; i < referenceCount; i++) {
+                    String methodOwner = input.readUTF();
+                    String methodName = input.readUTF();
+                    int inputCount = input.readInt();
+                    List<String> inputs = new ArrayList<>(inputCount);
+
+                    for (int j = 0; j < inputCount; j++) {
+                        inputs.add(input.readUTF());
+                    }
+
+                    String output = input.readUTF();
+                    int useCount = input.readInt();
+
+                    for (int j = 0; j < useCount; j++) {
+                        String whereUsed = input.readUTF();
+                        boolean hasLineNumber = input.readBoolean();
+                        int lineNumber = input.readInt();
+
+                        referenceRegistry.registerReference(methodOwner, methodName, inputs, output, whereUsed, hasLineNumber ? lineNumber : null);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Malformed analysis cache entry", e);
+            }
+        }
+
+    }
+
+    /**
+     * Represents the file system metadata and content hash recorded for an analyzed class file
+     *
+     * @author romeara
+     */
+    private static final class FileRecord {
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final HashCode hash;
+
+        private FileRecord(long size, long lastModified, HashCode hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = Objects.requireNonNull(hash);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                    .add("size", size)
+                    .add("lastModified", lastModified)
+                    .add("hash", hash)
+                    .toString();
+        }
+
+    }
+
+}
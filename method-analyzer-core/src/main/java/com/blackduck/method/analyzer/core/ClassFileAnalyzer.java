@@ -0,0 +1,364 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.annotation.Nullable;
+
+import org.objectweb.asm.ClassReader;
+
+import com.blackduck.method.analyzer.core.ClassAnalysisCache.CachedClass;
+import com.blackduck.method.analyzer.core.bytecode.ClassMethodReferenceVisitor;
+import com.blackduck.method.analyzer.core.bytecode.ConstantPoolReferenceScanner;
+import com.blackduck.method.analyzer.core.bytecode.MethodReferenceRegistry;
+import com.blackduck.method.analyzer.core.bytecode.SymbolTable;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Handles parsing individual class files, and archives of class files, into a method reference registry
+ *
+ * <p>
+ * Each instance records to its own registry, and is intended for use by a single thread
+ *
+ * @author romeara
+ */
+class ClassFileAnalyzer {
+
+    static final String CLASS_FILE_EXTENSION = ".class";
+
+    /**
+     * File extensions (lower case) of archives which may be analyzed directly, or which are analyzed when nested within
+     * another archive
+     */
+    private static final Set<String> ARCHIVE_EXTENSIONS = ImmutableSet.of(".jar", ".war", ".ear", ".zip");
+
+    /**
+     * Separator placed between an archive's path and the path of an entry within it, when describing the location of a
+     * class file within an archive
+     */
+    static final String ARCHIVE_ENTRY_SEPARATOR = "!/";
+
+    private final MethodReferenceRegistry referenceRegistry;
+
+    private final ClassMethodReferenceVisitor bytecodeAnalyzer;
+
+    private final ConstantPoolReferenceScanner constantPoolScanner;
+
+    private final ParseMode parseMode;
+
+    private final Map<String, String> brokenFiles;
+
+    @Nullable
+    private final ClassAnalysisCache cache;
+
+    private final SymbolTable symbols;
+
+    private final AnalysisStatistics statistics;
+
+    /**
+     * @param referenceRegistry
+     *            The registry to record references found to. Must be thread-safe if shared between instances used on
+     *            different threads
+     * @param brokenFiles
+     *            Mapping to record the locations of any classes which could not be parsed to. Must be thread-safe if
+     *            shared between instances used on different threads
+     * @param cache
+     *            Results of previous analyses to re-use for unchanged classes. May be null to parse all classes
+     * @param symbols
+     *            The table of symbol IDs for the analysis. May be shared between instances used on different threads
+     * @param parseMode
+     *            How much of each class file is parsed. A cache may only be provided for modes which are cacheable
+     * @param statistics
+     *            Measurements of the analysis to record cache use to. May be shared between instances used on different
+     *            threads
+     */
+    ClassFileAnalyzer(MethodReferenceRegistry referenceRegistry, Map<String, String> brokenFiles, @Nullable ClassAnalysisCache cache, SymbolTable symbols,
+            ParseMode parseMode, AnalysisStatistics statistics) {
+        Preconditions.checkArgument(cache == null || parseMode.isCacheable(), "Parse mode %s may not be used with a cache", parseMode);
+
+        this.referenceRegistry = Objects.requireNonNull(referenceRegistry);
+        this.bytecodeAnalyzer = new ClassMethodReferenceVisitor(referenceRegistry);
+        this.constantPoolScanner = new ConstantPoolReferenceScanner(referenceRegistry);
+        this.parseMode = Objects.requireNonNull(parseMode);
+        this.brokenFiles = Objects.requireNonNull(brokenFiles);
+        this.cache = cache;
+        this.symbols = Objects.requireNonNull(symbols);
+        this.statistics = Objects.requireNonNull(statistics);
+    }
+
+    /**
+     * @return The registry containing the references found by this analyzer
+     */
+    MethodReferenceRegistry getReferenceRegistry() {
+        return referenceRegistry;
+    }
+
+    /**
+     * Parses a single class file, recording any parsing failures which should not stop the overall analysis
+     *
+     * @param classFile
+     *            The class file to analyze
+     * @throws IOException
+     *             If there is an error reading the file
+     */
+    void analyzeFile(Path classFile) throws IOException {
+        if (cache != null) {
+            BasicFileAttributes attributes = Files.readAttributes(classFile, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+
+            Optional<CachedClass> cached = cache.find(classFile, attributes.size(), lastModified);
+
+            if (cached.isPresent()) {
+                statistics.recordCacheHit();
+                cached.get().registerTo(referenceRegistry);
+            } else {
+                analyzeCached(classFile.toString(), Files.readAllBytes(classFile), classFile, attributes.size(), lastModified);
+            }
+        } else {
+            try (InputStream inputStream = Files.newInputStream(classFile)) {
+                analyzeStream(classFile.toString(), inputStream);
+            }
+        }
+    }
+
+    /**
+     * Analyzes the class file entries of an open archive stream, recursing into any nested archives (such as
+     * {@code WEB-INF/lib} or {@code BOOT-INF/lib} libraries)
+     *
+     * <p>
+     * Entries are streamed directly from the archive to the parser - no content is extracted to disk
+     *
+     * @param archiveLocation
+     *            Description of the archive's location, used to qualify the locations of any broken entries
+     * @param archiveStream
+     *            Stream of the archive's entries. Not closed by this method
+     * @throws IOException
+     *             If there is an error reading the archive
+     */
+    void analyzeArchive(String archiveLocation, ZipInputStream archiveStream) throws IOException {
+        ZipEntry entry = archiveStream.getNextEntry();
+
+        while (entry != null) {
+            String entryLocation = archiveLocation + ARCHIVE_ENTRY_SEPARATOR + entry.getName();
+
+            if (!entry.isDirectory()) {
+                if (entry.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                    analyzeStream(entryLocation, archiveStream);
+                } else if (isArchive(entry.getName())) {
+                    // The nested stream is intentionally not closed, as that would close the enclosing archive's stream
+                    try {
+                        analyzeArchive(entryLocation, new ZipInputStream(archiveStream));
+                    } catch (IOException e) {
+                        // Truncated or otherwise unreadable nested archives are recorded, instead of failing the analysis
+                        brokenFiles.put(entryLocation, "Malformed nested archive: " + Strings.nullToEmpty(e.getMessage()));
+                    }
+                }
+            }
+
+            archiveStream.closeEntry();
+            entry = archiveStream.getNextEntry();
+        }
+    }
+
+    /**
+     * Parses a single class from a stream, recording any parsing failures which should not stop the overall analysis
+     *
+     * @param location
+     *            The location of the class file, recorded if it could not be parsed
+     * @param inputStream
+     *            Stream of the class file's content. Not closed by this method
+     * @throws IOException
+     *             If there is an error reading the stream
+     */
+    void analyzeStream(String location, InputStream inputStream) throws IOException {
+        if (cache != null) {
+            analyzeCached(location, ByteStreams.toByteArray(inputStream), null, 0, 0);
+        } else {
+            parse(location, () -> new ClassReader(inputStream), bytecodeAnalyzer);
+        }
+    }
+
+    /**
+     * Parses a single class held in memory, recording any parsing failures which should not stop the overall analysis
+     *
+     * <p>
+     * Heap buffers are parsed in place, without copying their content
+     *
+     * @param location
+     *            The location of the class, recorded if it could not be parsed
+     * @param content
+     *            The content of the class file, from the buffer's position to its limit. Not modified
+     * @throws IOException
+     *             If there is an error reading the class
+     */
+    void analyzeBuffer(String location, ByteBuffer content) throws IOException {
+        if (cache != null) {
+            analyzeCached(location, toByteArray(content), null, 0, 0);
+        } else if (content.hasArray()) {
+            parse(location, () -> new ClassReader(content.array(), content.arrayOffset() + content.position(), content.remaining()), bytecodeAnalyzer);
+        } else {
+            parse(location, () -> new ClassReader(toByteArray(content)), bytecodeAnalyzer);
+        }
+    }
+
+    /**
+     * Analyzes a class using previously cached results if the class is unchanged, and caches the result of parsing it
+     * otherwise
+     *
+     * @param location
+     *            The location of the class file, recorded if it could not be parsed
+     * @param content
+     *            The content of the class file
+     * @param path
+     *            The file system path of the class file, or null if it is not stored directly on a file system
+     * @param size
+     *            The size of the class file
+     * @param lastModified
+     *            The last-modified time of the class file
+     * @throws IOException
+     *             If there is an error reading the class
+     */
+    private void analyzeCached(String location, byte[] content, @Nullable Path path, long size, long lastModified) throws IOException {
+        HashCode contentHash = ClassAnalysisCache.hash(content);
+        Optional<CachedClass> cached = cache.find(path, size, lastModified, contentHash);
+
+        if (cached.isPresent()) {
+            statistics.recordCacheHit();
+            cached.get().registerTo(referenceRegistry);
+        } else {
+            statistics.recordCacheMiss();
+
+            // Parse to a separate registry, so that this class's contribution may be recorded on its own. Known owners
+            // are not applied, as they are specific to the current analysis
+            MethodReferenceRegistry classRegistry = new MethodReferenceRegistry(Collections.emptySet(), symbols);
+            ClassReader reader = parse(location, () -> new ClassReader(content), new ClassMethodReferenceVisitor(classRegistry));
+
+            // Classes which failed to parse are not cached, so that they continue to be reported as broken
+            if (reader != null) {
+                cache.store(path, size, lastModified, contentHash, reader.getClassName().replace('/', '.'), classRegistry.getReferences());
+            }
+
+            referenceRegistry.merge(classRegistry);
+        }
+    }
+
+    /**
+     * @param content
+     *            A buffer of class file content
+     * @return A copy of the content from the buffer's position to its limit, without modifying the buffer
+     */
+    static byte[] toByteArray(ByteBuffer content) {
+        byte[] result = new byte[content.remaining()];
+        content.duplicate().get(result);
+
+        return result;
+    }
+
+    /**
+     * @param name
+     *            A file or archive entry name
+     * @return True if the name has the extension of a supported Java archive format
+     */
+    static boolean isArchive(String name) {
+        String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
+
+        return ARCHIVE_EXTENSIONS.stream()
+                .anyMatch(lowerCaseName::endsWith);
+    }
+
+    /**
+     * Passes a class to a visitor, recording any parsing failures which should not stop the overall analysis
+     *
+     * @param location
+     *            The location of the class file, recorded if it could not be parsed
+     * @param readerSource
+     *            Source of the reader for the class to parse
+     * @param visitor
+     *            The visitor to pass the class to
+     * @return The reader for the class, or null if it could not be parsed
+     * @throws IOException
+     *             If there is an error reading the class
+     */
+    @Nullable
+    private ClassReader parse(String location, ClassReaderSource readerSource, ClassMethodReferenceVisitor visitor) throws IOException {
+        try {
+            ClassReader reader = readerSource.open();
+
+            if (parseMode == ParseMode.CONSTANT_POOL) {
+                constantPoolScanner.scan(reader);
+            } else {
+                reader.accept(visitor, parseMode.getReaderFlags());
+            }
+
+            return reader;
+        } catch (IllegalArgumentException e) {
+            // IDETECT-3275: Instead of killing an entire analysis because of a single broken file, record the
+            // broken file and move on
+            if (Strings.nullToEmpty(e.getMessage()).startsWith("Unsupported class file major version")) {
+                brokenFiles.put(location, Strings.nullToEmpty(e.getMessage()));
+            } else if (parseMode == ParseMode.CONSTANT_POOL) {
+                // Constant pool scans reject classes whose constants refer to attributes the class does not have
+                brokenFiles.put(location, "Malformed class structure: " + Strings.nullToEmpty(e.getMessage()));
+            } else {
+                throw e;
+            }
+        } catch (IndexOutOfBoundsException | ClassFormatError | NegativeArraySizeException e) {
+            //IDETECT-4924 Handle malformed classes properly
+            brokenFiles.put(location, "Malformed class structure: " + Strings.nullToEmpty(e.getMessage()));
+        }
+
+        return null;
+    }
+
+    /**
+     * Represents a deferred construction of a class reader, so that failures while reading the class header are handled
+     * in the same manner as failures while parsing the rest of the class
+     *
+     * @author romeara
+     */
+    @FunctionalInterface
+    private interface ClassReaderSource {
+
+        ClassReader open() throws IOException;
+
+    }
+
+}
@@ -0,0 +1,473 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Represents a stream of class files discovered by a walk of the file system running on another thread, so that
+ * discovering class files overlaps with reading and parsing them
+ *
+ * <p>
+ * Discovered class files are held in a bounded queue - once it is full, the walk waits for class files to be taken
+ * from the stream. Memory use is therefore independent of the number of class files found. The largest class file
+ * held is provided first, so that parallel workers start on the most expensive files discovered so far rather than
+ * finishing on them
+ *
+ * @author romeara
+ */
+final class ClassFileQueue implements ClassFileStream, Closeable {
+
+    /**
+     * Number of discovered class files which may be held waiting for analysis before the walk waits
+     */
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private static final Comparator<DiscoveredFile> LARGEST_FIRST = Comparator.comparingLong((DiscoveredFile file) -> file.size).reversed();
+
+    private final String name;
+
+    private final int capacity;
+
+    private final Walk walk;
+
+    private final ReentrantLock lock;
+
+    private final Condition notEmpty;
+
+    private final Condition notFull;
+
+    private final SpaceBlocker spaceBlocker;
+
+    // Guarded by lock
+    private final PriorityQueue<DiscoveredFile> queue;
+
+    // Guarded by lock - set once the walk has added its last class file, or the stream is closed
+    private boolean ended;
+
+    private final AtomicBoolean started;
+
+    private final CountDownLatch walkComplete;
+
+    @Nullable
+    private volatile Throwable walkFailure;
+
+    private volatile boolean closed;
+
+    private volatile long walkNanos;
+
+    /**
+     * @param name
+     *            Name of the walk, used to name the thread it runs on
+     * @param capacity
+     *            Number of discovered class files which may be held waiting for analysis
+     * @param walk
+     *            The walk which discovers class files, and adds them to this queue
+     */
+    private ClassFileQueue(String name, int capacity, Walk walk) {
+        Preconditions.checkArgument(capacity > 0, "Queue capacity must be positive (%s)", capacity);
+
+        this.name = Objects.requireNonNull(name);
+        this.capacity = capacity;
+        this.walk = Objects.requireNonNull(walk);
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+        this.spaceBlocker = new SpaceBlocker();
+        this.queue = new PriorityQueue<>(capacity, LARGEST_FIRST);
+        this.ended = false;
+        this.started = new AtomicBoolean(false);
+        this.walkComplete = new CountDownLatch(1);
+        this.walkFailure = null;
+        this.closed = false;
+        this.walkNanos = 0;
+    }
+
+    /**
+     * Starts a walk of the file system on a dedicated thread
+     *
+     * @param name
+     *            Name of the walk, used to name the thread it runs on
+     * @param capacity
+     *            Number of discovered class files which may be held waiting for analysis
+     * @param walk
+     *            The walk which discovers class files, and adds them to the returned queue
+     * @return A stream of the class files discovered by the walk, which should be closed once no longer read
+     */
+    static ClassFileQueue start(String name, int capacity, Walk walk) {
+        return start(name, capacity, walk, null);
+    }
+
+    /**
+     * Starts a walk of the file system on a caller-provided executor, or on a dedicated thread if none is provided
+     *
+     * <p>
+     * The walk occupies a thread of the executor until it completes, which requires readers to take class files from
+     * the stream - readers must therefore not wait for the walk to start on an executor with no other thread available
+     *
+     * @param name
+     *            Name of the walk, used to name the thread it runs on when no executor is provided
+     * @param capacity
+     *            Number of discovered class files which may be held waiting for analysis
+     * @param walk
+     *            The walk which discovers class files, and adds them to the returned queue
+     * @param executor
+     *            The executor to run the walk on. May be null to run the walk on a dedicated thread
+     * @return A stream of the class files discovered by the walk, which should be closed once no longer read
+     */
+    static ClassFileQueue start(String name, int capacity, Walk walk, @Nullable Executor executor) {
+        ClassFileQueue result = new ClassFileQueue(name, capacity, walk);
+
+        if (executor != null) {
+            executor.execute(result::runWalk);
+        } else {
+            Thread walkThread = new Thread(result::runWalk, "method-analyzer-walk-" + name);
+            walkThread.setDaemon(true);
+            walkThread.start();
+        }
+
+        return result;
+    }
+
+    /**
+     * @return The time the walk took to complete, in nanoseconds. Only available once the end of the stream is reached
+     */
+    long getWalkNanos() {
+        return walkNanos;
+    }
+
+    /**
+     * @return True if the stream has been closed, and the walk should stop
+     */
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Adds a discovered class file, waiting for space in the queue if needed. May be called by multiple threads
+     * concurrently
+     *
+     * @param classFile
+     *            The class file discovered
+     * @param size
+     *            The size of the class file in bytes, as read during the walk. Used only to order the class files held
+     * @param ownerOnly
+     *            True if the class file is only read for the classes it defines, rather than analyzed
+     * @throws InterruptedIOException
+     *             If the stream was closed, and the walk should stop
+     */
+    void put(Path classFile, long size, boolean ownerOnly) throws InterruptedIOException {
+        Objects.requireNonNull(classFile);
+
+        try {
+            // Fork/join workers of a parallel walk are compensated while waiting, so that waiting never starves the pool
+            // of threads for the walk's other tasks. Other threads simply wait
+            while (!offer(classFile, size, ownerOnly)) {
+                ForkJoinPool.managedBlock(spaceBlocker);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Class file discovery was cancelled");
+        }
+    }
+
+    /**
+     * Adds a discovered class file if there is space in the queue
+     *
+     * @param classFile
+     *            The class file discovered
+     * @param size
+     *            The size of the class file in bytes, as read during the walk
+     * @param ownerOnly
+     *            True if the class file is only read for the classes it defines, rather than analyzed
+     * @return True if the class file was added, false if the queue is full
+     * @throws InterruptedIOException
+     *             If the stream was closed, and the walk should stop
+     */
+    private boolean offer(Path classFile, long size, boolean ownerOnly) throws InterruptedIOException {
+        lock.lock();
+
+        try {
+            if (closed) {
+                throw new InterruptedIOException("Class file discovery was cancelled");
+            }
+
+            if (queue.size() >= capacity) {
+                return false;
+            }
+
+            queue.add(new DiscoveredFile(classFile, size, ownerOnly));
+            notEmpty.signal();
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Nullable
+    @Override
+    public Path next() throws IOException {
+        DiscoveredFile classFile = take();
+
+        return (classFile != null ? classFile.path : null);
+    }
+
+    @Override
+    public boolean next(ClassFileHandler classFiles, ClassFileHandler ownerClassFiles) throws IOException {
+        DiscoveredFile classFile = take();
+
+        if (classFile == null) {
+            return false;
+        }
+
+        if (classFile.ownerOnly) {
+            ownerClassFiles.handle(classFile.path);
+        } else {
+            classFiles.handle(classFile.path);
+        }
+
+        return true;
+    }
+
+    /**
+     * Waits for the next class file to be discovered, if needed
+     *
+     * @return The next class file, or null if all class files have been provided
+     * @throws IOException
+     *             If there is an error discovering class files
+     */
+    @Nullable
+    private DiscoveredFile take() throws IOException {
+        lock.lock();
+
+        try {
+            while (queue.isEmpty() && !ended) {
+                notEmpty.await();
+            }
+
+            DiscoveredFile classFile = queue.poll();
+
+            if (classFile != null) {
+                notFull.signal();
+
+                return classFile;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while waiting for class files to be discovered");
+        } finally {
+            lock.unlock();
+        }
+
+        Throwable failure = walkFailure;
+
+        if (failure instanceof IOException) {
+            throw new IOException("Error discovering class files", failure);
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+
+        return null;
+    }
+
+    /**
+     * Stops the walk, if it is still running, and waits for it to complete. Any reader still waiting for a class file
+     * is then released, finding the end of the stream
+     *
+     * @throws InterruptedIOException
+     *             If interrupted while waiting for the walk to stop
+     */
+    @Override
+    public void close() throws InterruptedIOException {
+        closed = true;
+
+        // Walks waiting for space are released, and find the stream closed on their next attempt to add a class file
+        lock.lock();
+
+        try {
+            queue.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        // A walk which has not yet started on its executor is skipped once it does start, so is not waited for
+        if (!started.compareAndSet(false, true)) {
+            try {
+                walkComplete.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException("Interrupted while waiting for class file discovery to stop");
+            }
+        }
+
+        end();
+    }
+
+    private void runWalk() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+
+        try {
+            walk.run(this);
+        } catch (IOException | RuntimeException | Error e) {
+            walkFailure = e;
+        } finally {
+            walkNanos = System.nanoTime() - startNanos;
+            walkComplete.countDown();
+
+            end();
+        }
+    }
+
+    /**
+     * Marks that no further class files will be added, releasing readers waiting for a class file once those already
+     * held are taken
+     */
+    private void end() {
+        lock.lock();
+
+        try {
+            ended = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+
+        try {
+            return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                    .add("name", name)
+                    .add("queued", queue.size())
+                    .add("ended", ended)
+                    .toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Handles waiting for space in the queue, or for the stream to be closed, on behalf of a walk adding a class file
+     *
+     * @author romeara
+     */
+    private final class SpaceBlocker implements ForkJoinPool.ManagedBlocker {
+
+        @Override
+        public boolean block() throws InterruptedException {
+            lock.lock();
+
+            try {
+                while (!closed && queue.size() >= capacity) {
+                    notFull.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            lock.lock();
+
+            try {
+                return closed || queue.size() < capacity;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+    }
+
+    /**
+     * Represents a class file held waiting for analysis
+     *
+     * @author romeara
+     */
+    private static final class DiscoveredFile {
+
+        private final Path path;
+
+        private final long size;
+
+        private final boolean ownerOnly;
+
+        private DiscoveredFile(Path path, long size, boolean ownerOnly) {
+            this.path = path;
+            this.size = size;
+            this.ownerOnly = ownerOnly;
+        }
+
+    }
+
+    /**
+     * Represents discovery of class files on a file system
+     *
+     * @author romeara
+     */
+    @FunctionalInterface
+    interface Walk {
+
+        /**
+         * @param classFiles
+         *            The queue to add discovered class files to
+         * @throws IOException
+         *             If there is an error discovering class files, or the walk is cancelled
+         */
+        void run(ClassFileQueue classFiles) throws IOException;
+
+    }
+
+}
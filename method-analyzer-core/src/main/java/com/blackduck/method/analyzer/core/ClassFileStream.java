@@ -0,0 +1,112 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.annotation.Nullable;
+
+/**
+ * Represents class files stored on a file system, provided to a {@link ClassSourceVisitor} as they are discovered
+ *
+ * <p>
+ * Implementations must be thread-safe - a stream may be read by multiple threads concurrently, with each class file
+ * provided to only one of them. This allows class files to be analyzed while the remainder are still being discovered
+ *
+ * @author romeara
+ */
+@FunctionalInterface
+public interface ClassFileStream {
+
+    /**
+     * @param classFiles
+     *            The class files to provide
+     * @return A stream which provides the given class files, in the order provided
+     */
+    static ClassFileStream of(Collection<Path> classFiles) {
+        Queue<Path> pending = new ConcurrentLinkedQueue<>(classFiles);
+
+        return pending::poll;
+    }
+
+    /**
+     * Waits for the next class file to be discovered, if needed
+     *
+     * @return The next class file, or null if all class files have been provided
+     * @throws IOException
+     *             If there is an error discovering class files
+     */
+    @Nullable
+    Path next() throws IOException;
+
+    /**
+     * Waits for the next class file to be discovered, if needed, and provides it to the handler for its role
+     *
+     * <p>
+     * Some class files may not be analyzed, but define classes within the analyzed project (such as those excluded from
+     * a directory search, when excluded classes are counted as owners) - references to the classes they define should
+     * not be recorded. {@link #next()} provides these alongside all other class files
+     *
+     * @param classFiles
+     *            Handles a class file to analyze
+     * @param ownerClassFiles
+     *            Handles a class file which is only read for the classes it defines
+     * @return True if a class file was provided, false if all class files have been provided
+     * @throws IOException
+     *             If there is an error discovering class files, or handling the class file provided
+     */
+    default boolean next(ClassFileHandler classFiles, ClassFileHandler ownerClassFiles) throws IOException {
+        Path classFile = next();
+
+        if (classFile == null) {
+            return false;
+        }
+
+        classFiles.handle(classFile);
+
+        return true;
+    }
+
+    /**
+     * Represents handling of a single class file taken from a stream
+     *
+     * @author romeara
+     */
+    @FunctionalInterface
+    interface ClassFileHandler {
+
+        /**
+         * @param classFile
+         *            The class file to handle
+         * @throws IOException
+         *             If there is an error reading the class file
+         */
+        void handle(Path classFile) throws IOException;
+
+    }
+
+}
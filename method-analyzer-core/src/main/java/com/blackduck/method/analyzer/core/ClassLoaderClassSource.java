@@ -0,0 +1,92 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Represents the class file resources of specific classes available from a class loader
+ *
+ * @author romeara
+ */
+final class ClassLoaderClassSource implements ClassSource {
+
+    private final String location;
+
+    private final ClassLoader classLoader;
+
+    private final List<String> classNames;
+
+    /**
+     * @param location
+     *            Description of where the classes originated from, used to describe the source in reports
+     * @param classLoader
+     *            The class loader to read class file resources from
+     * @param classNames
+     *            The qualified names of the classes to read
+     */
+    ClassLoaderClassSource(String location, ClassLoader classLoader, Iterable<String> classNames) {
+        this.location = Objects.requireNonNull(location);
+        this.classLoader = Objects.requireNonNull(classLoader);
+        this.classNames = ImmutableList.copyOf(classNames);
+    }
+
+    @Override
+    public String getLocation() {
+        return location;
+    }
+
+    @Override
+    public void accept(ClassSourceVisitor visitor) throws IOException {
+        Objects.requireNonNull(visitor);
+
+        for (String className : classNames) {
+            String resourceName = className.replace('.', '/') + ClassFileAnalyzer.CLASS_FILE_EXTENSION;
+
+            try (InputStream inputStream = classLoader.getResourceAsStream(resourceName)) {
+                if (inputStream == null) {
+                    throw new FileNotFoundException("No class file resource found for " + className + " in " + location);
+                }
+
+                visitor.visitClass(location + ClassFileAnalyzer.ARCHIVE_ENTRY_SEPARATOR + resourceName, inputStream);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("location", location)
+                .add("classLoader", classLoader)
+                .add("classNames", classNames.size())
+                .toString();
+    }
+
+}
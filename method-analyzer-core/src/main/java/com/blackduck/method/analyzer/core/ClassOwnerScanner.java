@@ -0,0 +1,151 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.objectweb.asm.ClassReader;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Handles the first pass of a two-phase analysis, which discovers the classes defined within a project by reading only
+ * class file headers
+ *
+ * <p>
+ * Class files which cannot be read are skipped - they are recorded as broken by the full analysis which follows. Each
+ * instance is intended for use by a single thread
+ *
+ * @author romeara
+ */
+class ClassOwnerScanner {
+
+    private final ImmutableSet.Builder<String> owners;
+
+    ClassOwnerScanner() {
+        this.owners = ImmutableSet.builder();
+    }
+
+    /**
+     * @return The qualified names of all classes discovered by this scanner
+     */
+    ImmutableSet<String> getOwners() {
+        return owners.build();
+    }
+
+    /**
+     * @param classFile
+     *            The class file to read the defined class name of
+     * @throws IOException
+     *             If there is an error reading the file
+     */
+    void scanFile(Path classFile) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(classFile)) {
+            scanStream(inputStream);
+        }
+    }
+
+    /**
+     * Reads the defined class names of the class file entries of an open archive stream, recursing into any nested
+     * archives
+     *
+     * @param archiveStream
+     *            Stream of the archive's entries. Not closed by this method
+     * @throws IOException
+     *             If there is an error reading the archive
+     */
+    void scanArchive(ZipInputStream archiveStream) throws IOException {
+        ZipEntry entry = archiveStream.getNextEntry();
+
+        while (entry != null) {
+            if (!entry.isDirectory()) {
+                if (entry.getName().endsWith(ClassFileAnalyzer.CLASS_FILE_EXTENSION)) {
+                    scanStream(archiveStream);
+                } else if (ClassFileAnalyzer.isArchive(entry.getName())) {
+                    // The nested stream is intentionally not closed, as that would close the enclosing archive's stream
+                    try {
+                        scanArchive(new ZipInputStream(archiveStream));
+                    } catch (IOException e) {
+                        // Malformed nested archives are recorded by the full analysis
+                    }
+                }
+            }
+
+            archiveStream.closeEntry();
+            entry = archiveStream.getNextEntry();
+        }
+    }
+
+    /**
+     * @param inputStream
+     *            Stream of a class file's content. Not closed by this method
+     * @throws IOException
+     *             If there is an error reading the stream
+     */
+    void scanStream(InputStream inputStream) throws IOException {
+        scan(() -> new ClassReader(inputStream));
+    }
+
+    /**
+     * @param content
+     *            The content of a class file, from the buffer's position to its limit. Not modified
+     * @throws IOException
+     *             If there is an error reading the class
+     */
+    void scanBuffer(ByteBuffer content) throws IOException {
+        if (content.hasArray()) {
+            scan(() -> new ClassReader(content.array(), content.arrayOffset() + content.position(), content.remaining()));
+        } else {
+            scan(() -> new ClassReader(ClassFileAnalyzer.toByteArray(content)));
+        }
+    }
+
+    private void scan(ClassReaderSource readerSource) throws IOException {
+        try {
+            // Only the header is parsed when determining the class name - no fields, methods, or code are visited
+            owners.add(readerSource.open().getClassName().replace('/', '.'));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | ClassFormatError | NegativeArraySizeException e) {
+            // Broken class files are recorded by the full analysis
+        }
+    }
+
+    /**
+     * Represents a deferred construction of a class reader, so that failures while reading the class header are handled
+     * in the same manner regardless of where the class is read from
+     *
+     * @author romeara
+     */
+    @FunctionalInterface
+    private interface ClassReaderSource {
+
+        ClassReader open() throws IOException;
+
+    }
+
+}
@@ -0,0 +1,202 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+/**
+ * Represents a set of compiled classes to analyze, such as a directory of class files, a Java archive, or classes held
+ * in memory
+ *
+ * <p>
+ * Sources provide the content of each class to a {@link ClassSourceVisitor}, which parses it directly - classes held
+ * in memory or within archives are never written to disk. Custom sources may be implemented to provide classes from
+ * other locations
+ *
+ * @author romeara
+ */
+public interface ClassSource {
+
+    /**
+     * @param path
+     *            A directory containing (directly, or recursively) class files, or a Java archive (jar, war, ear, or
+     *            zip) containing class files, directly or within nested archives
+     * @return A source of the classes within the directory or archive
+     */
+    static ClassSource of(Path path) {
+        return of(path, WalkOptions.defaults());
+    }
+
+    /**
+     * @param path
+     *            A directory containing (directly, or recursively) class files, or a Java archive (jar, war, ear, or
+     *            zip) containing class files, directly or within nested archives
+     * @param walkOptions
+     *            Configuration controlling how the directory is searched for class files, if the path is a directory.
+     *            Include and exclude patterns may not be configured if the path is an archive
+     * @return A source of the classes within the directory or archive
+     * @throws IllegalArgumentException
+     *             If the path is not a directory or supported archive, or is an archive and include or exclude
+     *             patterns are configured
+     */
+    static ClassSource of(Path path, WalkOptions walkOptions) {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(walkOptions);
+        Preconditions.checkArgument(Files.exists(path), "The source path provided (%s) does not exist", path.toString());
+
+        if (Files.isDirectory(path)) {
+            return directory(path, walkOptions);
+        }
+
+        Preconditions.checkArgument(Files.isRegularFile(path) && ClassFileAnalyzer.isArchive(path.getFileName().toString()),
+                "The source path provided (%s) is not a directory or supported archive", path.toString());
+        Preconditions.checkArgument(walkOptions.getIncludes().isEmpty() && walkOptions.getExcludes().isEmpty(),
+                "Include and exclude patterns only apply to directories, and cannot be applied to the archive provided (%s)", path.toString());
+
+        return archive(path);
+    }
+
+    /**
+     * @param directory
+     *            A directory containing (directly, or recursively) class files. May be on any file system
+     * @return A source of the class files within the directory
+     */
+    static ClassSource directory(Path directory) {
+        return directory(directory, WalkOptions.defaults());
+    }
+
+    /**
+     * @param directory
+     *            A directory containing (directly, or recursively) class files. May be on any file system
+     * @param walkOptions
+     *            Configuration controlling how the directory is searched for class files
+     * @return A source of the class files within the directory
+     */
+    static ClassSource directory(Path directory, WalkOptions walkOptions) {
+        Objects.requireNonNull(directory);
+
+        return new DirectoryClassSource(directory.toString(), ImmutableList.of(directory), walkOptions);
+    }
+
+    /**
+     * @param archive
+     *            A Java archive (jar, war, ear, or zip) containing class files, directly or within nested archives. May
+     *            be on any file system
+     * @return A source of the class files within the archive
+     */
+    static ClassSource archive(Path archive) {
+        Objects.requireNonNull(archive);
+
+        return new ArchiveClassSource(archive);
+    }
+
+    /**
+     * @param fileSystem
+     *            A file system containing (directly, or recursively) class files, such as an in-memory file system
+     * @return A source of the class files within all root directories of the file system
+     */
+    static ClassSource fileSystem(FileSystem fileSystem) {
+        return fileSystem(fileSystem, WalkOptions.defaults());
+    }
+
+    /**
+     * @param fileSystem
+     *            A file system containing (directly, or recursively) class files, such as an in-memory file system
+     * @param walkOptions
+     *            Configuration controlling how each root directory is searched for class files. Patterns are matched
+     *            against paths relative to the root directory
+     * @return A source of the class files within all root directories of the file system
+     */
+    static ClassSource fileSystem(FileSystem fileSystem, WalkOptions walkOptions) {
+        Objects.requireNonNull(fileSystem);
+
+        return new DirectoryClassSource(fileSystem.toString(), ImmutableList.copyOf(fileSystem.getRootDirectories()), walkOptions);
+    }
+
+    /**
+     * @param location
+     *            Description of where the classes originated from, used to describe the source in reports
+     * @param classes
+     *            The content of each class file. Iterated each time classes are read from the source
+     * @return A source of the provided classes
+     */
+    static ClassSource classes(String location, Iterable<byte[]> classes) {
+        Objects.requireNonNull(classes);
+
+        return buffers(location, Iterables.transform(classes, ByteBuffer::wrap));
+    }
+
+    /**
+     * @param location
+     *            Description of where the classes originated from, used to describe the source in reports
+     * @param classes
+     *            The content of each class file, from each buffer's position to its limit. Iterated each time classes
+     *            are read from the source. The buffers are not modified
+     * @return A source of the provided classes
+     */
+    static ClassSource buffers(String location, Iterable<ByteBuffer> classes) {
+        return new BufferClassSource(location, classes);
+    }
+
+    /**
+     * @param location
+     *            Description of where the classes originated from, used to describe the source in reports
+     * @param classLoader
+     *            The class loader to read class file resources from
+     * @param classNames
+     *            The qualified names of the classes to read, such as {@code com.example.Type}
+     * @return A source of the class file resources of the named classes
+     */
+    static ClassSource classLoader(String location, ClassLoader classLoader, Iterable<String> classNames) {
+        return new ClassLoaderClassSource(location, classLoader, classNames);
+    }
+
+    /**
+     * @return Description of where the classes originated from, used to describe the source in reports
+     */
+    String getLocation();
+
+    /**
+     * Provides the content of every class within the source to a visitor
+     *
+     * <p>
+     * This may be called more than once for a single analysis (such as when discovering the classes defined within a
+     * project before analyzing them), and each call must provide the same classes
+     *
+     * @param visitor
+     *            The visitor to provide classes to
+     * @throws IOException
+     *             If there is an error reading classes from the source
+     */
+    void accept(ClassSourceVisitor visitor) throws IOException;
+
+}
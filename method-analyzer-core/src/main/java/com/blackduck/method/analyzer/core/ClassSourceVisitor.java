@@ -0,0 +1,99 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents handling of the classes provided by a {@link ClassSource}
+ *
+ * <p>
+ * Each location provided is used to describe the class if it cannot be parsed - archive and in-memory sources should
+ * qualify entry names with the location of the enclosing source
+ *
+ * @author romeara
+ */
+public interface ClassSourceVisitor {
+
+    /**
+     * Provides the executor sources should run any walk of a file system on, so that the walk runs on threads managed by
+     * the caller rather than a dedicated thread. The executor must have a thread available for the walk in addition to
+     * any reading the stream of class files, as the walk waits for class files to be taken once its queue is full
+     *
+     * @return The executor to discover class files on, if one should be used
+     */
+    default Optional<Executor> getWalkExecutor() {
+        return Optional.empty();
+    }
+
+    /**
+     * Handles class files stored directly on a file system. Files are read as they are taken from the stream, and may
+     * be analyzed concurrently or in a different order than provided. The stream is read until it is exhausted. Class
+     * files which only define classes within the analyzed project are identified by
+     * {@link ClassFileStream#next(ClassFileStream.ClassFileHandler, ClassFileStream.ClassFileHandler)}
+     *
+     * @param classFiles
+     *            The class files to handle, which may still be being discovered
+     * @throws IOException
+     *             If there is an error discovering or reading a class file
+     */
+    void visitClassFiles(ClassFileStream classFiles) throws IOException;
+
+    /**
+     * @param location
+     *            Description of the location of the class
+     * @param content
+     *            The content of the class file, from the buffer's position to its limit. Not modified, or retained once
+     *            this method returns
+     * @throws IOException
+     *             If there is an error handling the class
+     */
+    void visitClass(String location, ByteBuffer content) throws IOException;
+
+    /**
+     * @param location
+     *            Description of the location of the class
+     * @param content
+     *            Stream of the content of the class file. Not closed by this method
+     * @throws IOException
+     *             If there is an error reading the class
+     */
+    void visitClass(String location, InputStream content) throws IOException;
+
+    /**
+     * Handles a Java archive, including the class files and archives nested within it
+     *
+     * @param location
+     *            Description of the location of the archive
+     * @param content
+     *            Stream of the content of the archive. Not closed by this method
+     * @throws IOException
+     *             If there is an error reading the archive
+     */
+    void visitArchive(String location, InputStream content) throws IOException;
+
+}
@@ -0,0 +1,218 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Represents the class files found recursively within one or more directories, which may be on any file system
+ *
+ * <p>
+ * Directories are walked on the visitor's executor if it provides one, or otherwise a dedicated thread, with class files
+ * provided to the visitor through a bounded queue as they are found - class files are analyzed while the walk
+ * continues, and the walk waits when analysis falls behind. Sub-directories are read concurrently when configured via {@link WalkOptions#getParallelism()}
+ *
+ * @author romeara
+ */
+final class DirectoryClassSource implements ClassSource {
+
+    /** Logger reference to output information to the application log files */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final String location;
+
+    private final List<Path> directories;
+
+    private final WalkOptions walkOptions;
+
+    /**
+     * @param location
+     *            Description of the directories, used to describe the source in reports
+     * @param directories
+     *            The directories to search for class files
+     * @param walkOptions
+     *            Configuration controlling how the directories are searched
+     */
+    DirectoryClassSource(String location, List<Path> directories, WalkOptions walkOptions) {
+        this.location = Objects.requireNonNull(location);
+        this.directories = ImmutableList.copyOf(directories);
+        this.walkOptions = Objects.requireNonNull(walkOptions);
+    }
+
+    /**
+     * Determines if a file found during a walk should be analyzed as a class
+     *
+     * @param file
+     *            The file found
+     * @param attributes
+     *            The attributes of the file read during the walk
+     * @return True if the file is, or is a symbolic link to, a class file
+     */
+    static boolean isClassFile(Path file, BasicFileAttributes attributes) {
+        // When links are not followed by the walk, their target is checked - linked class files are analyzed
+        return file.toString().endsWith(ClassFileAnalyzer.CLASS_FILE_EXTENSION)
+                && (attributes.isRegularFile() || (attributes.isSymbolicLink() && Files.isRegularFile(file)));
+    }
+
+    @Override
+    public String getLocation() {
+        return location;
+    }
+
+    @Override
+    public void accept(ClassSourceVisitor visitor) throws IOException {
+        Objects.requireNonNull(visitor);
+
+        try (ClassFileQueue classFiles = ClassFileQueue.start(location, ClassFileQueue.DEFAULT_CAPACITY, createWalk(), visitor.getWalkExecutor().orElse(null))) {
+            visitor.visitClassFiles(classFiles);
+        }
+    }
+
+    /**
+     * Adds a class file found during a walk to a queue, if it is selected by the filter of the directory it was found in
+     *
+     * @param classFiles
+     *            The queue to add the class file to
+     * @param filter
+     *            The filter of the directory being searched
+     * @param file
+     *            The class file found
+     * @param attributes
+     *            The attributes of the class file read during the walk
+     * @throws InterruptedIOException
+     *             If the walk is cancelled
+     */
+    static void addClassFile(ClassFileQueue classFiles, WalkFilter filter, Path file, BasicFileAttributes attributes) throws InterruptedIOException {
+        // Excluded files are only read if configured, as the classes they define are part of the project
+        if (filter.isAccepted(file)) {
+            classFiles.put(file, attributes.size(), false);
+        } else if (filter.isCountingExcludedAsOwners()) {
+            classFiles.put(file, attributes.size(), true);
+        }
+    }
+
+    /**
+     * @return A walk which finds the class files within each directory
+     */
+    private ClassFileQueue.Walk createWalk() {
+        if (walkOptions.getParallelism() > 1) {
+            return new ParallelDirectoryWalk(directories, walkOptions);
+        }
+
+        return this::walk;
+    }
+
+    /**
+     * Finds the class files within each directory on the calling thread, using the attributes read during the walk
+     * rather than reading each file's attributes again
+     *
+     * @param classFiles
+     *            The queue to add discovered class files to
+     * @throws IOException
+     *             If there is an error reading a directory, or the walk is cancelled
+     */
+    private void walk(ClassFileQueue classFiles) throws IOException {
+        Set<FileVisitOption> visitOptions = (walkOptions.isFollowLinks() ? EnumSet.of(FileVisitOption.FOLLOW_LINKS) : Collections.emptySet());
+
+        for (Path directory : directories) {
+            Files.walkFileTree(directory, visitOptions, Integer.MAX_VALUE, new ClassFileVisitor(classFiles, new WalkFilter(directory, walkOptions)));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("location", location)
+                .add("directories", directories)
+                .add("walkOptions", walkOptions)
+                .toString();
+    }
+
+    /**
+     * Handles adding the class files selected by a filter to a queue during a walk of a single directory, skipping
+     * sub-directories the filter excludes without reading them
+     *
+     * @author romeara
+     */
+    private final class ClassFileVisitor extends SimpleFileVisitor<Path> {
+
+        private final ClassFileQueue classFiles;
+
+        private final WalkFilter filter;
+
+        private ClassFileVisitor(ClassFileQueue classFiles, WalkFilter filter) {
+            this.classFiles = Objects.requireNonNull(classFiles);
+            this.filter = Objects.requireNonNull(filter);
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
+            if (classFiles.isClosed()) {
+                throw new InterruptedIOException("Class file discovery was cancelled");
+            }
+
+            return (filter.isSearched(directory) ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE);
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+            if (isClassFile(file, attributes)) {
+                addClassFile(classFiles, filter, file, attributes);
+            }
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+            if (exc instanceof FileSystemLoopException) {
+                logger.debug("Skipping {}, which links to a directory already being searched", file);
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            throw exc;
+        }
+
+    }
+
+}
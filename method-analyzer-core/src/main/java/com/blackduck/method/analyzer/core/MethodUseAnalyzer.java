@@ -24,29 +24,40 @@ package com.blackduck.method.analyzer.core;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.InetAddress;
-import java.nio.file.Files;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipInputStream;
 
 import javax.annotation.Nullable;
 
-import org.objectweb.asm.ClassReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.blackduck.method.analyzer.core.bytecode.ClassMethodReferenceVisitor;
-import com.blackduck.method.analyzer.core.model.MethodUse;
-import com.blackduck.method.analyzer.core.model.ReferencedMethod;
-import com.blackduck.method.analyzer.core.report.ReportGenerator;
-import com.google.common.base.Preconditions;
-import com.google.common.base.Strings;
-import com.google.common.collect.Multimap;
+import com.blackduck.method.analyzer.core.AnalysisResult.ReportTarget;
+import com.blackduck.method.analyzer.core.bytecode.MethodReferenceRegistry;
+import com.blackduck.method.analyzer.core.report.ReportChunkConsumer;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * Represents functionality to analyze and report on the external method calls made within a Java project
@@ -54,19 +65,43 @@ import com.google.common.collect.Multimap;
  * <p>
  * This class is intended as the primary use interface for method analysis operations. Both
  * {@link #analyze(Path, Path, String)} and {@link #analyze(Path, Path, String, String)} may be used to evaluate and
- * report on a target directory's use of methods which are defined within the given directory
+ * report on a target directory's use of methods which are defined within the given directory. Reports may instead be
+ * written directly to a stream or channel via {@link #analyze(Path, OutputStream, String)} and
+ * {@link #analyze(Path, WritableByteChannel, String)}, or passed to a consumer file-by-file via
+ * {@link #analyze(Path, ReportChunkConsumer, String)}
+ *
+ * <p>
+ * When only the analysis results are needed, {@link #analyze(Path)} returns them in memory without generating a report.
+ * Classes which are not stored as files, such as those held in memory by a build tool, may be analyzed via
+ * {@link #analyze(ClassSource)}
+ *
+ * <p>
+ * How analysis is performed, such as whether class files are parsed in parallel, is controlled by the
+ * {@link AnalysisOptions} the analyzer is created with
  *
  * @author romeara
  */
 public class MethodUseAnalyzer {
 
+    /** Logger reference to output information to the application log files */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final AnalysisOptions options;
+
     /**
-     * Regular expression intended to match files with the ".class" extension
+     * Creates an analyzer which uses {@link AnalysisOptions#defaults()}
      */
-    private static final String CLASS_FILE_REGEX = ".*\\.class";
+    public MethodUseAnalyzer() {
+        this(AnalysisOptions.defaults());
+    }
 
-    /** Logger reference to output information to the application log files */
-    private final Logger logger = LoggerFactory.getLogger(getClass());
+    /**
+     * @param options
+     *            Configuration controlling how analysis is performed
+     */
+    public MethodUseAnalyzer(AnalysisOptions options) {
+        this.options = Objects.requireNonNull(options);
+    }
 
     /**
      * Analyzes Java *.class files with the provided {@code sourceDirectory} for method calls made to classes not
@@ -77,7 +112,9 @@ public class MethodUseAnalyzer {
      * {@link #analyze(Path, Path, String, String)}
      *
      * @param sourceDirectory
-     *            The directory containing the *.class files to evaluate for external method calls
+     *            The directory containing the *.class files to evaluate for external method calls. May also be a
+     *            Java archive (jar, war, ear, or zip), in which case class files are read directly from the archive and
+     *            any archives nested within it
      * @param outputDirectory
      *            The directory to output the generated report of method calls to
      * @param codeLocationName
@@ -95,7 +132,9 @@ public class MethodUseAnalyzer {
      * defined within the provided class file set
      *
      * @param sourceDirectory
-     *            The directory containing the *.class files to evaluate for external method calls
+     *            The directory containing the *.class files to evaluate for external method calls. May also be a
+     *            Java archive (jar, war, ear, or zip), in which case class files are read directly from the archive and
+     *            any archives nested within it
      * @param outputDirectory
      *            The directory to output the generated report of method calls to
      * @param outputFileName
@@ -111,47 +150,619 @@ public class MethodUseAnalyzer {
         Objects.requireNonNull(outputDirectory, "The outputDirectory parameter is required, and may not be null");
         Objects.requireNonNull(outputFileName, "The outputFileName parameter is required, and may not be null");
 
-        Preconditions.checkArgument(Files.exists(sourceDirectory), "The source path provided (%s) does not exist", sourceDirectory.toString());
-        Preconditions.checkArgument(Files.isDirectory(sourceDirectory), "The source path provided (%s) is not a directory", sourceDirectory.toString());
-
-        Multimap<ReferencedMethod, MethodUse> references = null;
-        Map<Path, String> brokenFiles = new HashMap<>();
-        ReportGenerator reportGenerator = new ReportGenerator(InetAddress.getLocalHost().getHostName(), sourceDirectory.toString(), codeLocationName);
-
-        try (Stream<Path> files = Files.walk(sourceDirectory)) {
-            List<Path> classFiles = files
-                    .filter(Files::isRegularFile)
-                    .filter(f -> f.toString().matches(CLASS_FILE_REGEX))
-                    .collect(Collectors.toList());
-
-            ClassMethodReferenceVisitor bytecodeAnalyzer = new ClassMethodReferenceVisitor();
-
-            for (Path classFile : classFiles) {
-                try (InputStream inputStream = Files.newInputStream(classFile)) {
-                    ClassReader reader = new ClassReader(inputStream);
-                    reader.accept(bytecodeAnalyzer, 0);
-                } catch (IllegalArgumentException e) {
-                    // IDETECT-3275: Instead of killing an entire analysis because of a single broken file, record the
-                    // broken file and move on
-                    if (Strings.nullToEmpty(e.getMessage()).startsWith("Unsupported class file major version")) {
-                        brokenFiles.put(classFile, Strings.nullToEmpty(e.getMessage()));
-                    } else {
-                        throw e;
-                    }
-                } catch (IndexOutOfBoundsException | ClassFormatError | NegativeArraySizeException e) {
-                    //IDETECT-4924 Handle malformed classes properly
-                    brokenFiles.put(classFile, "Malformed class structure: " + Strings.nullToEmpty(e.getMessage()));
+        return analyze(sourceDirectory, codeLocationName,
+                (reportGenerator, references, brokenFiles) -> reportGenerator.generateReport(references, brokenFiles, outputDirectory, outputFileName));
+    }
+
+    /**
+     * Analyzes Java *.class files with the provided {@code sourceDirectory} for method calls made to classes not
+     * defined within the provided class file set, writing the report of method calls directly to a stream
+     *
+     * <p>
+     * This allows a report to be sent to its destination, such as an upload, without first being saved to the file
+     * system
+     *
+     * @param sourceDirectory
+     *            The directory containing the *.class files to evaluate for external method calls. May also be a
+     *            Java archive (jar, war, ear, or zip), in which case class files are read directly from the archive and
+     *            any archives nested within it
+     * @param outputStream
+     *            The stream to write the generated report of method calls to. Flushed, but not closed, by this method
+     * @param codeLocationName
+     *            A name to associate with the analyzed source in any generated reports
+     * @throws IOException
+     *             If there is an error reading from input files, or writing the output report
+     */
+    public void analyze(Path sourceDirectory, OutputStream outputStream, @Nullable String codeLocationName) throws IOException {
+        Objects.requireNonNull(sourceDirectory, "The sourceDirectory parameter is required, and may not be null");
+        Objects.requireNonNull(outputStream, "The outputStream parameter is required, and may not be null");
+
+        analyze(sourceDirectory, codeLocationName, (reportGenerator, references, brokenFiles) -> {
+            reportGenerator.generateReport(references, brokenFiles, outputStream);
+            return null;
+        });
+    }
+
+    /**
+     * Analyzes Java *.class files with the provided {@code sourceDirectory} for method calls made to classes not
+     * defined within the provided class file set, writing the report of method calls directly to a channel
+     *
+     * <p>
+     * This allows a report to be sent to its destination, such as an upload, without first being saved to the file
+     * system
+     *
+     * @param sourceDirectory
+     *            The directory containing the *.class files to evaluate for external method calls. May also be a
+     *            Java archive (jar, war, ear, or zip), in which case class files are read directly from the archive and
+     *            any archives nested within it
+     * @param outputChannel
+     *            The channel to write the generated report of method calls to. Not closed by this method
+     * @param codeLocationName
+     *            A name to associate with the analyzed source in any generated reports
+     * @throws IOException
+     *             If there is an error reading from input files, or writing the output report
+     */
+    public void analyze(Path sourceDirectory, WritableByteChannel outputChannel, @Nullable String codeLocationName) throws IOException {
+        Objects.requireNonNull(sourceDirectory, "The sourceDirectory parameter is required, and may not be null");
+        Objects.requireNonNull(outputChannel, "The outputChannel parameter is required, and may not be null");
+
+        analyze(sourceDirectory, codeLocationName, (reportGenerator, references, brokenFiles) -> {
+            reportGenerator.generateReport(references, brokenFiles, outputChannel);
+            return null;
+        });
+    }
+
+    /**
+     * Analyzes Java *.class files with the provided {@code sourceDirectory} for method calls made to classes not
+     * defined within the provided class file set, passing each file of the report to a consumer as soon as it is
+     * complete
+     *
+     * <p>
+     * This allows report files to be sent to their destination, such as an upload, while the remainder of the report is
+     * generated
+     *
+     * @param sourceDirectory
+     *            The directory containing the *.class files to evaluate for external method calls. May also be a
+     *            Java archive (jar, war, ear, or zip), in which case class files are read directly from the archive and
+     *            any archives nested within it
+     * @param chunkConsumer
+     *            The consumer to pass each completed report file to
+     * @param codeLocationName
+     *            A name to associate with the analyzed source in any generated reports
+     * @throws IOException
+     *             If there is an error reading from input files, or the consumer fails to handle a report file
+     */
+    public void analyze(Path sourceDirectory, ReportChunkConsumer chunkConsumer, @Nullable String codeLocationName) throws IOException {
+        Objects.requireNonNull(sourceDirectory, "The sourceDirectory parameter is required, and may not be null");
+        Objects.requireNonNull(chunkConsumer, "The chunkConsumer parameter is required, and may not be null");
+
+        analyze(sourceDirectory, codeLocationName, (reportGenerator, references, brokenFiles) -> {
+            reportGenerator.generateReport(references, brokenFiles, chunkConsumer);
+            return null;
+        });
+    }
+
+    /**
+     * Analyzes Java *.class files with the provided {@code sourceDirectory} for method calls made to classes not
+     * defined within the provided class file set, without generating a report
+     *
+     * <p>
+     * The result may be queried directly, and rendered as a report later if needed. Results should be closed once no
+     * longer needed, to remove any temporary files written when analysis is performed with a memory budget
+     *
+     * @param sourceDirectory
+     *            The directory containing the *.class files to evaluate for external method calls. May also be a
+     *            Java archive (jar, war, ear, or zip), in which case class files are read directly from the archive and
+     *            any archives nested within it. Archives may not be analyzed when include or exclude patterns are
+     *            configured
+     * @return The references and broken files found during analysis
+     * @throws IOException
+     *             If there is an error reading from input files
+     */
+    public AnalysisResult analyze(Path sourceDirectory) throws IOException {
+        Objects.requireNonNull(sourceDirectory, "The sourceDirectory parameter is required, and may not be null");
+
+        return analyze(ClassSource.of(sourceDirectory, options.getWalkOptions()));
+    }
+
+    /**
+     * Analyzes the classes provided by a source for method calls made to classes not defined within the provided
+     * classes, without generating a report
+     *
+     * <p>
+     * This allows analysis of classes which are not stored as files, such as classes held in memory by a build tool.
+     * The result may be queried directly, and rendered as a report later if needed. Results should be closed once no
+     * longer needed, to remove any temporary files written when analysis is performed with a memory budget
+     *
+     * @param source
+     *            The source of the classes to evaluate for external method calls
+     * @return The references and broken files found during analysis
+     * @throws IOException
+     *             If there is an error reading from the source
+     */
+    public AnalysisResult analyze(ClassSource source) throws IOException {
+        Objects.requireNonNull(source, "The source parameter is required, and may not be null");
+
+        Instant startTime = Instant.now();
+        long startNanos = System.nanoTime();
+
+        MethodReferenceRegistry references = null;
+        Map<String, String> brokenFiles = new HashMap<>();
+        AnalysisStatistics statistics = new AnalysisStatistics();
+
+        Optional<ClassAnalysisCache> cache = options.getCache();
+
+        if (cache.isPresent()) {
+            cache.get().load();
+        }
+
+        ReferenceRegistryFactory registries = new ReferenceRegistryFactory(options);
+
+        try {
+            long parseStartNanos = System.nanoTime();
+            Set<String> knownOwners = Collections.emptySet();
+
+            if (options.isDiscoverOwnersFirst()) {
+                OwnerScanningVisitor scanningVisitor = new OwnerScanningVisitor(statistics);
+                source.accept(scanningVisitor);
+
+                knownOwners = scanningVisitor.getOwners();
+            }
+
+            AnalyzingVisitor analyzingVisitor = new AnalyzingVisitor(knownOwners, registries, brokenFiles, statistics);
+            source.accept(analyzingVisitor);
+
+            references = analyzingVisitor.getReferenceRegistry();
+
+            // Merging of parallel results happens within the visit, but is measured separately
+            statistics.recordParse(System.nanoTime() - parseStartNanos - statistics.getMergeDuration().toNanos());
+
+            if (cache.isPresent()) {
+                cache.get().save();
+            }
+
+            // Reading references may fail once they are partially stored in temporary files, which must then be removed
+            if (logger.isDebugEnabled()) {
+                references.forEach((method, uses) -> logger.debug("Found {} references to {}.{}({})",
+                        uses.size(), method.getMethodOwner(), method.getMethodName(), method.getInputs()));
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            try {
+                registries.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+
+            throw e;
+        }
+
+        return new AnalysisResult(source.getLocation(), references, brokenFiles, startTime, Duration.ofNanos(System.nanoTime() - startNanos),
+                options.getParseMode(), options.getReportOptions(), registries, statistics);
+    }
+
+    /**
+     * Analyzes Java *.class files with the provided {@code sourceDirectory}, and writes a report of the method calls
+     * found
+     *
+     * @param sourceDirectory
+     *            The directory or Java archive containing the *.class files to evaluate for external method calls
+     * @param codeLocationName
+     *            A name to associate with the analyzed source in any generated reports
+     * @param reportTarget
+     *            Handles writing the report to its destination
+     * @return The result of writing the report
+     * @throws IOException
+     *             If there is an error reading from input files, or writing the output report
+     */
+    private <T> T analyze(Path sourceDirectory, @Nullable String codeLocationName, ReportTarget<T> reportTarget) throws IOException {
+        try (AnalysisResult result = analyze(sourceDirectory)) {
+            return result.generateReport(codeLocationName, reportTarget);
+        }
+    }
+
+    /**
+     * Discovers the classes defined by a set of class files, reading only the class file headers
+     *
+     * @param classFiles
+     *            The class files to read
+     * @return The qualified names of the classes defined
+     * @throws IOException
+     *             If there is an error reading from input files
+     */
+    private Set<String> scan(ClassFileStream classFiles) throws IOException {
+        ClassOwnerScanner scanner = new ClassOwnerScanner();
+
+        Path classFile = classFiles.next();
+
+        while (classFile != null) {
+            scanner.scanFile(classFile);
+            classFile = classFiles.next();
+        }
+
+        return scanner.getOwners();
+    }
+
+    /**
+     * Records the time taken to discover the class files of a stream, once the stream has been read to its end
+     *
+     * @param classFiles
+     *            The class files read
+     * @param statistics
+     *            Measurements of the analysis to record the walk time to
+     */
+    private static void recordWalk(ClassFileStream classFiles, AnalysisStatistics statistics) {
+        // Only streams discovered by a walk of a file system have a walk time - other streams are provided up front
+        if (classFiles instanceof ClassFileQueue) {
+            statistics.recordWalk(((ClassFileQueue) classFiles).getWalkNanos());
+        }
+    }
+
+    /**
+     * Discovers the classes defined by a set of class files concurrently, reading only the class file headers
+     *
+     * @param classFiles
+     *            The class files to read
+     * @return The qualified names of the classes defined
+     * @throws IOException
+     *             If there is an error reading from input files
+     */
+    private Set<String> scanParallel(ClassFileStream classFiles) throws IOException {
+        List<Set<String>> workerOwners = runParallel(classFiles, pending -> {
+            ClassOwnerScanner scanner = new ClassOwnerScanner();
+
+            Path classFile = pending.next();
+
+            while (classFile != null) {
+                scanner.scanFile(classFile);
+                classFile = pending.next();
+            }
+
+            return scanner.getOwners();
+        });
+
+        ImmutableSet.Builder<String> result = ImmutableSet.builder();
+        workerOwners.forEach(result::addAll);
+
+        return result.build();
+    }
+
+    /**
+     * Analyzes class files concurrently, with each worker recording references to its own registry
+     *
+     * <p>
+     * Worker registries are merged once all files are processed - as exclusions are applied during the merge, the
+     * combined result is the same as a sequential analysis of the same files
+     *
+     * @param classFiles
+     *            The class files to analyze
+     * @param knownOwners
+     *            Classes known ahead of time to be defined within the analyzed project
+     * @param registries
+     *            The source of registries and symbols for the analysis, shared by all workers
+     * @param brokenFiles
+     *            Mapping to record the locations of any classes which could not be parsed to
+     * @param result
+     *            The registry to merge the references of all workers into
+     * @param statistics
+     *            Measurements of the analysis to record cache use and merge time to
+     * @throws IOException
+     *             If there is an error reading from input files
+     */
+    private void analyzeParallel(ClassFileStream classFiles, Set<String> knownOwners, ReferenceRegistryFactory registries, Map<String, String> brokenFiles,
+            MethodReferenceRegistry result, AnalysisStatistics statistics) throws IOException {
+        Map<String, String> workerBrokenFiles = new ConcurrentHashMap<>();
+        Set<String> workerOwners = ConcurrentHashMap.newKeySet();
+        int registryCount = getConcurrentRegistryCount();
+
+        List<MethodReferenceRegistry> workerRegistries = runParallel(classFiles, pending -> {
+            ClassFileAnalyzer classFileAnalyzer = new ClassFileAnalyzer(registries.create(knownOwners, registryCount), workerBrokenFiles,
+                    options.getCache().orElse(null), registries.getSymbolTable(), options.getParseMode(), statistics);
+            ClassOwnerScanner ownerScanner = new ClassOwnerScanner();
+
+            while (pending.next(classFileAnalyzer::analyzeFile, ownerScanner::scanFile)) {
+                // Each class file is handled as it is taken from the stream
+            }
+
+            workerOwners.addAll(ownerScanner.getOwners());
+
+            return classFileAnalyzer.getReferenceRegistry();
+        });
+
+        long mergeStartNanos = System.nanoTime();
+        workerRegistries.forEach(result::merge);
+        statistics.recordMerge(System.nanoTime() - mergeStartNanos);
+
+        // Owners found by any worker apply to the references of all workers, so are registered once merged
+        workerOwners.forEach(result::registerExclusion);
+
+        brokenFiles.putAll(workerBrokenFiles);
+    }
+
+    /**
+     * @return The number of registries which may hold references at the same time during an analysis, and so divide any
+     *         memory budget between them - the registry of the result, and that of each parallel worker
+     */
+    private int getConcurrentRegistryCount() {
+        return (options.getParallelism() > 1 ? options.getParallelism() + 1 : 1);
+    }
+
+    /**
+     * Runs workers concurrently which share a stream of class files to process, in the order provided
+     *
+     * @param classFiles
+     *            The class files to process
+     * @param worker
+     *            The processing to run on each worker thread
+     * @return The results of each worker, in the order they were started
+     * @throws IOException
+     *             If a worker failed to read an input file. Remaining workers are cancelled on the first failure
+     */
+    private <T> List<T> runParallel(ClassFileStream classFiles, ClassFileWorker<T> worker) throws IOException {
+        int workerCount = options.getParallelism();
+
+        ExecutorService executorService = options.getExecutorService()
+                .orElseGet(() -> Executors.newFixedThreadPool(workerCount));
+
+        try {
+            CompletionService<T> completionService = new ExecutorCompletionService<>(executorService);
+            AtomicBoolean failed = new AtomicBoolean(false);
+
+            // Once any worker fails, the remaining workers stop taking class files, even if they ignore cancellation
+            ClassFileStream pending = new ClassFileStream() {
+
+                @Nullable
+                @Override
+                public Path next() throws IOException {
+                    return (failed.get() ? null : classFiles.next());
+                }
+
+                @Override
+                public boolean next(ClassFileHandler analyzedClassFiles, ClassFileHandler ownerClassFiles) throws IOException {
+                    return !failed.get() && classFiles.next(analyzedClassFiles, ownerClassFiles);
                 }
+
+            };
+
+            List<Future<T>> workers = new ArrayList<>(workerCount);
+
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(completionService.submit(() -> worker.process(pending)));
             }
 
-            references = bytecodeAnalyzer.getReferences();
+            try {
+                // Workers are checked in the order they complete, so a failure is surfaced without waiting on the others
+                for (int i = 0; i < workerCount; i++) {
+                    awaitWorker(takeCompleted(completionService));
+                }
+            } catch (IOException | RuntimeException | Error e) {
+                failed.set(true);
+                workers.forEach(future -> future.cancel(true));
+
+                throw e;
+            }
+
+            List<T> results = new ArrayList<>(workerCount);
+
+            for (Future<T> future : workers) {
+                results.add(awaitWorker(future));
+            }
+
+            return results;
+        } finally {
+            if (!options.getExecutorService().isPresent()) {
+                executorService.shutdownNow();
+            }
         }
+    }
+
+    /**
+     * @param completionService
+     *            The service parallel analysis workers were submitted to
+     * @return The next worker to complete
+     * @throws IOException
+     *             If interrupted while waiting for a worker to complete
+     */
+    private static <T> Future<T> takeCompleted(CompletionService<T> completionService) throws IOException {
+        try {
+            return completionService.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new IOException("Interrupted while waiting for class file analysis to complete", e);
+        }
+    }
+
+    /**
+     * Waits for a parallel analysis worker to complete, surfacing any failure it encountered as the exception type the
+     * sequential analysis would have thrown
+     *
+     * @param worker
+     *            The worker to wait for
+     * @return The result of the worker
+     * @throws IOException
+     *             If the worker failed to read an input file
+     */
+    private static <T> T awaitWorker(Future<T> worker) throws IOException {
+        try {
+            return worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new IOException("Interrupted while waiting for class file analysis to complete", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new IOException("Error during parallel class file analysis", cause);
+        }
+    }
+
+    /**
+     * @return The caller-managed executor to run file system walks on, if one was provided - walks otherwise run on a
+     *         dedicated thread
+     */
+    private Optional<Executor> getCallerExecutor() {
+        return options.getExecutorService().map(Executor.class::cast);
+    }
+
+    /**
+     * Handles the first pass of a two-phase analysis, which discovers the classes defined by a source by reading only
+     * class file headers
+     *
+     * @author romeara
+     */
+    private final class OwnerScanningVisitor implements ClassSourceVisitor {
+
+        private final ClassOwnerScanner scanner;
+
+        private final ImmutableSet.Builder<String> owners;
+
+        private final AnalysisStatistics statistics;
+
+        private OwnerScanningVisitor(AnalysisStatistics statistics) {
+            this.scanner = new ClassOwnerScanner();
+            this.owners = ImmutableSet.builder();
+            this.statistics = Objects.requireNonNull(statistics);
+        }
+
+        /**
+         * @return The qualified names of all classes discovered
+         */
+        private Set<String> getOwners() {
+            return owners.addAll(scanner.getOwners()).build();
+        }
+
+        @Override
+        public Optional<Executor> getWalkExecutor() {
+            return getCallerExecutor();
+        }
+
+        @Override
+        public void visitClassFiles(ClassFileStream classFiles) throws IOException {
+            if (options.getParallelism() > 1) {
+                owners.addAll(scanParallel(classFiles));
+            } else {
+                owners.addAll(scan(classFiles));
+            }
+
+            recordWalk(classFiles, statistics);
+        }
+
+        @Override
+        public void visitClass(String location, ByteBuffer content) throws IOException {
+            scanner.scanBuffer(content);
+        }
+
+        @Override
+        public void visitClass(String location, InputStream content) throws IOException {
+            scanner.scanStream(content);
+        }
+
+        @Override
+        public void visitArchive(String location, InputStream content) throws IOException {
+            // The archive stream is intentionally not closed, as the content stream is owned by the source
+            scanner.scanArchive(new ZipInputStream(content));
+        }
+
+    }
+
+    /**
+     * Handles parsing the classes provided by a source into a single registry
+     *
+     * <p>
+     * Class files stored on a file system are parsed concurrently when configured for parallelism, and all other
+     * classes are parsed on the calling thread as they are provided
+     *
+     * @author romeara
+     */
+    private final class AnalyzingVisitor implements ClassSourceVisitor {
+
+        private final Set<String> knownOwners;
+
+        private final ReferenceRegistryFactory registries;
+
+        private final Map<String, String> brokenFiles;
+
+        private final AnalysisStatistics statistics;
+
+        private final ClassFileAnalyzer classFileAnalyzer;
+
+        private AnalyzingVisitor(Set<String> knownOwners, ReferenceRegistryFactory registries, Map<String, String> brokenFiles,
+                AnalysisStatistics statistics) {
+            this.knownOwners = Objects.requireNonNull(knownOwners);
+            this.registries = Objects.requireNonNull(registries);
+            this.brokenFiles = Objects.requireNonNull(brokenFiles);
+            this.statistics = Objects.requireNonNull(statistics);
+            this.classFileAnalyzer = new ClassFileAnalyzer(registries.create(knownOwners, getConcurrentRegistryCount()), brokenFiles,
+                    options.getCache().orElse(null), registries.getSymbolTable(), options.getParseMode(), statistics);
+        }
+
+        /**
+         * @return A registry containing the references found
+         */
+        private MethodReferenceRegistry getReferenceRegistry() {
+            return classFileAnalyzer.getReferenceRegistry();
+        }
+
+        @Override
+        public Optional<Executor> getWalkExecutor() {
+            return getCallerExecutor();
+        }
+
+        @Override
+        public void visitClassFiles(ClassFileStream classFiles) throws IOException {
+            if (options.getParallelism() > 1) {
+                analyzeParallel(classFiles, knownOwners, registries, brokenFiles, classFileAnalyzer.getReferenceRegistry(), statistics);
+            } else {
+                ClassOwnerScanner ownerScanner = new ClassOwnerScanner();
+
+                while (classFiles.next(classFileAnalyzer::analyzeFile, ownerScanner::scanFile)) {
+                    // Each class file is handled as it is taken from the stream
+                }
+
+                // References to owners found after their use are removed as the exclusions are registered
+                ownerScanner.getOwners().forEach(classFileAnalyzer.getReferenceRegistry()::registerExclusion);
+            }
+
+            recordWalk(classFiles, statistics);
+        }
+
+        @Override
+        public void visitClass(String location, ByteBuffer content) throws IOException {
+            classFileAnalyzer.analyzeBuffer(location, content);
+        }
+
+        @Override
+        public void visitClass(String location, InputStream content) throws IOException {
+            classFileAnalyzer.analyzeStream(location, content);
+        }
+
+        @Override
+        public void visitArchive(String location, InputStream content) throws IOException {
+            // The archive stream is intentionally not closed, as the content stream is owned by the source
+            classFileAnalyzer.analyzeArchive(location, new ZipInputStream(content));
+        }
+
+    }
+
+    /**
+     * Represents processing run on a single thread of a parallel analysis, which takes class files from a shared stream
+     * until it is exhausted
+     *
+     * @author romeara
+     */
+    @FunctionalInterface
+    private interface ClassFileWorker<T> {
 
-        references.asMap().entrySet()
-                .forEach(entry -> logger.debug("Found {} references to {}.{}({})",
-                        entry.getValue().size(), entry.getKey().getMethodOwner(), entry.getKey().getMethodName(), entry.getKey().getInputs()));
+        T process(ClassFileStream pending) throws IOException;
 
-        return reportGenerator.generateReport(references, brokenFiles, outputDirectory, outputFileName);
     }
 
 }
@@ -0,0 +1,259 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Represents a search of directories for class files, which reads sub-directories concurrently on a fork/join pool
+ *
+ * <p>
+ * Each directory is read via a {@link DirectoryStream}, and the attributes of each entry are read once to determine if
+ * it is a class file or a sub-directory to search. When links are followed, the file keys of the directories above
+ * each sub-directory are tracked, so that links which form a cycle are skipped. Sub-directories excluded by the
+ * configured patterns are skipped without being read
+ *
+ * @author romeara
+ */
+final class ParallelDirectoryWalk implements ClassFileQueue.Walk {
+
+    /** Logger reference to output information to the application log files */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final List<Path> directories;
+
+    private final WalkOptions walkOptions;
+
+    /**
+     * @param directories
+     *            The directories to search for class files
+     * @param walkOptions
+     *            Configuration controlling how the directories are searched
+     */
+    ParallelDirectoryWalk(List<Path> directories, WalkOptions walkOptions) {
+        this.directories = ImmutableList.copyOf(directories);
+        this.walkOptions = Objects.requireNonNull(walkOptions);
+    }
+
+    @Override
+    public void run(ClassFileQueue classFiles) throws IOException {
+        Objects.requireNonNull(classFiles);
+
+        ForkJoinPool pool = walkOptions.getForkJoinPool()
+                .orElseGet(() -> new ForkJoinPool(walkOptions.getParallelism()));
+
+        try {
+            for (Path directory : directories) {
+                Object rootKey = (walkOptions.isFollowLinks() ? getDirectoryKey(directory, Files.readAttributes(directory, BasicFileAttributes.class)) : null);
+
+                WalkFilter filter = new WalkFilter(directory, walkOptions);
+
+                pool.invoke(new DirectoryWalkTask(classFiles, filter, directory, new Ancestor(rootKey, null)));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (!walkOptions.getForkJoinPool().isPresent()) {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * @param directory
+     *            The directory to identify
+     * @param attributes
+     *            The attributes of the directory, read following links
+     * @return A value which is the same for all paths which lead to the directory
+     * @throws IOException
+     *             If the file system does not provide file keys, and there is an error resolving the directory's path
+     */
+    private static Object getDirectoryKey(Path directory, BasicFileAttributes attributes) throws IOException {
+        Object fileKey = attributes.fileKey();
+
+        return (fileKey != null ? fileKey : directory.toRealPath());
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("directories", directories)
+                .add("walkOptions", walkOptions)
+                .toString();
+    }
+
+    /**
+     * Represents a directory above the one being searched. Only tracked when links are followed, as only links may
+     * lead to a directory already being searched
+     *
+     * @author romeara
+     */
+    private static final class Ancestor {
+
+        @Nullable
+        private final Object key;
+
+        @Nullable
+        private final Ancestor parent;
+
+        private Ancestor(@Nullable Object key, @Nullable Ancestor parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+        private boolean contains(Object directoryKey) {
+            for (Ancestor ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (directoryKey.equals(ancestor.key)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+    }
+
+    /**
+     * Handles searching a single directory, adding its class files to the queue and forking a search of each
+     * sub-directory
+     *
+     * @author romeara
+     */
+    private final class DirectoryWalkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ClassFileQueue classFiles;
+
+        private final WalkFilter filter;
+
+        private final Path directory;
+
+        private final Ancestor ancestors;
+
+        private DirectoryWalkTask(ClassFileQueue classFiles, WalkFilter filter, Path directory, Ancestor ancestors) {
+            this.classFiles = Objects.requireNonNull(classFiles);
+            this.filter = Objects.requireNonNull(filter);
+            this.directory = Objects.requireNonNull(directory);
+            this.ancestors = Objects.requireNonNull(ancestors);
+        }
+
+        @Override
+        protected void compute() {
+            List<DirectoryWalkTask> subDirectories = new ArrayList<>();
+
+            try {
+                walkDirectory(subDirectories);
+            } catch (IOException e) {
+                // Sub-directories already started are waited for, so that none are still running once the walk ends
+                subDirectories.forEach(DirectoryWalkTask::quietlyJoin);
+
+                throw new UncheckedIOException(e);
+            }
+
+            // Surfaces the first failure found within a sub-directory
+            subDirectories.forEach(DirectoryWalkTask::join);
+        }
+
+        private void walkDirectory(List<DirectoryWalkTask> subDirectories) throws IOException {
+            if (classFiles.isClosed()) {
+                throw new InterruptedIOException("Class file discovery was cancelled");
+            }
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+                    if (attributes.isSymbolicLink() && walkOptions.isFollowLinks()) {
+                        attributes = readLinkTarget(entry);
+                    }
+
+                    if (attributes == null) {
+                        // Links to files which do not exist are skipped
+                        continue;
+                    }
+
+                    if (attributes.isDirectory()) {
+                        if (filter.isSearched(entry)) {
+                            forkSubDirectory(entry, attributes, subDirectories);
+                        }
+                    } else if (DirectoryClassSource.isClassFile(entry, attributes)) {
+                        DirectoryClassSource.addClassFile(classFiles, filter, entry, attributes);
+                    }
+                }
+            }
+        }
+
+        private void forkSubDirectory(Path subDirectory, BasicFileAttributes attributes, List<DirectoryWalkTask> subDirectories) throws IOException {
+            Object directoryKey = (walkOptions.isFollowLinks() ? getDirectoryKey(subDirectory, attributes) : null);
+
+            if (directoryKey != null && ancestors.contains(directoryKey)) {
+                logger.debug("Skipping {}, which links to a directory already being searched", subDirectory);
+            } else {
+                DirectoryWalkTask task = new DirectoryWalkTask(classFiles, filter, subDirectory, new Ancestor(directoryKey, ancestors));
+                task.fork();
+
+                subDirectories.add(task);
+            }
+        }
+
+        /**
+         * @param link
+         *            A symbolic link found during the walk
+         * @return The attributes of the link's target, or null if the target does not exist
+         * @throws IOException
+         *             If there is an error reading the attributes of the link's target
+         */
+        @Nullable
+        private BasicFileAttributes readLinkTarget(Path link) throws IOException {
+            try {
+                return Files.readAttributes(link, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        }
+
+    }
+
+}
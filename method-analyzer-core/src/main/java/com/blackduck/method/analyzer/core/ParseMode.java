@@ -0,0 +1,80 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Represents how much of each class file is parsed during analysis, trading the detail recorded for each method use
+ * against analysis speed
+ *
+ * @author romeara
+ */
+public enum ParseMode {
+
+    /**
+     * Visits the code of every method, recording each use with the using method and line number
+     */
+    FULL(0),
+
+    /**
+     * Visits the code of every method as {@link #FULL} does, but skips stack map frames while parsing. Records the same
+     * information as {@link #FULL}, as frames are not needed to find method uses
+     */
+    SKIP_FRAMES(ClassReader.SKIP_FRAMES),
+
+    /**
+     * Visits the code of every method, skipping stack map frames and debug information. Each use is recorded with the
+     * using method, but without a line number
+     */
+    COARSE(ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG),
+
+    /**
+     * Reads only the constant pool of each class, without visiting any code. Each referenced method is recorded with a
+     * single use per referencing class, named by the class and without a line number. Suited to consumers which only
+     * need the set of methods referenced
+     */
+    CONSTANT_POOL(0);
+
+    private final int readerFlags;
+
+    private ParseMode(int readerFlags) {
+        this.readerFlags = readerFlags;
+    }
+
+    /**
+     * @return The {@link ClassReader} parsing options used when visiting code in this mode
+     */
+    int getReaderFlags() {
+        return readerFlags;
+    }
+
+    /**
+     * @return True if the mode records the same information as {@link #FULL}, so that results may be shared via a
+     *         {@link ClassAnalysisCache}
+     */
+    boolean isCacheable() {
+        return this == FULL || this == SKIP_FRAMES;
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import com.blackduck.method.analyzer.core.bytecode.MethodReferenceRegistry;
+import com.blackduck.method.analyzer.core.bytecode.SpillingMethodReferenceRegistry;
+import com.blackduck.method.analyzer.core.bytecode.SymbolTable;
+
+/**
+ * Handles creation of the method reference registries used during a single analysis, so that all registries share a
+ * symbol table, and so that any temporary files written by registries are removed once the analysis is complete
+ *
+ * <p>
+ * Instances are thread-safe
+ *
+ * @author romeara
+ */
+class ReferenceRegistryFactory implements Closeable {
+
+    private final SymbolTable symbols;
+
+    private final OptionalLong memoryBudget;
+
+    @Nullable
+    private final Path spillDirectory;
+
+    // Guarded by itself
+    private final List<SpillingMethodReferenceRegistry> spillingRegistries;
+
+    /**
+     * @param options
+     *            Configuration controlling how analysis is performed
+     */
+    ReferenceRegistryFactory(AnalysisOptions options) {
+        Objects.requireNonNull(options);
+
+        this.symbols = new SymbolTable();
+        this.memoryBudget = options.getMemoryBudget();
+        this.spillDirectory = options.getSpillDirectory().orElse(null);
+        this.spillingRegistries = new ArrayList<>();
+    }
+
+    /**
+     * @return The table of symbol IDs for the analysis
+     */
+    SymbolTable getSymbolTable() {
+        return symbols;
+    }
+
+    /**
+     * @param knownOwners
+     *            Classes known ahead of time to be defined within the analyzed project
+     * @param budgetShare
+     *            The number of registries which will hold references concurrently, and so divide any memory budget
+     *            between them
+     * @return A new registry, which writes references to disk when the analysis memory budget is exceeded if one is
+     *         configured
+     */
+    MethodReferenceRegistry create(Set<String> knownOwners, int budgetShare) {
+        if (!memoryBudget.isPresent()) {
+            return new MethodReferenceRegistry(knownOwners, symbols);
+        }
+
+        SpillingMethodReferenceRegistry registry = new SpillingMethodReferenceRegistry(knownOwners, symbols, Math.max(1, memoryBudget.getAsLong() / budgetShare),
+                spillDirectory);
+
+        synchronized (spillingRegistries) {
+            spillingRegistries.add(registry);
+        }
+
+        return registry;
+    }
+
+    /**
+     * Removes any temporary files written by registries created by this factory
+     *
+     * @throws IOException
+     *             If there is an error removing a temporary file
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+
+        synchronized (spillingRegistries) {
+            for (SpillingMethodReferenceRegistry registry : spillingRegistries) {
+                try {
+                    registry.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+
+            spillingRegistries.clear();
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Represents the include and exclude patterns of {@link WalkOptions}, applied to the paths found while searching a
+ * single directory
+ *
+ * <p>
+ * Patterns are matched against paths relative to the directory searched. Sub-directories which match an exclude
+ * pattern are not searched, and class files are accepted if they match no exclude pattern and, when any are
+ * configured, at least one include pattern. When excluded class files are counted as owners, excluded sub-directories
+ * are searched as well, and class files which are not accepted are instead selected to be read for the classes they
+ * define
+ *
+ * @author romeara
+ */
+final class WalkFilter {
+
+    private final Path root;
+
+    private final List<PathMatcher> includes;
+
+    private final List<PathMatcher> excludes;
+
+    private final boolean excludedOwners;
+
+    /**
+     * @param root
+     *            The directory being searched, which patterns are matched relative to
+     * @param walkOptions
+     *            Configuration containing the patterns to apply
+     */
+    WalkFilter(Path root, WalkOptions walkOptions) {
+        this.root = Objects.requireNonNull(root);
+        this.includes = toMatchers(root.getFileSystem(), walkOptions.getIncludes());
+        this.excludes = toMatchers(root.getFileSystem(), walkOptions.getExcludes());
+        this.excludedOwners = walkOptions.isCountExcludedAsOwners() && (!includes.isEmpty() || !excludes.isEmpty());
+    }
+
+    /**
+     * @param directory
+     *            A directory found within the root directory
+     * @return True if the directory should be searched for class files
+     */
+    boolean isSearched(Path directory) {
+        // When excluded files are counted as owners, excluded sub-directories must be searched to find them
+        return excludedOwners || excludes.isEmpty() || directory.equals(root) || !matches(excludes, directory);
+    }
+
+    /**
+     * @param classFile
+     *            A class file found within the root directory
+     * @return True if the class file should be analyzed
+     */
+    boolean isAccepted(Path classFile) {
+        if (includes.isEmpty() && excludes.isEmpty()) {
+            return true;
+        }
+
+        boolean included = (includes.isEmpty() || matches(includes, classFile)) && !matches(excludes, classFile);
+
+        // Excluded sub-directories are only searched to find owners, so nothing within them is analyzed
+        return included && !(excludedOwners && isWithinExcludedDirectory(classFile));
+    }
+
+    /**
+     * @return True if class files which are not accepted should instead be read for the classes they define, which are
+     *         part of the analyzed project
+     */
+    boolean isCountingExcludedAsOwners() {
+        return excludedOwners;
+    }
+
+    private boolean isWithinExcludedDirectory(Path classFile) {
+        for (Path directory = classFile.getParent(); directory != null && !directory.equals(root); directory = directory.getParent()) {
+            if (matches(excludes, directory)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean matches(List<PathMatcher> matchers, Path path) {
+        Path relativePath = root.relativize(path);
+
+        return matchers.stream()
+                .anyMatch(matcher -> matcher.matches(relativePath));
+    }
+
+    private static List<PathMatcher> toMatchers(FileSystem fileSystem, List<String> globs) {
+        return globs.stream()
+                .map(glob -> fileSystem.getPathMatcher("glob:" + glob))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("root", root)
+                .add("includes", includes.size())
+                .add("excludes", excludes.size())
+                .add("excludedOwners", excludedOwners)
+                .toString();
+    }
+
+}
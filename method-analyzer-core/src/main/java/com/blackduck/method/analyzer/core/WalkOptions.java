@@ -0,0 +1,267 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core;
+
+import java.nio.file.FileSystems;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Represents configuration which controls how directories are searched for class files
+ *
+ * <p>
+ * Instances are immutable, and are created via {@link #builder()}. The {@link #defaults()} options match the behavior
+ * of directory searches prior to the introduction of configuration
+ *
+ * @author romeara
+ */
+public final class WalkOptions {
+
+    private static final WalkOptions DEFAULTS = builder().build();
+
+    private final int parallelism;
+
+    @Nullable
+    private final ForkJoinPool forkJoinPool;
+
+    private final boolean followLinks;
+
+    private final List<String> includes;
+
+    private final List<String> excludes;
+
+    private final boolean countExcludedAsOwners;
+
+    private WalkOptions(Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.forkJoinPool = builder.forkJoinPool;
+        this.followLinks = builder.followLinks;
+        this.includes = builder.includes.build();
+        this.excludes = builder.excludes.build();
+        this.countExcludedAsOwners = builder.countExcludedAsOwners;
+    }
+
+    /**
+     * @return Options which search directories on a single thread, without following symbolic links to directories
+     */
+    public static WalkOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @return A builder for creating a customized set of options
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The number of directories which may be read concurrently
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return A caller-managed pool to read directories on, if one was provided. When absent, a pool is created and shut
+     *         down for each search
+     */
+    public Optional<ForkJoinPool> getForkJoinPool() {
+        return Optional.ofNullable(forkJoinPool);
+    }
+
+    /**
+     * @return True if symbolic links to directories are followed
+     */
+    public boolean isFollowLinks() {
+        return followLinks;
+    }
+
+    /**
+     * @return Glob patterns which class files must match at least one of to be analyzed. When empty, all class files
+     *         not excluded are analyzed
+     */
+    public List<String> getIncludes() {
+        return includes;
+    }
+
+    /**
+     * @return Glob patterns of class files and directories which are not analyzed
+     */
+    public List<String> getExcludes() {
+        return excludes;
+    }
+
+    /**
+     * @return True if classes defined by excluded class files are considered part of the analyzed project, so that
+     *         references to them are not recorded
+     */
+    public boolean isCountExcludedAsOwners() {
+        return countExcludedAsOwners;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("parallelism", getParallelism())
+                .add("forkJoinPool", forkJoinPool)
+                .add("followLinks", isFollowLinks())
+                .add("includes", includes)
+                .add("excludes", excludes)
+                .add("countExcludedAsOwners", isCountExcludedAsOwners())
+                .toString();
+    }
+
+    /**
+     * Handles step-wise construction of {@link WalkOptions} instances
+     *
+     * @author romeara
+     */
+    public static final class Builder {
+
+        private int parallelism;
+
+        @Nullable
+        private ForkJoinPool forkJoinPool;
+
+        private boolean followLinks;
+
+        private final ImmutableList.Builder<String> includes;
+
+        private final ImmutableList.Builder<String> excludes;
+
+        private boolean countExcludedAsOwners;
+
+        private Builder() {
+            this.parallelism = 1;
+            this.forkJoinPool = null;
+            this.followLinks = false;
+            this.includes = ImmutableList.builder();
+            this.excludes = ImmutableList.builder();
+            this.countExcludedAsOwners = false;
+        }
+
+        /**
+         * @param parallelism
+         *            The number of directories which may be read concurrently. A value of 1 (the default) searches all
+         *            directories on a single thread. Greater values search sub-directories concurrently on a fork/join
+         *            pool, which benefits very wide directory trees and file systems with high latency
+         * @return This builder
+         */
+        public Builder parallelism(int parallelism) {
+            Preconditions.checkArgument(parallelism > 0, "Parallelism must be a positive value (was %s)", parallelism);
+
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param forkJoinPool
+         *            A caller-managed pool to read directories on when parallelism is greater than one. The pool is not
+         *            shut down by the search. May be null to have the search manage its own pool
+         * @return This builder
+         */
+        public Builder forkJoinPool(@Nullable ForkJoinPool forkJoinPool) {
+            this.forkJoinPool = forkJoinPool;
+            return this;
+        }
+
+        /**
+         * @param followLinks
+         *            True if symbolic links to directories should be followed. Links which lead to a directory already
+         *            being searched are skipped, so that cycles do not repeat. Defaults to false
+         * @return This builder
+         */
+        public Builder followLinks(boolean followLinks) {
+            this.followLinks = followLinks;
+            return this;
+        }
+
+        /**
+         * @param glob
+         *            A glob pattern (as described by {@link java.nio.file.FileSystem#getPathMatcher(String)}) of class
+         *            files to analyze, matched against paths relative to the searched directory, such as
+         *            com/example/{@literal **}. Once any include pattern is added, class files which match none are not
+         *            analyzed
+         * @return This builder
+         */
+        public Builder include(String glob) {
+            includes.add(validateGlob(glob));
+            return this;
+        }
+
+        /**
+         * @param glob
+         *            A glob pattern (as described by {@link java.nio.file.FileSystem#getPathMatcher(String)}) of class
+         *            files and directories not to analyze, matched against paths relative to the searched directory.
+         *            Matching directories are not searched at all, so no time is spent reading them. For example,
+         *            {test,{@literal **}/test} matches test directories at any depth, including directly within the
+         *            searched directory, while {@literal **}/*Stub.class matches stub classes within any sub-directory
+         * @return This builder
+         */
+        public Builder exclude(String glob) {
+            excludes.add(validateGlob(glob));
+            return this;
+        }
+
+        /**
+         * @param countExcludedAsOwners
+         *            True if classes defined by excluded class files should be considered part of the analyzed
+         *            project, so that references to them are not recorded. Excluded files, including those within
+         *            excluded directories, are then read for the names of the classes they define. Defaults to false,
+         *            where excluded files are not read, and references to their classes are recorded as to any other
+         *            class outside the project
+         * @return This builder
+         */
+        public Builder countExcludedAsOwners(boolean countExcludedAsOwners) {
+            this.countExcludedAsOwners = countExcludedAsOwners;
+            return this;
+        }
+
+        /**
+         * @return A new options instance reflecting the current state of this builder
+         */
+        public WalkOptions build() {
+            return new WalkOptions(this);
+        }
+
+        private static String validateGlob(String glob) {
+            Objects.requireNonNull(glob);
+
+            // Fails early for invalid patterns, instead of once a search begins
+            FileSystems.getDefault().getPathMatcher("glob:" + glob);
+
+            return glob;
+        }
+
+    }
+
+}
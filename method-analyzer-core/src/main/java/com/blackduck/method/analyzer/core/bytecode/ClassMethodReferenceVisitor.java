@@ -22,10 +22,7 @@
  */
 package com.blackduck.method.analyzer.core.bytecode;
 
-import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
@@ -35,10 +32,8 @@ import org.objectweb.asm.Handle;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.Type;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+import com.blackduck.method.analyzer.core.model.MethodReferences;
 import com.blackduck.method.analyzer.core.model.MethodUse;
 import com.blackduck.method.analyzer.core.model.ReferencedMethod;
 import com.google.common.collect.Multimap;
@@ -48,7 +43,9 @@ import com.google.common.collect.Multimap;
  *
  * <p>
  * It is intended that one instance of this visitor be passed to ASM for evaluating all class files within a given
- * project context
+ * project context. When class files are evaluated in parallel, each thread should use its own visitor and registry,
+ * with the registries combined via {@link MethodReferenceRegistry#merge(MethodReferenceRegistry)}. Registries may
+ * share a single {@link SymbolTable}, so that uses are not re-numbered when merged
  *
  * @author romeara
  */
@@ -58,6 +55,8 @@ public class ClassMethodReferenceVisitor extends ClassVisitor {
 
     private final MethodReferenceRegistry referenceRegistry;
 
+    private final RecordedMethodCache resolvedMethods;
+
     private String currentClassName;
 
     public ClassMethodReferenceVisitor() {
@@ -65,14 +64,27 @@ public class ClassMethodReferenceVisitor extends ClassVisitor {
     }
 
     public ClassMethodReferenceVisitor(int api, ClassVisitor classVisitor) {
+        this(api, classVisitor, new MethodReferenceRegistry());
+    }
+
+    /**
+     * @param referenceRegistry
+     *            The registry to record discovered method references to
+     */
+    public ClassMethodReferenceVisitor(MethodReferenceRegistry referenceRegistry) {
+        this(DEFAULT_ASM_API, null, referenceRegistry);
+    }
+
+    public ClassMethodReferenceVisitor(int api, ClassVisitor classVisitor, MethodReferenceRegistry referenceRegistry) {
         super(api, classVisitor);
 
-        this.referenceRegistry = new MethodReferenceRegistry();
+        this.referenceRegistry = Objects.requireNonNull(referenceRegistry);
+        this.resolvedMethods = new RecordedMethodCache();
     }
 
     @Override
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
-        currentClassName = formatQualifiedName(name);
+        currentClassName = name.replace('/', '.');
 
         // Exclude any further registered method calls to this class, and clear any existing references to the current
         // class which were added before exclusion
@@ -85,7 +97,7 @@ public class ClassMethodReferenceVisitor extends ClassVisitor {
     public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
         MethodVisitor delegateMethodVisitor = super.visitMethod(access, name, desc, signature, exceptions);
 
-        return new MethodReferenceVisitor(super.api, delegateMethodVisitor, referenceRegistry, currentClassName, name);
+        return new MethodReferenceVisitor(super.api, delegateMethodVisitor, referenceRegistry, resolvedMethods, currentClassName, name);
     }
 
     @Override
@@ -96,6 +108,12 @@ public class ClassMethodReferenceVisitor extends ClassVisitor {
     }
 
     /**
+     * Creates a copy of all external method references found
+     *
+     * <p>
+     * When the references only need to be read once, {@link #getMethodReferences()} avoids holding a full copy in
+     * memory
+     *
      * @return A mapping of external method references to one or more use locations
      */
     public Multimap<ReferencedMethod, MethodUse> getReferences() {
@@ -103,44 +121,50 @@ public class ClassMethodReferenceVisitor extends ClassVisitor {
     }
 
     /**
-     * Converts a path-style class name to a Java qualified name
-     *
-     * @param internalName
-     *            Path-style name to convert
-     * @return A dot-separate Java qualified name for the class
+     * @return A view of the external method references found, which creates use locations as each method is read
      */
-    private static String formatQualifiedName(String internalName) {
-        Objects.requireNonNull(internalName);
-
-        return internalName.replace('/', '.');
+    public MethodReferences getMethodReferences() {
+        return referenceRegistry;
     }
 
     /**
      * Handles extracting data about specific method calls from the byte code analysis model provided by the ASM library
      *
+     * <p>
+     * Registering a reference to a method which was recently resolved, from a line which already references it, does
+     * not allocate - the method is found from the raw byte code owner, name, and descriptor, and the using method's
+     * symbol ID is computed once per method. Descriptors are recorded as-is, and only decoded when references are read
+     *
      * @author romeara
      */
     private static class MethodReferenceVisitor extends MethodVisitor {
 
-        /** Logger reference to output information to the application log files */
-        private final Logger logger = LoggerFactory.getLogger(getClass());
+        private static final int NO_LINE_NUMBER = -1;
+
+        private static final int NO_USE_ID = -1;
 
         private final MethodReferenceRegistry referenceRegistry;
 
+        private final RecordedMethodCache resolvedMethods;
+
         private final String currentClassName;
 
         private final String currentMethodName;
 
-        @Nullable
-        private Integer currentLine;
+        private int useId;
 
-        public MethodReferenceVisitor(int api, MethodVisitor methodVisitor, MethodReferenceRegistry referenceRegistry, String currentClassName,
-                String currentMethodName) {
+        private int currentLine;
+
+        public MethodReferenceVisitor(int api, MethodVisitor methodVisitor, MethodReferenceRegistry referenceRegistry,
+                RecordedMethodCache resolvedMethods, String currentClassName, String currentMethodName) {
             super(api, methodVisitor);
 
             this.referenceRegistry = Objects.requireNonNull(referenceRegistry);
+            this.resolvedMethods = Objects.requireNonNull(resolvedMethods);
             this.currentClassName = Objects.requireNonNull(currentClassName);
             this.currentMethodName = Objects.requireNonNull(currentMethodName);
+            this.useId = NO_USE_ID;
+            this.currentLine = NO_LINE_NUMBER;
         }
 
         @Override
@@ -170,7 +194,7 @@ public class ClassMethodReferenceVisitor extends ClassVisitor {
 
         @Override
         public void visitEnd() {
-            currentLine = null;
+            currentLine = NO_LINE_NUMBER;
 
             super.visitEnd();
         }
@@ -193,54 +217,41 @@ public class ClassMethodReferenceVisitor extends ClassVisitor {
         }
 
         private void register(String owner, String name, String descriptor) {
-            // Note: getClassName is specifically used in the argument/return instances as we want "." formatted in that
-            // string
+            RecordedMethod recordedMethod = resolvedMethods.get(owner, name, descriptor);
 
-            // Treat all arrays as "object", instead of a unique array "class"
-            String effectiveOwner = (owner.startsWith("[") ? "java/lang/Object" : owner);
+            if (recordedMethod == null) {
+                recordedMethod = resolve(owner, name, descriptor);
 
-            Type returnType = getReturnType(descriptor);
-            Type[] arguments = getArgumentTypes(descriptor);
+                // Excluded references are not cached, as the registry would discard them
+                if (recordedMethod == null) {
+                    return;
+                }
 
-            List<String> argumentList = Stream.of(arguments)
-                    .map(Type::getClassName)
-                    .collect(Collectors.toList());
+                resolvedMethods.put(owner, name, descriptor, recordedMethod);
+            }
 
-            String useReference = currentClassName + "." + currentMethodName;
+            // The use reference is the same for all references within the method, so is only created once
+            if (useId == NO_USE_ID) {
+                useId = referenceRegistry.getSymbolTable().toId(currentClassName + "." + currentMethodName);
+            }
 
-            referenceRegistry.registerReference(formatQualifiedName(effectiveOwner), name, argumentList, returnType.getClassName(), useReference, currentLine);
-        }
+            long use = (currentLine != NO_LINE_NUMBER ? MethodUseSet.encode(useId, currentLine) : MethodUseSet.encode(useId));
 
-        private Type getReturnType(String descriptor) {
-            try {
-                return Type.getReturnType(descriptor);
-            } catch (StringIndexOutOfBoundsException e) {
-                // IDETECT-3909 This can occur for malformed signatures which are just the type, not the method, for an
-                // unknown reason
-                logger.warn("Malformed method descriptor, attempting type-only processing: {}:{} ({})", currentClassName, currentMethodName, descriptor);
-
-                try {
-                    return Type.getType(descriptor);
-                } catch (StringIndexOutOfBoundsException | IllegalArgumentException e2) {
-                    // IDETECT-3909 This can occur for malformed signatures which are just the type, not the method, for
-                    // an unknown reason
-                    logger.warn("Malformed method descriptor, skipping reference processing: {}:{} ({})", currentClassName, currentMethodName, descriptor);
-
-                    return Type.getType(Object.class);
-                }
-            }
+            referenceRegistry.addUse(recordedMethod.getMethodOwner(), recordedMethod, use);
         }
 
-        private Type[] getArgumentTypes(String descriptor) {
-            try {
-                return Type.getArgumentTypes(descriptor);
-            } catch (StringIndexOutOfBoundsException e) {
-                // IDETECT-3909 This can occur for malformed signatures which are just the type, not the method, for an
-                // unknown reason
-                logger.warn("Malformed method descriptor, skipping arguments: {}:{} ({})", currentClassName, currentMethodName, descriptor);
+        @Nullable
+        private RecordedMethod resolve(String owner, String name, String descriptor) {
+            // Treat all arrays as "object", instead of a unique array "class"
+            String effectiveOwner = (owner.startsWith("[") ? "java/lang/Object" : owner).replace('/', '.');
 
-                return new Type[] {};
+            // Avoid recording references which the registry would discard
+            if (referenceRegistry.isExcluded(effectiveOwner)) {
+                return null;
             }
+
+            // The descriptor is decoded when references are read, once per distinct descriptor
+            return new RecordedMethod(effectiveOwner, name, descriptor);
         }
 
     }
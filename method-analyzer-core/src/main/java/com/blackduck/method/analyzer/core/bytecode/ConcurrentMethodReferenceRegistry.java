@@ -0,0 +1,236 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.bytecode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Table.Cell;
+import com.google.common.math.IntMath;
+
+/**
+ * Represents a thread-safe registry for tracking referenced methods throughout a project, which may be shared by many
+ * {@link ClassMethodReferenceVisitor} instances running concurrently
+ *
+ * <p>
+ * References are divided into stripes by the hash of the method owner, with each stripe guarded by its own lock. As all
+ * references to and exclusions of a given owner are recorded to the same stripe, registrations for different owners
+ * rarely contend. Exclusion checks do not lock
+ *
+ * <p>
+ * Reading references, via {@link #getReferences()} or {@link #forEach(ReferenceConsumer)}, is expected to happen once
+ * registration is complete
+ *
+ * <p>
+ * This registry is intended for callers which drive {@link ClassMethodReferenceVisitor} instances from their own
+ * threads. The {@code MethodUseAnalyzer} does not use it - each of its parallel workers records to its own registry,
+ * which avoids locking entirely and allows worker registries to spill to disk independently, with the registries
+ * merged once all class files are processed
+ *
+ * @author romeara
+ */
+public class ConcurrentMethodReferenceRegistry extends MethodReferenceRegistry {
+
+    private final MethodReferenceRegistry[] stripes;
+
+    private final ReentrantLock[] locks;
+
+    private final LongAdder lockAcquisitions;
+
+    private final LongAdder contendedLockAcquisitions;
+
+    /**
+     * Creates a registry with a number of stripes based on the available processors
+     */
+    public ConcurrentMethodReferenceRegistry() {
+        this(Collections.emptySet(), new SymbolTable());
+    }
+
+    /**
+     * Creates a registry with a number of stripes based on the available processors
+     *
+     * @param knownMethodOwnerExclusions
+     *            Classes known ahead of time to be defined within the analyzed project, which all references to are
+     *            ignored
+     * @param symbols
+     *            The table to record the names of methods which use references to
+     */
+    public ConcurrentMethodReferenceRegistry(Set<String> knownMethodOwnerExclusions, SymbolTable symbols) {
+        this(knownMethodOwnerExclusions, symbols, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param knownMethodOwnerExclusions
+     *            Classes known ahead of time to be defined within the analyzed project, which all references to are
+     *            ignored
+     * @param symbols
+     *            The table to record the names of methods which use references to
+     * @param stripeCount
+     *            The minimum number of independently locked stripes to divide references between. Rounded up to a power
+     *            of two
+     */
+    public ConcurrentMethodReferenceRegistry(Set<String> knownMethodOwnerExclusions, SymbolTable symbols, int stripeCount) {
+        // Exclusions are recorded by the base registry, in a set which may be checked without locking
+        super(knownMethodOwnerExclusions, symbols, ConcurrentHashMap.newKeySet());
+
+        Preconditions.checkArgument(stripeCount > 0, "Stripe count must be a positive value (was %s)", stripeCount);
+
+        int effectiveStripeCount = IntMath.ceilingPowerOfTwo(stripeCount);
+
+        stripes = new MethodReferenceRegistry[effectiveStripeCount];
+        locks = new ReentrantLock[effectiveStripeCount];
+
+        for (int i = 0; i < effectiveStripeCount; i++) {
+            // Known exclusions are checked before selecting a stripe, so are not repeated within each stripe
+            stripes[i] = new MethodReferenceRegistry(Collections.emptySet(), symbols);
+            locks[i] = new ReentrantLock();
+        }
+
+        lockAcquisitions = new LongAdder();
+        contendedLockAcquisitions = new LongAdder();
+    }
+
+    @Override
+    public void registerExclusion(String excludedMethodOwner) {
+        Objects.requireNonNull(excludedMethodOwner);
+
+        if (addExclusion(excludedMethodOwner)) {
+            int stripe = getStripe(excludedMethodOwner);
+
+            lock(stripe);
+
+            try {
+                stripes[stripe].registerExclusion(excludedMethodOwner);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    /**
+     * @return The number of times a stripe lock has been acquired
+     */
+    public long getLockAcquisitionCount() {
+        return lockAcquisitions.sum();
+    }
+
+    /**
+     * @return The number of times a stripe lock was held by another thread when an attempt was made to acquire it
+     */
+    public long getContendedLockAcquisitionCount() {
+        return contendedLockAcquisitions.sum();
+    }
+
+    @Override
+    List<Cell<String, RecordedMethod, MethodUseSet>> getRecordedReferences() {
+        List<Cell<String, RecordedMethod, MethodUseSet>> result = new ArrayList<>();
+
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            lock(stripe);
+
+            try {
+                result.addAll(stripes[stripe].getRecordedReferences());
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    void addUse(String methodOwner, RecordedMethod recordedMethod, long use) {
+        if (!isExcluded(methodOwner)) {
+            int stripe = getStripe(methodOwner);
+
+            lock(stripe);
+
+            try {
+                // The stripe re-checks exclusions while locked, in case the owner was excluded concurrently
+                stripes[stripe].addUse(methodOwner, recordedMethod, use);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    @Override
+    void addUses(String methodOwner, RecordedMethod recordedMethod, MethodUseSet uses, SymbolTable usesSymbols) {
+        if (!isExcluded(methodOwner)) {
+            int stripe = getStripe(methodOwner);
+
+            lock(stripe);
+
+            try {
+                stripes[stripe].addUses(methodOwner, recordedMethod, uses, usesSymbols);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("stripes", stripes.length)
+                .add("lockAcquisitions", getLockAcquisitionCount())
+                .add("contendedLockAcquisitions", getContendedLockAcquisitionCount())
+                .toString();
+    }
+
+    /**
+     * @param methodOwner
+     *            A class which methods may be defined in
+     * @return The index of the stripe references to the class are recorded in
+     */
+    private int getStripe(String methodOwner) {
+        int hash = methodOwner.hashCode();
+
+        // Spread higher bits downward, as only the lowest bits select a stripe
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    /**
+     * Acquires the lock of a stripe, recording whether the lock was contended
+     *
+     * @param stripe
+     *            The index of the stripe to lock
+     */
+    private void lock(int stripe) {
+        if (!locks[stripe].tryLock()) {
+            contendedLockAcquisitions.increment();
+            locks[stripe].lock();
+        }
+
+        lockAcquisitions.increment();
+    }
+
+}
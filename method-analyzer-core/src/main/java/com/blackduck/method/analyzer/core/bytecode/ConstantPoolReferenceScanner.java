@@ -0,0 +1,232 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.bytecode;
+
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Handles accumulating method reference information from the constant pool of class files, without visiting any
+ * fields, methods, or code
+ *
+ * <p>
+ * Every {@code CONSTANT_Methodref} and {@code CONSTANT_InterfaceMethodref} entry of a class is recorded, as is the
+ * bootstrap method of every {@code CONSTANT_InvokeDynamic} entry (recorded under the call site's name, as
+ * {@link ClassMethodReferenceVisitor} does). As no code is visited, the location of each use is not known - each
+ * reference is recorded as a single use by the referencing class, without a line number. Methods which are referenced
+ * only as bootstrap methods, or by constant pool entries no code refers to, may be recorded where a full visit would
+ * not record them
+ *
+ * <p>
+ * As with {@link ClassMethodReferenceVisitor}, each thread should use its own scanner and registry
+ *
+ * @author romeara
+ */
+public class ConstantPoolReferenceScanner {
+
+    private static final int CONSTANT_METHODREF_TAG = 10;
+
+    private static final int CONSTANT_INTERFACE_METHODREF_TAG = 11;
+
+    private static final int CONSTANT_INVOKE_DYNAMIC_TAG = 18;
+
+    private static final String BOOTSTRAP_METHODS_ATTRIBUTE = "BootstrapMethods";
+
+    private final MethodReferenceRegistry referenceRegistry;
+
+    /**
+     * @param referenceRegistry
+     *            The registry to record discovered method references to
+     */
+    public ConstantPoolReferenceScanner(MethodReferenceRegistry referenceRegistry) {
+        this.referenceRegistry = Objects.requireNonNull(referenceRegistry);
+    }
+
+    /**
+     * Records the methods referenced by the constant pool of a class
+     *
+     * @param reader
+     *            The reader of the class to scan
+     * @throws IllegalArgumentException
+     *             If the class has {@code CONSTANT_InvokeDynamic} entries, but no {@code BootstrapMethods} attribute
+     */
+    public void scan(ClassReader reader) {
+        Objects.requireNonNull(reader);
+
+        String currentClassName = reader.getClassName().replace('/', '.');
+
+        // Exclude any further registered method calls to this class, and clear any existing references to the current
+        // class which were added before exclusion
+        referenceRegistry.registerExclusion(currentClassName);
+
+        int classId = referenceRegistry.getSymbolTable().toId(currentClassName);
+        char[] charBuffer = new char[reader.getMaxStringLength()];
+        int[] bootstrapMethodOffsets = null;
+
+        // Most method references of a class share a small number of owners, which are resolved once per class entry
+        String[] owners = new String[reader.getItemCount()];
+
+        for (int itemIndex = 1; itemIndex < reader.getItemCount(); itemIndex++) {
+            int itemOffset = reader.getItem(itemIndex);
+
+            // The second slot of long and double constants has no entry
+            if (itemOffset == 0) {
+                continue;
+            }
+
+            int tag = reader.readByte(itemOffset - 1);
+
+            if (tag == CONSTANT_METHODREF_TAG || tag == CONSTANT_INTERFACE_METHODREF_TAG) {
+                String owner = getOwner(reader, owners, reader.readUnsignedShort(itemOffset), charBuffer);
+
+                // The name and type of references the registry would discard are not read
+                if (owner != null) {
+                    int nameAndTypeOffset = reader.getItem(reader.readUnsignedShort(itemOffset + 2));
+
+                    referenceRegistry.addClassUse(owner, reader.readUTF8(nameAndTypeOffset, charBuffer), reader.readUTF8(nameAndTypeOffset + 2, charBuffer), classId);
+                }
+            } else if (tag == CONSTANT_INVOKE_DYNAMIC_TAG) {
+                if (bootstrapMethodOffsets == null) {
+                    bootstrapMethodOffsets = readBootstrapMethodOffsets(reader, charBuffer);
+                }
+
+                // Bootstrap methods are method handles, which reference a method through a Methodref entry
+                int handleOffset = reader.getItem(reader.readUnsignedShort(bootstrapMethodOffsets[reader.readUnsignedShort(itemOffset)]));
+                int methodOffset = reader.getItem(reader.readUnsignedShort(handleOffset + 1));
+                String owner = getOwner(reader, owners, reader.readUnsignedShort(methodOffset), charBuffer);
+
+                if (owner != null) {
+                    int nameAndTypeOffset = reader.getItem(reader.readUnsignedShort(itemOffset + 2));
+                    int methodNameAndTypeOffset = reader.getItem(reader.readUnsignedShort(methodOffset + 2));
+
+                    referenceRegistry.addClassUse(owner, reader.readUTF8(nameAndTypeOffset, charBuffer), reader.readUTF8(methodNameAndTypeOffset + 2, charBuffer),
+                            classId);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param reader
+     *            The reader of the class being scanned
+     * @param owners
+     *            Owners already resolved for the class, by constant pool index
+     * @param classIndex
+     *            The constant pool index of a {@code CONSTANT_Class} entry
+     * @param charBuffer
+     *            Buffer to read the class name with
+     * @return The qualified name of the class, or null if references to the class are excluded
+     */
+    @Nullable
+    private String getOwner(ClassReader reader, String[] owners, int classIndex, char[] charBuffer) {
+        String owner = owners[classIndex];
+
+        if (owner == null) {
+            String internalName = reader.readUTF8(reader.getItem(classIndex), charBuffer);
+
+            // Treat all arrays as "object", instead of a unique array "class"
+            owner = (internalName.startsWith("[") ? "java/lang/Object" : internalName).replace('/', '.');
+            owners[classIndex] = owner;
+        }
+
+        // Avoid recording references which the registry would discard
+        return (referenceRegistry.isExcluded(owner) ? null : owner);
+    }
+
+    /**
+     * Locates the entries of a class's {@code BootstrapMethods} attribute, by skipping over the class's fields and
+     * methods without reading their content
+     *
+     * @param reader
+     *            The reader of the class
+     * @param charBuffer
+     *            Buffer to read attribute names with
+     * @return The offset of each bootstrap method entry, by bootstrap method index
+     * @throws IllegalArgumentException
+     *             If the class has no {@code BootstrapMethods} attribute
+     */
+    private static int[] readBootstrapMethodOffsets(ClassReader reader, char[] charBuffer) {
+        // Skip access flags, this class, super class, and interfaces
+        int currentOffset = reader.header + 6;
+        currentOffset += 2 + reader.readUnsignedShort(currentOffset) * 2;
+
+        // Skip fields and methods, which share the same structure
+        for (int member = 0; member < 2; member++) {
+            int memberCount = reader.readUnsignedShort(currentOffset);
+            currentOffset += 2;
+
+            for (int i = 0; i < memberCount; i++) {
+                currentOffset = skipAttributes(reader, currentOffset + 6);
+            }
+        }
+
+        int attributeCount = reader.readUnsignedShort(currentOffset);
+        currentOffset += 2;
+
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = reader.readUTF8(currentOffset, charBuffer);
+            int attributeLength = reader.readInt(currentOffset + 2);
+            currentOffset += 6;
+
+            if (BOOTSTRAP_METHODS_ATTRIBUTE.equals(attributeName)) {
+                int[] result = new int[reader.readUnsignedShort(currentOffset)];
+                int bootstrapMethodOffset = currentOffset + 2;
+
+                for (int j = 0; j < result.length; j++) {
+                    result[j] = bootstrapMethodOffset;
+
+                    // Skip the method handle reference, and each argument reference
+                    bootstrapMethodOffset += 4 + reader.readUnsignedShort(bootstrapMethodOffset + 2) * 2;
+                }
+
+                return result;
+            }
+
+            currentOffset += attributeLength;
+        }
+
+        throw new IllegalArgumentException("Class " + reader.getClassName() + " has invokedynamic constants, but no " + BOOTSTRAP_METHODS_ATTRIBUTE + " attribute");
+    }
+
+    /**
+     * @param reader
+     *            The reader of the class
+     * @param attributesOffset
+     *            The offset of an attribute count, followed by that many attributes
+     * @return The offset immediately following the attributes
+     */
+    private static int skipAttributes(ClassReader reader, int attributesOffset) {
+        int attributeCount = reader.readUnsignedShort(attributesOffset);
+        int currentOffset = attributesOffset + 2;
+
+        for (int i = 0; i < attributeCount; i++) {
+            currentOffset += 6 + reader.readInt(currentOffset + 2);
+        }
+
+        return currentOffset;
+    }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.bytecode;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Represents a bounded cache of decoded JVM method descriptors
+ *
+ * <p>
+ * The same descriptors are referenced many times within a project, so decoding is performed once per distinct
+ * descriptor, with the least recently used descriptors evicted once the cache is full. Instances are thread-safe
+ *
+ * @author romeara
+ */
+final class MethodDescriptorCache {
+
+    /** Logger reference to output information to the application log files */
+    private static final Logger logger = LoggerFactory.getLogger(MethodDescriptorCache.class);
+
+    private final LoadingCache<String, DecodedDescriptor> descriptors;
+
+    /**
+     * @param maximumSize
+     *            The maximum number of decoded descriptors to retain
+     */
+    MethodDescriptorCache(long maximumSize) {
+        Preconditions.checkArgument(maximumSize > 0, "Maximum size must be a positive value (was %s)", maximumSize);
+
+        descriptors = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build(CacheLoader.from(MethodDescriptorCache::decodeDescriptor));
+    }
+
+    /**
+     * @param descriptor
+     *            A JVM method descriptor
+     * @return The parameter and return types of the descriptor, as fully-qualified class names
+     */
+    DecodedDescriptor decode(String descriptor) {
+        Objects.requireNonNull(descriptor);
+
+        return descriptors.getUnchecked(descriptor);
+    }
+
+    /**
+     * Creates the JVM method descriptor for a set of parameter and return types, such that decoding the descriptor
+     * produces the same types
+     *
+     * @param inputs
+     *            The fully-qualified class names of the method's parameters
+     * @param output
+     *            The fully-qualified class name of the method's return type, or "void"
+     * @return The JVM method descriptor
+     */
+    static String encode(List<String> inputs, String output) {
+        Objects.requireNonNull(inputs);
+        Objects.requireNonNull(output);
+
+        StringBuilder descriptor = new StringBuilder("(");
+
+        for (String input : inputs) {
+            appendTypeDescriptor(descriptor, input);
+        }
+
+        descriptor.append(')');
+        appendTypeDescriptor(descriptor, output);
+
+        return descriptor.toString();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("size", descriptors.size())
+                .toString();
+    }
+
+    private static DecodedDescriptor decodeDescriptor(String descriptor) {
+        // Note: getClassName is specifically used in the argument/return instances as we want "." formatted in that
+        // string
+        try {
+            ImmutableList.Builder<String> inputs = ImmutableList.builder();
+
+            for (Type argument : getArgumentTypes(descriptor)) {
+                inputs.add(argument.getClassName());
+            }
+
+            return new DecodedDescriptor(inputs.build(), getReturnType(descriptor).getClassName());
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            // Descriptors are decoded when the report is generated, rather than while the class is parsed, so failures
+            // cannot be attributed to a broken file - the reference is kept without type information instead
+            logger.warn("Malformed method descriptor, skipping type processing: {}", descriptor);
+
+            return new DecodedDescriptor(ImmutableList.of(), Object.class.getName());
+        }
+    }
+
+    private static Type getReturnType(String descriptor) {
+        try {
+            return Type.getReturnType(descriptor);
+        } catch (StringIndexOutOfBoundsException e) {
+            // IDETECT-3909 This can occur for malformed signatures which are just the type, not the method, for an
+            // unknown reason
+            logger.warn("Malformed method descriptor, attempting type-only processing: {}", descriptor);
+
+            try {
+                return Type.getType(descriptor);
+            } catch (StringIndexOutOfBoundsException | IllegalArgumentException e2) {
+                // IDETECT-3909 This can occur for malformed signatures which are just the type, not the method, for
+                // an unknown reason
+                logger.warn("Malformed method descriptor, skipping reference processing: {}", descriptor);
+
+                return Type.getType(Object.class);
+            }
+        }
+    }
+
+    private static Type[] getArgumentTypes(String descriptor) {
+        try {
+            return Type.getArgumentTypes(descriptor);
+        } catch (StringIndexOutOfBoundsException e) {
+            // IDETECT-3909 This can occur for malformed signatures which are just the type, not the method, for an
+            // unknown reason
+            logger.warn("Malformed method descriptor, skipping arguments: {}", descriptor);
+
+            return new Type[] {};
+        }
+    }
+
+    private static void appendTypeDescriptor(StringBuilder descriptor, String className) {
+        String elementClassName = className;
+
+        while (elementClassName.endsWith("[]")) {
+            descriptor.append('[');
+            elementClassName = elementClassName.substring(0, elementClassName.length() - 2);
+        }
+
+        switch (elementClassName) {
+        case "void":
+            descriptor.append('V');
+            break;
+        case "boolean":
+            descriptor.append('Z');
+            break;
+        case "char":
+            descriptor.append('C');
+            break;
+        case "byte":
+            descriptor.append('B');
+            break;
+        case "short":
+            descriptor.append('S');
+            break;
+        case "int":
+            descriptor.append('I');
+            break;
+        case "float":
+            descriptor.append('F');
+            break;
+        case "long":
+            descriptor.append('J');
+            break;
+        case "double":
+            descriptor.append('D');
+            break;
+        default:
+            descriptor.append('L').append(elementClassName.replace('.', '/')).append(';');
+            break;
+        }
+    }
+
+    /**
+     * Represents the parameter and return types described by a JVM method descriptor
+     *
+     * @author romeara
+     */
+    static final class DecodedDescriptor {
+
+        private final List<String> inputs;
+
+        private final String output;
+
+        private DecodedDescriptor(List<String> inputs, String output) {
+            this.inputs = ImmutableList.copyOf(inputs);
+            this.output = Objects.requireNonNull(output);
+        }
+
+        List<String> getInputs() {
+            return inputs;
+        }
+
+        String getOutput() {
+            return output;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                    .add("inputs", getInputs())
+                    .add("output", getOutput())
+                    .toString();
+        }
+
+    }
+
+}
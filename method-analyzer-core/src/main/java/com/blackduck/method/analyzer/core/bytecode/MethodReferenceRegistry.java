@@ -22,42 +22,117 @@
  */
 package com.blackduck.method.analyzer.core.bytecode;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 
 import javax.annotation.Nullable;
 
+import com.blackduck.method.analyzer.core.bytecode.MethodDescriptorCache.DecodedDescriptor;
+import com.blackduck.method.analyzer.core.model.MethodReferences;
 import com.blackduck.method.analyzer.core.model.MethodUse;
 import com.blackduck.method.analyzer.core.model.ReferencedMethod;
-import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Comparators;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Table;
+import com.google.common.collect.Sets;
 import com.google.common.collect.Table.Cell;
+import com.google.common.collect.Tables;
 
 /**
  * Represents handling for tracking referenced methods throughout a project
  *
  * <p>
- * Development note - making this external to the actual byte code analysis class(s) and applying thread-safe
- * synchronization to its method might allow for parallel processing, if that becomes necessary
+ * Instances are not thread-safe. Parallel processing is supported by giving each worker its own registry, and combining
+ * the results via {@link #merge(MethodReferenceRegistry)} once all workers are complete, or by sharing a single
+ * {@link ConcurrentMethodReferenceRegistry}
+ *
+ * <p>
+ * When the classes defined within a project are known before references are registered, they may be provided at
+ * construction. References to those classes are then dropped as they are registered, instead of being stored until the
+ * owning class is excluded, which makes the result independent of the order classes are processed in
+ *
+ * <p>
+ * Use locations are stored in a packed primitive form, with the name of each using method recorded once in a
+ * {@link SymbolTable}. {@link MethodUse} instances are only created when references are read - via
+ * {@link #forEach(ReferenceConsumer)} they are created for one referenced method at a time, in a consistent order
  *
  * @author romeara
  */
-public class MethodReferenceRegistry {
+public class MethodReferenceRegistry implements MethodReferences {
+
+    static final Comparator<ReferencedMethod> REFERENCE_ORDER = Comparator.comparing(ReferencedMethod::getMethodOwner)
+            .thenComparing(ReferencedMethod::getMethodName)
+            .thenComparing(ReferencedMethod::getInputs, Comparators.lexicographical(Comparator.<String> naturalOrder()))
+            .thenComparing(ReferencedMethod::getOutput);
+
+    /** Upper bound on distinct descriptors decoded at once - far more than the descriptors referenced by most projects */
+    private static final long DESCRIPTOR_CACHE_SIZE = 65_536;
+
+    /** Decoding is deterministic, so decoded descriptors are shared by all registries */
+    private static final MethodDescriptorCache DESCRIPTORS = new MethodDescriptorCache(DESCRIPTOR_CACHE_SIZE);
+
+    // Key'd by owner, signature, value of referenced locations. Nested maps are used instead of a Table, as Table lookups
+    // create a row view for each call
+    private final Map<String, Map<RecordedMethod, MethodUseSet>> references;
+
+    private final SymbolTable symbols;
 
-    // Key'd by owner, signature, value of referenced locations
-    private final Table<String, ReferencedMethod, Collection<MethodUse>> references;
+    private final Set<String> knownMethodOwnerExclusions;
 
     private final Set<String> methodOwnerExclusions;
 
     public MethodReferenceRegistry() {
-        references = HashBasedTable.create();
-        methodOwnerExclusions = new HashSet<>();
+        this(Collections.emptySet());
+    }
+
+    /**
+     * @param knownMethodOwnerExclusions
+     *            Classes known ahead of time to be defined within the analyzed project, which all references to are
+     *            ignored
+     */
+    public MethodReferenceRegistry(Set<String> knownMethodOwnerExclusions) {
+        this(knownMethodOwnerExclusions, new SymbolTable());
+    }
+
+    /**
+     * @param knownMethodOwnerExclusions
+     *            Classes known ahead of time to be defined within the analyzed project, which all references to are
+     *            ignored
+     * @param symbols
+     *            The table to record the names of methods which use references to. Registries which will be merged
+     *            should share a table, to avoid translating between tables during the merge
+     */
+    public MethodReferenceRegistry(Set<String> knownMethodOwnerExclusions, SymbolTable symbols) {
+        this(knownMethodOwnerExclusions, symbols, new HashSet<>());
+    }
+
+    /**
+     * @param knownMethodOwnerExclusions
+     *            Classes known ahead of time to be defined within the analyzed project, which all references to are
+     *            ignored
+     * @param symbols
+     *            The table to record the names of methods which use references to
+     * @param methodOwnerExclusions
+     *            The empty set to record classes excluded during analysis to. Must be thread-safe if the registry may be
+     *            used by multiple threads
+     */
+    MethodReferenceRegistry(Set<String> knownMethodOwnerExclusions, SymbolTable symbols, Set<String> methodOwnerExclusions) {
+        Objects.requireNonNull(knownMethodOwnerExclusions);
+
+        references = new HashMap<>();
+        this.symbols = Objects.requireNonNull(symbols);
+        this.knownMethodOwnerExclusions = ImmutableSet.copyOf(knownMethodOwnerExclusions);
+        this.methodOwnerExclusions = Objects.requireNonNull(methodOwnerExclusions);
     }
 
     /**
@@ -83,16 +158,10 @@ public class MethodReferenceRegistry {
         Objects.requireNonNull(output);
         Objects.requireNonNull(whereUsed);
 
-        if (!methodOwnerExclusions.contains(methodOwner)) {
-            MethodUse useReference = new MethodUse(whereUsed, lineNumber);
+        if (!isExcluded(methodOwner)) {
+            RecordedMethod recordedMethod = new RecordedMethod(methodOwner, methodName, MethodDescriptorCache.encode(inputs, output));
 
-            ReferencedMethod referencedMethod = new ReferencedMethod(methodOwner, methodName, inputs, output);
-
-            Collection<MethodUse> values = Optional.ofNullable(references.get(methodOwner, referencedMethod))
-                    .orElse(new HashSet<>());
-            values.add(useReference);
-
-            references.put(methodOwner, referencedMethod, values);
+            addUse(methodOwner, recordedMethod, MethodUseSet.encode(symbols.toId(whereUsed), lineNumber));
         }
     }
 
@@ -104,23 +173,274 @@ public class MethodReferenceRegistry {
     public void registerExclusion(String excludedMethodOwner) {
         Objects.requireNonNull(excludedMethodOwner);
 
-        methodOwnerExclusions.add(excludedMethodOwner);
+        if (addExclusion(excludedMethodOwner)) {
+            references.remove(excludedMethodOwner);
+        }
+    }
+
+    /**
+     * @param methodOwner
+     *            A class which methods may be defined in
+     * @return True if references to methods of the class are ignored by this registry
+     */
+    public boolean isExcluded(String methodOwner) {
+        Objects.requireNonNull(methodOwner);
+
+        return knownMethodOwnerExclusions.contains(methodOwner) || methodOwnerExclusions.contains(methodOwner);
+    }
+
+    /**
+     * Adds all references and exclusions recorded by another registry to this one
+     *
+     * <p>
+     * Exclusions from either registry are applied to the combined references, so the result is the same as if all
+     * registrations to both registries had been made to this one
+     *
+     * @param other
+     *            The registry to merge into this one. It is not modified
+     */
+    public void merge(MethodReferenceRegistry other) {
+        Objects.requireNonNull(other);
 
-        Set<ReferencedMethod> columnKeys = new HashSet<>(references.row(excludedMethodOwner).keySet());
+        for (String excludedMethodOwner : other.getExclusions()) {
+            registerExclusion(excludedMethodOwner);
+        }
 
-        for (ReferencedMethod columnKey : columnKeys) {
-            references.remove(excludedMethodOwner, columnKey);
+        for (Cell<String, RecordedMethod, MethodUseSet> reference : other.getRecordedReferences()) {
+            addUses(reference.getRowKey(), reference.getColumnKey(), reference.getValue(), other.getSymbolTable());
         }
     }
 
     /**
+     * Creates a copy of all references recorded
+     *
+     * <p>
+     * All uses are created at once - when the references only need to be read once, such as to write a report,
+     * {@link #forEach(ReferenceConsumer)} avoids holding a full copy in memory
+     *
      * @return A mapping of referenced methods to one or more locations use was detected in
      */
     public Multimap<ReferencedMethod, MethodUse> getReferences() {
         Multimap<ReferencedMethod, MethodUse> result = HashMultimap.create();
 
-        for (Cell<String, ReferencedMethod, Collection<MethodUse>> reference : references.cellSet()) {
-            result.putAll(reference.getColumnKey(), reference.getValue());
+        for (Cell<String, RecordedMethod, MethodUseSet> reference : getRecordedReferences()) {
+            result.putAll(decode(reference.getColumnKey()), toMethodUses(reference.getValue()));
+        }
+
+        return result;
+    }
+
+    /**
+     * Passes each referenced method to a consumer, ordered by owner, name, inputs, and output
+     *
+     * <p>
+     * The uses of each method are created as it is passed to the consumer, and are not retained by the registry
+     *
+     * @param consumer
+     *            The consumer to pass references to
+     * @throws IOException
+     *             If the consumer fails to process a reference
+     */
+    @Override
+    public void forEach(ReferenceConsumer consumer) throws IOException {
+        Objects.requireNonNull(consumer);
+
+        List<Map.Entry<ReferencedMethod, MethodUseSet>> orderedReferences = new ArrayList<>();
+
+        for (Cell<String, RecordedMethod, MethodUseSet> reference : getRecordedReferences()) {
+            orderedReferences.add(Maps.immutableEntry(decode(reference.getColumnKey()), reference.getValue()));
+        }
+
+        orderedReferences.sort(Map.Entry.comparingByKey(REFERENCE_ORDER));
+
+        int index = 0;
+
+        while (index < orderedReferences.size()) {
+            ReferencedMethod referencedMethod = orderedReferences.get(index).getKey();
+            MethodUseSet uses = orderedReferences.get(index).getValue();
+            index++;
+
+            // Malformed descriptors may decode to the same method as another descriptor, in which case uses are combined
+            if (index < orderedReferences.size() && orderedReferences.get(index).getKey().equals(referencedMethod)) {
+                MethodUseSet combinedUses = new MethodUseSet();
+                combinedUses.addAll(uses);
+
+                while (index < orderedReferences.size() && orderedReferences.get(index).getKey().equals(referencedMethod)) {
+                    combinedUses.addAll(orderedReferences.get(index).getValue());
+                    index++;
+                }
+
+                uses = combinedUses;
+            }
+
+            consumer.accept(referencedMethod, toMethodUses(uses));
+        }
+    }
+
+    /**
+     * @return The table use locations are recorded in
+     */
+    SymbolTable getSymbolTable() {
+        return symbols;
+    }
+
+    /**
+     * Records a class as excluded, without removing any existing references to it
+     *
+     * @param excludedMethodOwner
+     *            The class to exclude
+     * @return True if the class was not previously excluded, and existing references to it should be removed
+     */
+    boolean addExclusion(String excludedMethodOwner) {
+        // References to known exclusions are never stored, so there is nothing to remove
+        return !knownMethodOwnerExclusions.contains(excludedMethodOwner) && methodOwnerExclusions.add(excludedMethodOwner);
+    }
+
+    /**
+     * @return All classes which references to are ignored by this registry
+     */
+    Set<String> getExclusions() {
+        return Sets.union(knownMethodOwnerExclusions, methodOwnerExclusions);
+    }
+
+    /**
+     * @return A snapshot of the references recorded, as owner, referenced method, and packed uses. The packed uses are
+     *         not copied, and must not be read while references are still being registered
+     */
+    List<Cell<String, RecordedMethod, MethodUseSet>> getRecordedReferences() {
+        List<Cell<String, RecordedMethod, MethodUseSet>> result = new ArrayList<>();
+
+        for (Map.Entry<String, Map<RecordedMethod, MethodUseSet>> ownerReferences : references.entrySet()) {
+            for (Map.Entry<RecordedMethod, MethodUseSet> reference : ownerReferences.getValue().entrySet()) {
+                result.add(Tables.immutableCell(ownerReferences.getKey(), reference.getKey(), reference.getValue()));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Records a packed use of a method, unless the method's owner is excluded
+     *
+     * <p>
+     * Recording a use of a method which is already known does not allocate, unless the method's uses must be resized
+     *
+     * @param methodOwner
+     *            The class the method is defined in
+     * @param recordedMethod
+     *            The method which was referenced
+     * @param use
+     *            The packed use to record, with an ID assigned by this registry's table
+     */
+    void addUse(String methodOwner, RecordedMethod recordedMethod, long use) {
+        if (!isExcluded(methodOwner)) {
+            getUses(methodOwner, recordedMethod).add(use);
+        }
+    }
+
+    /**
+     * Records that a class references a method, unless the method's owner is excluded
+     *
+     * <p>
+     * This is a lighter-weight alternative to {@link #addUse(String, RecordedMethod, long)} for callers which only know
+     * which classes reference a method, and not where within each class, such as scans of class constant pools. The use
+     * is recorded as the class's ID, without a line number, and callers need not cache recently recorded methods
+     *
+     * @param methodOwner
+     *            The qualified name of the class the method is defined in
+     * @param methodName
+     *            The name of the method
+     * @param descriptor
+     *            The method descriptor, as it appears in byte code. Decoded when references are read, once per distinct
+     *            descriptor
+     * @param classId
+     *            The ID assigned to the name of the referencing class by this registry's table
+     */
+    void addClassUse(String methodOwner, String methodName, String descriptor, int classId) {
+        addUse(methodOwner, new RecordedMethod(methodOwner, methodName, descriptor), MethodUseSet.encode(classId));
+    }
+
+    /**
+     * Records packed uses of a method, unless the method's owner is excluded
+     *
+     * @param methodOwner
+     *            The class the method is defined in
+     * @param recordedMethod
+     *            The method which was referenced
+     * @param uses
+     *            The packed uses to record
+     * @param usesSymbols
+     *            The table the IDs within the packed uses were assigned by
+     */
+    void addUses(String methodOwner, RecordedMethod recordedMethod, MethodUseSet uses, SymbolTable usesSymbols) {
+        if (!isExcluded(methodOwner)) {
+            MethodUseSet values = getUses(methodOwner, recordedMethod);
+
+            if (usesSymbols == symbols) {
+                values.addAll(uses);
+            } else {
+                // Use IDs are specific to a table, so must be re-assigned from this registry's table
+                for (long use : uses.toArray()) {
+                    values.add(MethodUseSet.encode(symbols.toId(usesSymbols.fromId(MethodUseSet.getUseId(use))), MethodUseSet.getLineNumber(use)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all references recorded, without altering exclusions
+     */
+    void clearRecordedReferences() {
+        references.clear();
+    }
+
+    /**
+     * @param methodOwner
+     *            The class the method is defined in
+     * @param recordedMethod
+     *            The method which was referenced
+     * @return The packed uses recorded for the method, created if the method has not yet been recorded
+     */
+    private MethodUseSet getUses(String methodOwner, RecordedMethod recordedMethod) {
+        Map<RecordedMethod, MethodUseSet> ownerReferences = references.get(methodOwner);
+
+        if (ownerReferences == null) {
+            ownerReferences = new HashMap<>();
+            references.put(methodOwner, ownerReferences);
+        }
+
+        MethodUseSet values = ownerReferences.get(recordedMethod);
+
+        if (values == null) {
+            values = new MethodUseSet();
+            ownerReferences.put(recordedMethod, values);
+        }
+
+        return values;
+    }
+
+    /**
+     * @param recordedMethod
+     *            A method as recorded by a registry
+     * @return The method, with its descriptor decoded into parameter and return types
+     */
+    ReferencedMethod decode(RecordedMethod recordedMethod) {
+        DecodedDescriptor decodedDescriptor = DESCRIPTORS.decode(recordedMethod.getDescriptor());
+
+        return new ReferencedMethod(recordedMethod.getMethodOwner(), recordedMethod.getMethodName(), decodedDescriptor.getInputs(), decodedDescriptor.getOutput());
+    }
+
+    /**
+     * @param uses
+     *            A set of packed uses recorded by this registry
+     * @return The uses, in the order they are stored
+     */
+    List<MethodUse> toMethodUses(MethodUseSet uses) {
+        long[] packedUses = uses.toArray();
+        List<MethodUse> result = new ArrayList<>(packedUses.length);
+
+        for (long use : packedUses) {
+            result.add(new MethodUse(symbols.fromId(MethodUseSet.getUseId(use)), MethodUseSet.getLineNumber(use)));
         }
 
         return result;
@@ -0,0 +1,185 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.bytecode;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * Represents a compact set of the locations a single method is used from
+ *
+ * <p>
+ * Each use is stored as a single {@code long}, combining the {@link SymbolTable} ID of the using method with the line
+ * number of the use, instead of as an object per use. Duplicate uses are removed when the set is read, and whenever
+ * the storage would otherwise need to grow
+ *
+ * @author romeara
+ */
+final class MethodUseSet {
+
+    private static final int INITIAL_CAPACITY = 2;
+
+    // Set in place of a line number for uses which have no line information. Use IDs occupy bits 32-62, so this bit is
+    // otherwise unused
+    private static final long NO_LINE_NUMBER = Long.MIN_VALUE;
+
+    private long[] uses;
+
+    private int size;
+
+    // True if the uses in the array are known to be sorted and distinct
+    private boolean compact;
+
+    MethodUseSet() {
+        this.uses = new long[INITIAL_CAPACITY];
+        this.size = 0;
+        this.compact = true;
+    }
+
+    /**
+     * @param useId
+     *            The {@link SymbolTable} ID of the method the use is within
+     * @param lineNumber
+     *            The line number of the use, if available
+     * @return The packed representation of the use
+     */
+    static long encode(int useId, @Nullable Integer lineNumber) {
+        return (lineNumber != null ? encode(useId, lineNumber.intValue()) : encode(useId));
+    }
+
+    /**
+     * @param useId
+     *            The {@link SymbolTable} ID of the method the use is within
+     * @param lineNumber
+     *            The line number of the use
+     * @return The packed representation of the use
+     */
+    static long encode(int useId, int lineNumber) {
+        return (((long) useId) << 32) | (lineNumber & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param useId
+     *            The {@link SymbolTable} ID of the method the use is within
+     * @return The packed representation of a use without line number information
+     */
+    static long encode(int useId) {
+        return (((long) useId) << 32) | NO_LINE_NUMBER;
+    }
+
+    /**
+     * @param use
+     *            A packed use
+     * @return The {@link SymbolTable} ID of the method the use is within
+     */
+    static int getUseId(long use) {
+        return (int) ((use & ~NO_LINE_NUMBER) >>> 32);
+    }
+
+    /**
+     * @param use
+     *            A packed use
+     * @return The line number of the use, or null if it has no line information
+     */
+    @Nullable
+    static Integer getLineNumber(long use) {
+        return ((use & NO_LINE_NUMBER) != 0 ? null : Integer.valueOf((int) use));
+    }
+
+    /**
+     * @param use
+     *            A packed use to add to the set
+     */
+    void add(long use) {
+        // Multiple calls from the same line are common - avoid recording consecutive duplicates at all
+        if (size > 0 && uses[size - 1] == use) {
+            return;
+        }
+
+        if (size == uses.length) {
+            compact();
+
+            // Only grow if removing duplicates did not free a meaningful amount of space
+            if (size > (uses.length * 3) / 4) {
+                uses = Arrays.copyOf(uses, uses.length * 2);
+            }
+        }
+
+        compact = compact && (size == 0 || uses[size - 1] < use);
+        uses[size++] = use;
+    }
+
+    /**
+     * @param other
+     *            A set of packed uses to add to this set, which use the same {@link SymbolTable} IDs
+     */
+    void addAll(MethodUseSet other) {
+        long[] otherUses = other.toArray();
+
+        if (size + otherUses.length > uses.length) {
+            uses = Arrays.copyOf(uses, Math.max(uses.length * 2, size + otherUses.length));
+        }
+
+        System.arraycopy(otherUses, 0, uses, size, otherUses.length);
+        size += otherUses.length;
+        compact = false;
+    }
+
+    /**
+     * @return The number of packed uses stored, which may include duplicates not yet removed
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The distinct packed uses in this set, in ascending order
+     */
+    long[] toArray() {
+        compact();
+
+        return Arrays.copyOf(uses, size);
+    }
+
+    /**
+     * Sorts the stored uses and removes any duplicates
+     */
+    private void compact() {
+        if (!compact) {
+            Arrays.sort(uses, 0, size);
+
+            int distinct = 0;
+
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || uses[distinct - 1] != uses[i]) {
+                    uses[distinct++] = uses[i];
+                }
+            }
+
+            size = distinct;
+            compact = true;
+        }
+    }
+
+}
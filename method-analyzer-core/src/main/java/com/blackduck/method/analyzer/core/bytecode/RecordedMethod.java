@@ -0,0 +1,113 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.bytecode;
+
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import com.blackduck.method.analyzer.core.model.ReferencedMethod;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Represents a method referenced within an analyzed set of class files, as recorded during analysis
+ *
+ * <p>
+ * The parameter and return types are held as the raw JVM method descriptor, which is only decoded into the form used by
+ * {@link ReferencedMethod} when references are read - so that each distinct descriptor is decoded once, rather than once
+ * per referenced method
+ *
+ * @author romeara
+ */
+final class RecordedMethod {
+
+    private final String methodOwner;
+
+    private final String methodName;
+
+    private final String descriptor;
+
+    // Instances are used as map keys throughout analysis, so the hash is computed once rather than on each lookup
+    private final int hashCode;
+
+    /**
+     * @param methodOwner
+     *            The class the method is defined in
+     * @param methodName
+     *            The name of the method
+     * @param descriptor
+     *            The JVM descriptor of the method's parameter and return types
+     */
+    RecordedMethod(String methodOwner, String methodName, String descriptor) {
+        this.methodOwner = Objects.requireNonNull(methodOwner);
+        this.methodName = Objects.requireNonNull(methodName);
+        this.descriptor = Objects.requireNonNull(descriptor);
+
+        this.hashCode = Objects.hash(methodOwner,
+                methodName,
+                descriptor);
+    }
+
+    String getMethodOwner() {
+        return methodOwner;
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    String getDescriptor() {
+        return descriptor;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        boolean result = false;
+
+        if (obj instanceof RecordedMethod) {
+            RecordedMethod compare = (RecordedMethod) obj;
+
+            result = compare.hashCode == hashCode
+                    && Objects.equals(compare.getMethodOwner(), getMethodOwner())
+                    && Objects.equals(compare.getMethodName(), getMethodName())
+                    && Objects.equals(compare.getDescriptor(), getDescriptor());
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("methodOwner", getMethodOwner())
+                .add("methodName", getMethodName())
+                .add("descriptor", getDescriptor())
+                .toString();
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.bytecode;
+
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.math.IntMath;
+
+/**
+ * Represents a bounded cache of recorded methods, keyed by the owner, name, and descriptor exactly as they appear in
+ * byte code
+ *
+ * <p>
+ * The cache is direct-mapped - each key may only occupy a single slot, replacing any previous entry for that slot - so
+ * lookups do not allocate, and the cache does not grow with the number of distinct methods referenced
+ *
+ * <p>
+ * Instances are not thread-safe
+ *
+ * @author romeara
+ */
+final class RecordedMethodCache {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private final String[] owners;
+
+    private final String[] names;
+
+    private final String[] descriptors;
+
+    private final RecordedMethod[] methods;
+
+    private final int mask;
+
+    RecordedMethodCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity
+     *            The minimum number of slots in the cache. Rounded up to a power of two
+     */
+    RecordedMethodCache(int capacity) {
+        Preconditions.checkArgument(capacity > 0, "Capacity must be a positive value (was %s)", capacity);
+
+        int slots = IntMath.ceilingPowerOfTwo(capacity);
+
+        owners = new String[slots];
+        names = new String[slots];
+        descriptors = new String[slots];
+        methods = new RecordedMethod[slots];
+        mask = slots - 1;
+    }
+
+    /**
+     * @param owner
+     *            The internal name of the class the method is defined in, as it appears in byte code
+     * @param name
+     *            The name of the method
+     * @param descriptor
+     *            The method descriptor, as it appears in byte code
+     * @return The method previously stored for the key, or null if the key is not cached
+     */
+    @Nullable
+    RecordedMethod get(String owner, String name, String descriptor) {
+        int slot = getSlot(owner, name, descriptor);
+        RecordedMethod method = methods[slot];
+
+        // Names and descriptors are compared first, as most methods referenced from a class share few owners
+        if (method != null && names[slot].equals(name) && descriptors[slot].equals(descriptor) && owners[slot].equals(owner)) {
+            return method;
+        }
+
+        return null;
+    }
+
+    /**
+     * @param owner
+     *            The internal name of the class the method is defined in, as it appears in byte code
+     * @param name
+     *            The name of the method
+     * @param descriptor
+     *            The method descriptor, as it appears in byte code
+     * @param method
+     *            The method to store for the key, replacing any entry which occupies the same slot
+     */
+    void put(String owner, String name, String descriptor, RecordedMethod method) {
+        int slot = getSlot(owner, name, descriptor);
+
+        owners[slot] = Objects.requireNonNull(owner);
+        names[slot] = Objects.requireNonNull(name);
+        descriptors[slot] = Objects.requireNonNull(descriptor);
+        methods[slot] = Objects.requireNonNull(method);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("capacity", methods.length)
+                .toString();
+    }
+
+    private int getSlot(String owner, String name, String descriptor) {
+        int hash = (owner.hashCode() * 31 + name.hashCode()) * 31 + descriptor.hashCode();
+
+        // Spread higher bits into the lower bits used to select a slot
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+}
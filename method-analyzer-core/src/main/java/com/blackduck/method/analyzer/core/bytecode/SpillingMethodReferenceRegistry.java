@@ -0,0 +1,485 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.bytecode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import com.blackduck.method.analyzer.core.model.ReferencedMethod;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Table.Cell;
+import com.google.common.collect.Tables;
+
+/**
+ * Represents a registry for tracking referenced methods which holds a bounded amount of reference data in memory
+ *
+ * <p>
+ * When the estimated memory used by recorded references exceeds a budget, the references are written to a temporary
+ * file as a sorted run, and removed from memory. When references are read, all runs are merged in sorted order, with
+ * each referenced method's uses combined across runs and exclusions applied - producing the same references as an
+ * in-memory registry, while only holding a single method from each run in memory at a time
+ *
+ * <p>
+ * Exclusions and the {@link SymbolTable} of using method names are held in memory, as both are bounded by the number
+ * of classes and methods analyzed rather than by the number of references. Instances are not thread-safe, and should
+ * be closed once references have been read to remove temporary files
+ *
+ * @author romeara
+ */
+public class SpillingMethodReferenceRegistry extends MethodReferenceRegistry implements Closeable {
+
+    /**
+     * Estimated heap cost of a single recorded use, including its share of the referenced method key and table entries
+     * (an approximation - actual cost depends on how many uses each referenced method has)
+     */
+    private static final long ESTIMATED_BYTES_PER_USE = 48;
+
+    private static final String RUN_FILE_PREFIX = "method-references-";
+
+    private static final String RUN_FILE_SUFFIX = ".run";
+
+    private final long memoryBudget;
+
+    @Nullable
+    private final Path spillDirectory;
+
+    private final List<Path> runs;
+
+    private long estimatedMemory;
+
+    /**
+     * @param knownMethodOwnerExclusions
+     *            Classes known ahead of time to be defined within the analyzed project, which all references to are
+     *            ignored
+     * @param symbols
+     *            The table to record the names of methods which use references to
+     * @param memoryBudget
+     *            The approximate number of bytes of reference data to hold in memory before writing it to disk
+     * @param spillDirectory
+     *            The directory to write temporary files to. May be null to use the system default temporary directory
+     */
+    public SpillingMethodReferenceRegistry(Set<String> knownMethodOwnerExclusions, SymbolTable symbols, long memoryBudget, @Nullable Path spillDirectory) {
+        super(knownMethodOwnerExclusions, symbols);
+
+        Preconditions.checkArgument(memoryBudget > 0, "Memory budget must be a positive value (was %s)", memoryBudget);
+
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+        this.runs = new ArrayList<>();
+        this.estimatedMemory = 0;
+    }
+
+    /**
+     * Adds all references and exclusions recorded by another registry to this one
+     *
+     * <p>
+     * When the other registry is also a spilling registry sharing this registry's symbol table, its temporary files are
+     * transferred to this registry instead of being read - the other registry should not be used once merged. Its
+     * in-memory references are moved to this registry if they fit within this registry's budget, and are otherwise
+     * written to a new run first, so that merging does not hold references beyond the budget
+     *
+     * @param other
+     *            The registry to merge into this one
+     */
+    @Override
+    public void merge(MethodReferenceRegistry other) {
+        Objects.requireNonNull(other);
+
+        if (other instanceof SpillingMethodReferenceRegistry && other.getSymbolTable() == getSymbolTable()) {
+            SpillingMethodReferenceRegistry otherSpilling = (SpillingMethodReferenceRegistry) other;
+
+            // Exclusions are applied as runs are read, so runs may be combined as-is
+            for (String excludedMethodOwner : otherSpilling.getExclusions()) {
+                registerExclusion(excludedMethodOwner);
+            }
+
+            if (estimatedMemory + otherSpilling.estimatedMemory > memoryBudget) {
+                try {
+                    otherSpilling.spill();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error writing method references to disk", e);
+                }
+            }
+
+            runs.addAll(otherSpilling.runs);
+            otherSpilling.runs.clear();
+
+            for (Cell<String, RecordedMethod, MethodUseSet> reference : otherSpilling.getInMemoryReferences()) {
+                addUses(reference.getRowKey(), reference.getColumnKey(), reference.getValue(), other.getSymbolTable());
+            }
+
+            // The moved references are released, rather than held by both registries
+            otherSpilling.clearRecordedReferences();
+            otherSpilling.estimatedMemory = 0;
+        } else {
+            super.merge(other);
+        }
+    }
+
+    /**
+     * @return The number of sorted runs which have been written to disk
+     */
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * @return The estimated number of bytes of reference data currently held in memory, which is at most the memory
+     *         budget once a registration or merge completes
+     */
+    public long getEstimatedMemory() {
+        return estimatedMemory;
+    }
+
+    /**
+     * Removes any temporary files written by this registry
+     *
+     * @throws IOException
+     *             If there is an error removing a temporary file
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        runs.clear();
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void forEach(ReferenceConsumer consumer) throws IOException {
+        Objects.requireNonNull(consumer);
+
+        if (runs.isEmpty()) {
+            super.forEach(consumer);
+        } else {
+            spill();
+            mergeRuns((owner, recordedMethod, method, uses) -> consumer.accept(method, toMethodUses(uses)));
+        }
+    }
+
+    @Override
+    void addUse(String methodOwner, RecordedMethod recordedMethod, long use) {
+        super.addUse(methodOwner, recordedMethod, use);
+
+        if (!isExcluded(methodOwner)) {
+            recordUsage(ESTIMATED_BYTES_PER_USE);
+        }
+    }
+
+    @Override
+    void addUses(String methodOwner, RecordedMethod recordedMethod, MethodUseSet uses, SymbolTable usesSymbols) {
+        super.addUses(methodOwner, recordedMethod, uses, usesSymbols);
+
+        if (!isExcluded(methodOwner)) {
+            recordUsage(uses.size() * ESTIMATED_BYTES_PER_USE);
+        }
+    }
+
+    /**
+     * Reads all references, including those written to disk, into memory
+     *
+     * <p>
+     * This requires holding all references in memory at once - {@link #forEach(ReferenceConsumer)} should be preferred
+     * wherever possible
+     */
+    @Override
+    List<Cell<String, RecordedMethod, MethodUseSet>> getRecordedReferences() {
+        if (runs.isEmpty()) {
+            return super.getRecordedReferences();
+        }
+
+        List<Cell<String, RecordedMethod, MethodUseSet>> result = new ArrayList<>();
+
+        try {
+            spill();
+            mergeRuns((owner, recordedMethod, method, uses) -> result.add(Tables.immutableCell(owner, recordedMethod, uses)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading method references from disk", e);
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("memoryBudget", memoryBudget)
+                .add("spillDirectory", spillDirectory)
+                .add("runs", runs.size())
+                .toString();
+    }
+
+    /**
+     * @return The references currently held in memory, which have not yet been written to disk
+     */
+    private List<Cell<String, RecordedMethod, MethodUseSet>> getInMemoryReferences() {
+        return super.getRecordedReferences();
+    }
+
+    /**
+     * Records additional estimated memory use, writing the in-memory references to disk if the budget is exceeded
+     *
+     * @param bytes
+     *            The estimated number of bytes added
+     */
+    private void recordUsage(long bytes) {
+        estimatedMemory += bytes;
+
+        if (estimatedMemory > memoryBudget) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error writing method references to disk", e);
+            }
+        }
+    }
+
+    /**
+     * Writes all in-memory references to a new sorted run on disk, and removes them from memory
+     *
+     * @throws IOException
+     *             If there is an error writing the run
+     */
+    private void spill() throws IOException {
+        List<Map.Entry<ReferencedMethod, Cell<String, RecordedMethod, MethodUseSet>>> references = new ArrayList<>();
+
+        for (Cell<String, RecordedMethod, MethodUseSet> reference : getInMemoryReferences()) {
+            references.add(Maps.immutableEntry(decode(reference.getColumnKey()), reference));
+        }
+
+        if (!references.isEmpty()) {
+            // Runs are ordered by the decoded method, so that they may be merged in the order references are read
+            references.sort(Map.Entry.comparingByKey(REFERENCE_ORDER));
+
+            Path run = (spillDirectory != null ? Files.createTempFile(spillDirectory, RUN_FILE_PREFIX, RUN_FILE_SUFFIX)
+                    : Files.createTempFile(RUN_FILE_PREFIX, RUN_FILE_SUFFIX));
+            runs.add(run);
+
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+                for (Map.Entry<ReferencedMethod, Cell<String, RecordedMethod, MethodUseSet>> reference : references) {
+                    RunReader.write(output, reference.getValue().getColumnKey(), reference.getValue().getValue());
+                }
+
+                output.writeBoolean(false);
+            }
+
+            clearRecordedReferences();
+        }
+
+        estimatedMemory = 0;
+    }
+
+    /**
+     * Reads all runs in sorted order, combining the uses of each referenced method found in multiple runs, and skipping
+     * references to excluded owners
+     *
+     * @param consumer
+     *            The consumer to pass each referenced method to
+     * @throws IOException
+     *             If there is an error reading a run, or the consumer fails
+     */
+    private void mergeRuns(MergedReferenceConsumer consumer) throws IOException {
+        PriorityQueue<RunReader> pending = new PriorityQueue<>(Math.max(1, runs.size()), Comparator.comparing(RunReader::getMethod, REFERENCE_ORDER));
+        List<RunReader> readers = new ArrayList<>(runs.size());
+
+        try {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run, this::decode);
+                readers.add(reader);
+
+                if (reader.advance()) {
+                    pending.add(reader);
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                RunReader next = pending.poll();
+                RecordedMethod recordedMethod = next.getRecordedMethod();
+                ReferencedMethod method = next.getMethod();
+                MethodUseSet uses = new MethodUseSet();
+
+                consume(next, uses, pending);
+
+                while (!pending.isEmpty() && REFERENCE_ORDER.compare(pending.peek().getMethod(), method) == 0) {
+                    consume(pending.poll(), uses, pending);
+                }
+
+                if (!isExcluded(method.getMethodOwner())) {
+                    consumer.accept(method.getMethodOwner(), recordedMethod, method, uses);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Adds the current uses of a run to a set, and returns the run to the queue if it has further references
+     */
+    private static void consume(RunReader reader, MethodUseSet uses, PriorityQueue<RunReader> pending) throws IOException {
+        for (long use : reader.getUses()) {
+            uses.add(use);
+        }
+
+        if (reader.advance()) {
+            pending.add(reader);
+        }
+    }
+
+    /**
+     * Represents handling of a single referenced method read from disk
+     *
+     * @author romeara
+     */
+    @FunctionalInterface
+    private interface MergedReferenceConsumer {
+
+        void accept(String methodOwner, RecordedMethod recordedMethod, ReferencedMethod method, MethodUseSet uses) throws IOException;
+
+    }
+
+    /**
+     * Handles sequential reading of the referenced methods within a sorted run, and defines the run's binary format
+     *
+     * <p>
+     * Each referenced method is written as a flag indicating a record follows, the owner, name, and descriptor, followed
+     * by the count of packed uses and each packed use. The run ends with a false flag
+     *
+     * @author romeara
+     */
+    private static final class RunReader implements Closeable {
+
+        private final DataInputStream input;
+
+        private final Function<RecordedMethod, ReferencedMethod> decoder;
+
+        @Nullable
+        private RecordedMethod recordedMethod;
+
+        @Nullable
+        private ReferencedMethod method;
+
+        private long[] uses;
+
+        private RunReader(Path run, Function<RecordedMethod, ReferencedMethod> decoder) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(run)));
+            this.decoder = Objects.requireNonNull(decoder);
+            this.recordedMethod = null;
+            this.method = null;
+            this.uses = new long[0];
+        }
+
+        private static void write(DataOutputStream output, RecordedMethod recordedMethod, MethodUseSet uses) throws IOException {
+            output.writeBoolean(true);
+            output.writeUTF(recordedMethod.getMethodOwner());
+            output.writeUTF(recordedMethod.getMethodName());
+            output.writeUTF(recordedMethod.getDescriptor());
+
+            long[] packedUses = uses.toArray();
+            output.writeInt(packedUses.length);
+
+            for (long use : packedUses) {
+                output.writeLong(use);
+            }
+        }
+
+        /**
+         * @return True if a further referenced method was read, false if the end of the run was reached
+         * @throws IOException
+         *             If there is an error reading the run
+         */
+        private boolean advance() throws IOException {
+            if (!input.readBoolean()) {
+                recordedMethod = null;
+                method = null;
+                return false;
+            }
+
+            recordedMethod = new RecordedMethod(input.readUTF(), input.readUTF(), input.readUTF());
+            method = decoder.apply(recordedMethod);
+
+            uses = new long[input.readInt()];
+
+            for (int i = 0; i < uses.length; i++) {
+                uses[i] = input.readLong();
+            }
+
+            return true;
+        }
+
+        private RecordedMethod getRecordedMethod() {
+            return recordedMethod;
+        }
+
+        private ReferencedMethod getMethod() {
+            return method;
+        }
+
+        private long[] getUses() {
+            return uses;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+
+    }
+
+}
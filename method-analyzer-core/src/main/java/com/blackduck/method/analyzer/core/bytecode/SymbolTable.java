@@ -0,0 +1,107 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.bytecode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Represents a table of integer IDs assigned to the symbols (such as the names of using methods) encountered during an
+ * analysis, for compact storage of symbols which are recorded many times
+ *
+ * <p>
+ * A table is intended to be scoped to a single analysis, so that symbols are released once the analysis is complete.
+ * Instances are thread-safe, and may be shared by all workers of a parallel analysis
+ *
+ * @author romeara
+ */
+public final class SymbolTable {
+
+    private final ConcurrentMap<String, Integer> ids;
+
+    // Guarded by itself - IDs are assigned in order, as the index of the symbol within this list
+    private final List<String> symbolsById;
+
+    public SymbolTable() {
+        ids = new ConcurrentHashMap<>();
+        symbolsById = new ArrayList<>();
+    }
+
+    /**
+     * @param symbol
+     *            A symbol to find the ID of
+     * @return The non-negative ID of the symbol, assigning one if the symbol has not been previously seen
+     */
+    public int toId(String symbol) {
+        Objects.requireNonNull(symbol);
+
+        Integer id = ids.get(symbol);
+
+        if (id == null) {
+            synchronized (symbolsById) {
+                id = ids.get(symbol);
+
+                if (id == null) {
+                    id = symbolsById.size();
+                    symbolsById.add(symbol);
+                    ids.put(symbol, id);
+                }
+            }
+        }
+
+        return id;
+    }
+
+    /**
+     * @param id
+     *            An ID previously assigned by {@link #toId(String)}
+     * @return The symbol assigned the ID
+     * @throws IndexOutOfBoundsException
+     *             If the ID was not assigned by this table
+     */
+    public String fromId(int id) {
+        synchronized (symbolsById) {
+            return symbolsById.get(id);
+        }
+    }
+
+    /**
+     * @return The number of distinct symbols recorded in this table
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("size", size())
+                .toString();
+    }
+
+}
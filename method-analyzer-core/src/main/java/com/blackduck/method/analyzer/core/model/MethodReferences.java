@@ -0,0 +1,92 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.model;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import com.google.common.collect.Multimap;
+
+/**
+ * Represents read access to the methods referenced within an analyzed project, and the locations each is used from
+ *
+ * <p>
+ * Unlike a {@link Multimap} of the same information, implementations are not required to hold all {@link MethodUse}
+ * instances in memory at once - uses may be created as each referenced method is visited, and released once the
+ * consumer is done with them
+ *
+ * @author romeara
+ */
+public interface MethodReferences {
+
+    /**
+     * @param references
+     *            A mapping of referenced methods to one or more locations use was detected in
+     * @return A view of the provided mapping, visited in the mapping's iteration order
+     */
+    static MethodReferences of(Multimap<ReferencedMethod, MethodUse> references) {
+        Objects.requireNonNull(references);
+
+        return consumer -> {
+            Objects.requireNonNull(consumer);
+
+            for (Entry<ReferencedMethod, Collection<MethodUse>> entry : references.asMap().entrySet()) {
+                consumer.accept(entry.getKey(), entry.getValue());
+            }
+        };
+    }
+
+    /**
+     * Passes each referenced method, with all locations it is used from, to a consumer
+     *
+     * @param consumer
+     *            The consumer to pass references to. Collections of uses passed to the consumer are not retained by
+     *            the implementation, and should not be modified
+     * @throws IOException
+     *             If the consumer fails to process a reference
+     */
+    void forEach(ReferenceConsumer consumer) throws IOException;
+
+    /**
+     * Represents handling of a single referenced method and the locations it is used from
+     *
+     * @author romeara
+     */
+    @FunctionalInterface
+    interface ReferenceConsumer {
+
+        /**
+         * @param method
+         *            The method which was referenced
+         * @param uses
+         *            One or more locations the method was used from
+         * @throws IOException
+         *             If there is an error processing the reference
+         */
+        void accept(ReferencedMethod method, Collection<MethodUse> uses) throws IOException;
+
+    }
+
+}
@@ -44,13 +44,17 @@ public class ReferencedMethod {
 
     private final String output;
 
+    // Instances are used as map keys throughout analysis, so the hash is computed once rather than on each lookup
+    private final int hashCode;
+
     /**
      * @param methodOwner
      *            The class the method is defined in
      * @param methodName
      *            The name of the method
      * @param inputs
-     *            An order list of the classes which comprise the parameters of the method
+     *            An order list of the classes which comprise the parameters of the method. Held as provided, so must not
+     *            be modified once the method is created
      * @param output
      *            The class the method returns, or "void"
      */
@@ -59,6 +63,11 @@ public class ReferencedMethod {
         this.methodName = Objects.requireNonNull(methodName);
         this.inputs = Objects.requireNonNull(inputs);
         this.output = Objects.requireNonNull(output);
+
+        this.hashCode = Objects.hash(methodOwner,
+                methodName,
+                inputs,
+                output);
     }
 
     public String getMethodOwner() {
@@ -79,10 +88,7 @@ public class ReferencedMethod {
 
     @Override
     public int hashCode() {
-        return Objects.hash(getMethodOwner(),
-                getMethodName(),
-                getInputs(),
-                getOutput());
+        return hashCode;
     }
 
     @Override
@@ -92,7 +98,8 @@ public class ReferencedMethod {
         if (obj instanceof ReferencedMethod) {
             ReferencedMethod compare = (ReferencedMethod) obj;
 
-            result = Objects.equals(compare.getMethodOwner(), getMethodOwner())
+            result = compare.hashCode == hashCode
+                    && Objects.equals(compare.getMethodOwner(), getMethodOwner())
                     && Objects.equals(compare.getMethodName(), getMethodName())
                     && Objects.equals(compare.getInputs(), getInputs())
                     && Objects.equals(compare.getOutput(), getOutput());
@@ -46,10 +46,18 @@ public class MetaDataReportJson {
     @Nullable
     private final String codeLocationName;
 
+    @Nullable
+    private final String parseMode;
+
     public MetaDataReportJson(String hostName, String analyzedDirectory, @Nullable String codeLocationName) {
+        this(hostName, analyzedDirectory, codeLocationName, null);
+    }
+
+    public MetaDataReportJson(String hostName, String analyzedDirectory, @Nullable String codeLocationName, @Nullable String parseMode) {
         this.hostName = Objects.requireNonNull(hostName);
         this.analyzedDirectory = Objects.requireNonNull(analyzedDirectory);
         this.codeLocationName = codeLocationName;
+        this.parseMode = parseMode;
     }
 
     public String getHostName() {
@@ -65,11 +73,17 @@ public class MetaDataReportJson {
         return codeLocationName;
     }
 
+    @Nullable
+    public String getParseMode() {
+        return parseMode;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(getHostName(),
                 getAnalyzedDirectory(),
-                getCodeLocationName());
+                getCodeLocationName(),
+                getParseMode());
     }
 
     @Override
@@ -81,7 +95,8 @@ public class MetaDataReportJson {
 
             result = Objects.equals(compare.getHostName(), getHostName())
                     && Objects.equals(compare.getAnalyzedDirectory(), getAnalyzedDirectory())
-                    && Objects.equals(compare.getCodeLocationName(), getCodeLocationName());
+                    && Objects.equals(compare.getCodeLocationName(), getCodeLocationName())
+                    && Objects.equals(compare.getParseMode(), getParseMode());
         }
 
         return result;
@@ -93,6 +108,7 @@ public class MetaDataReportJson {
                 .add("hostName", getHostName())
                 .add("analyzedDirectory", getAnalyzedDirectory())
                 .add("codeLocationName", getCodeLocationName())
+                .add("parseMode", getParseMode())
                 .toString();
     }
 
@@ -0,0 +1,350 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.report;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.blackduck.method.analyzer.core.model.ReferencedMethod;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Represents generation of the opaque identifiers used to describe referenced methods within a report
+ *
+ * <p>
+ * Method owners, names, inputs, and outputs repeat heavily between referenced methods, so the identifier of each is
+ * memoized once generated. Only the identifier of each full method signature, which is unique per method, is always
+ * generated. Generation may be performed by multiple threads at once, each of which re-uses its own digest
+ *
+ * <p>
+ * Memoized identifiers may optionally be stored in a file, so that repeated report generation for a project does not
+ * re-generate identifiers for values seen previously. When stored, only identifiers used by the most recent report are
+ * retained
+ *
+ * @author romeara
+ */
+public class MethodIdGenerator {
+
+    private static final int FORMAT_MAGIC = 0x42444d49;
+
+    // Increment whenever the stored format, or the identifier algorithm, is altered
+    private static final int FORMAT_VERSION = 1;
+
+    // Stored values are written in modified UTF-8, which is limited to 65535 bytes - this leaves room for any character
+    // to require three bytes
+    private static final int MAX_STORED_VALUE_LENGTH = 65535 / 3;
+
+    // Magic number, version, and identifier count
+    private static final int HEADER_BYTES = Integer.BYTES * 3;
+
+    // Each identifier is stored as two values, each of at least their length
+    private static final int MIN_ENTRY_BYTES = Short.BYTES * 2;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(MethodIdGenerator::createDigest);
+
+    /** Logger reference to output information to the application log files */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Nullable
+    private final Path memoFile;
+
+    // Identifiers memoized from a previous report. Only modified while loading
+    private Map<String, String> loadedIds;
+
+    // Identifiers used by the current report, which will be retained when saved
+    private final Map<String, String> currentIds;
+
+    private final AtomicLong generatedCount;
+
+    public MethodIdGenerator() {
+        this(null);
+    }
+
+    /**
+     * @param memoFile
+     *            The file to load previously generated identifiers from, and store identifiers to. May be null to only
+     *            memoize identifiers in memory
+     */
+    public MethodIdGenerator(@Nullable Path memoFile) {
+        this.memoFile = memoFile;
+        this.loadedIds = new ConcurrentHashMap<>();
+        this.currentIds = new ConcurrentHashMap<>();
+        this.generatedCount = new AtomicLong();
+    }
+
+    /**
+     * @return The number of owner, name, input, and output identifiers generated by hashing since the last load, rather
+     *         than re-used from memoized identifiers
+     */
+    public long getGeneratedCount() {
+        return generatedCount.get();
+    }
+
+    /**
+     * @param method
+     *            The method to identify
+     * @return Unique, opaque identifiers of the method and its components
+     */
+    public MethodIdJson generate(ReferencedMethod method) {
+        Objects.requireNonNull(method);
+
+        String inputs = toInputsString(method.getInputs());
+
+        return new MethodIdJson(getSignatureId(method, inputs),
+                getComponentId(method.getMethodOwner()),
+                getComponentId(method.getMethodName()),
+                getComponentId(inputs),
+                getComponentId(method.getOutput()));
+    }
+
+    /**
+     * Loads identifiers stored by a previous report, and resets statistics. Does nothing if no memo file was provided
+     *
+     * <p>
+     * If the stored identifiers are missing, were written in an incompatible format, or cannot be read, generation
+     * proceeds without them. An unreadable memo file is removed, and replaced when identifiers are next saved
+     *
+     * @throws IOException
+     *             If an unreadable memo file could not be removed
+     */
+    public synchronized void load() throws IOException {
+        generatedCount.set(0);
+        currentIds.clear();
+        loadedIds = new ConcurrentHashMap<>();
+
+        if (memoFile != null && Files.isRegularFile(memoFile)) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(memoFile)))) {
+                long maximumCount = (Files.size(memoFile) - HEADER_BYTES) / MIN_ENTRY_BYTES;
+
+                if (input.readInt() == FORMAT_MAGIC && input.readInt() == FORMAT_VERSION) {
+                    int count = input.readInt();
+
+                    // A damaged count is detected before it is used to size the identifier table
+                    if (count < 0 || count > maximumCount) {
+                        throw new IOException("Invalid method ID count (" + count + ")");
+                    }
+
+                    Map<String, String> ids = new ConcurrentHashMap<>(count);
+
+                    for (int i = 0; i < count; i++) {
+                        ids.put(input.readUTF(), input.readUTF());
+                    }
+
+                    loadedIds = ids;
+                } else {
+                    logger.info("Ignoring method ID memo in unsupported format: {}", memoFile);
+                }
+            } catch (IOException | RuntimeException e) {
+                // A truncated or otherwise damaged memo should not stop report generation - it is regenerated instead
+                logger.warn("Discarding unreadable method ID memo: {}", memoFile, e);
+
+                Files.deleteIfExists(memoFile);
+            }
+        }
+    }
+
+    /**
+     * Writes all identifiers used since the last load to the memo file, replacing any previously stored identifiers.
+     * Does nothing if no memo file was provided
+     *
+     * <p>
+     * Identifiers are written to a uniquely named temporary file alongside the memo file, so that generators sharing a
+     * memo file do not write to the same temporary file
+     *
+     * @throws IOException
+     *             If there is an error writing the identifiers
+     */
+    public synchronized void save() throws IOException {
+        if (memoFile != null) {
+            Path directory = memoFile.toAbsolutePath().getParent();
+
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+
+            List<Entry<String, String>> ids = new ArrayList<>();
+
+            for (Entry<String, String> id : currentIds.entrySet()) {
+                if (id.getKey().length() <= MAX_STORED_VALUE_LENGTH) {
+                    ids.add(id);
+                }
+            }
+
+            Path temporaryFile = Files.createTempFile(directory, memoFile.getFileName().toString(), ".tmp");
+
+            try {
+                write(temporaryFile, ids);
+
+                try {
+                    Files.move(temporaryFile, memoFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporaryFile, memoFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+
+            logger.debug("Stored {} method IDs, {} generated", ids.size(), getGeneratedCount());
+        }
+    }
+
+    private static void write(Path file, List<Entry<String, String>> ids) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(FORMAT_MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(ids.size());
+
+            for (Entry<String, String> id : ids) {
+                output.writeUTF(id.getKey());
+                output.writeUTF(id.getValue());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("memoFile", memoFile)
+                .add("generatedCount", getGeneratedCount())
+                .toString();
+    }
+
+    /**
+     * @param inputs
+     *            The parameter types of a method
+     * @return The form of the parameter types used to generate identifiers
+     */
+    static String toInputsString(List<String> inputs) {
+        StringBuilder result = new StringBuilder();
+
+        for (int i = 0; i < inputs.size(); i++) {
+            if (i > 0) {
+                result.append(',');
+            }
+
+            result.append(inputs.get(i).trim());
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * @param method
+     *            The method to describe
+     * @param inputs
+     *            The method's parameter types, as generated by {@link #toInputsString(List)}
+     * @return The full signature of the method used to generate identifiers
+     */
+    static String toSignature(ReferencedMethod method, String inputs) {
+        return new StringBuilder()
+                .append(method.getMethodOwner().trim()).append('.').append(method.getMethodName().trim())
+                .append('(').append(inputs).append(')')
+                .append(':').append(method.getOutput().trim())
+                .toString();
+    }
+
+    /**
+     * Generates a unique, opaque ID for a given value
+     *
+     * <p>
+     * This generated ID is matched with algorithms on the KnowledgeBase cloud service - do NOT alter this generation
+     * without involving the KnowledgeBase team and versioning the report format
+     *
+     * @param value
+     *            The value to identify
+     * @return An unique, opaque ID
+     */
+    static String generateId(String value) {
+        Objects.requireNonNull(value);
+
+        byte[] sha256 = SHA_256.get().digest(value.getBytes(StandardCharsets.UTF_8));
+
+        return Base64.getEncoder().encodeToString(sha256);
+    }
+
+    /**
+     * @param method
+     *            The method to identify
+     * @param inputs
+     *            The method's parameter types, as generated by {@link #toInputsString(List)}
+     * @return The identifier of the method's full signature
+     */
+    String getSignatureId(ReferencedMethod method, String inputs) {
+        return generateId(toSignature(method, inputs));
+    }
+
+    /**
+     * @param value
+     *            A method owner, name, parameter types (as generated by {@link #toInputsString(List)}), or return type
+     * @return The identifier of the value, re-used from the memoized identifiers if available
+     */
+    String getComponentId(String value) {
+        String id = currentIds.get(value);
+
+        if (id == null) {
+            id = loadedIds.get(value);
+
+            if (id == null) {
+                id = generateId(value);
+                generatedCount.incrementAndGet();
+            }
+
+            currentIds.put(value, id);
+        }
+
+        return id;
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // All Java platform implementations are required to support SHA-256
+            throw new IllegalStateException("SHA-256 is not supported by this platform", e);
+        }
+    }
+
+}
@@ -22,17 +22,12 @@
  */
 package com.blackduck.method.analyzer.core.report;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
 import com.blackduck.method.analyzer.core.model.ReferencedMethod;
 import com.google.common.base.MoreObjects;
-import com.google.common.hash.HashCode;
-import com.google.common.hash.Hashing;
 
 /**
  * Represents JSON data for a opaque identifiers of a method referenced within an analyzed project
@@ -58,21 +53,33 @@ public class MethodIdJson {
     public MethodIdJson(ReferencedMethod method) {
         Objects.requireNonNull(method);
 
-        String inputsString = method.getInputs().stream()
-                .map(String::trim)
-                .collect(Collectors.joining(","));
+        String inputsString = MethodIdGenerator.toInputsString(method.getInputs());
 
-        String signature = new StringBuilder()
-                .append(method.getMethodOwner().trim()).append('.').append(method.getMethodName().trim())
-                .append('(').append(inputsString).append(')')
-                .append(':').append(method.getOutput().trim())
-                .toString();
+        this.signature = MethodIdGenerator.generateId(MethodIdGenerator.toSignature(method, inputsString));
+        methodOwner = MethodIdGenerator.generateId(method.getMethodOwner());
+        methodName = MethodIdGenerator.generateId(method.getMethodName());
+        inputs = MethodIdGenerator.generateId(inputsString);
+        outputs = MethodIdGenerator.generateId(method.getOutput());
+    }
 
-        this.signature = generateId(signature);
-        methodOwner = generateId(method.getMethodOwner());
-        methodName = generateId(method.getMethodName());
-        inputs = generateId(inputsString);
-        outputs = generateId(method.getOutput());
+    /**
+     * @param signature
+     *            The identifier of the method's full signature
+     * @param methodOwner
+     *            The identifier of the class the method is defined in
+     * @param methodName
+     *            The identifier of the method's name
+     * @param inputs
+     *            The identifier of the method's parameter types
+     * @param outputs
+     *            The identifier of the method's return type
+     */
+    MethodIdJson(String signature, String methodOwner, String methodName, String inputs, String outputs) {
+        this.signature = Objects.requireNonNull(signature);
+        this.methodOwner = Objects.requireNonNull(methodOwner);
+        this.methodName = Objects.requireNonNull(methodName);
+        this.inputs = Objects.requireNonNull(inputs);
+        this.outputs = Objects.requireNonNull(outputs);
     }
 
     public String getSignature() {
@@ -95,26 +102,6 @@ public class MethodIdJson {
         return outputs;
     }
 
-    /**
-     * Generates a unique, opaque ID for a given referenced method
-     *
-     * <p>
-     * This generated ID is matched with algorithms on the KnowledgeBase cloud service - do NOT alter this generation
-     * without involving the KnowledgeBase team and versioning the report format
-     *
-     * @param method
-     *            The method to identify
-     * @return An unique, opaque ID
-     */
-    private String generateId(String signature) {
-        Objects.requireNonNull(signature);
-
-        HashCode sha256 = Hashing.sha256()
-                .hashString(signature, StandardCharsets.UTF_8);
-
-        return Base64.getEncoder().encodeToString(sha256.asBytes());
-    }
-
     @Override
     public int hashCode() {
         return Objects.hash(getSignature(),
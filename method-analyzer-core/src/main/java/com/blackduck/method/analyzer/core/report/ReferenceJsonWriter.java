@@ -0,0 +1,152 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.report;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.blackduck.method.analyzer.core.model.MethodUse;
+import com.blackduck.method.analyzer.core.model.ReferencedMethod;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Handles writing the method ID and method use report files directly from referenced methods, without creating the
+ * intermediate JSON model objects
+ *
+ * <p>
+ * The JSON written is identical to serializing {@link MethodIdsReportJson} and {@link MethodReferencesReportJson} -
+ * property names here must be kept in sync with the field names of those models and the models they contain
+ *
+ * @author romeara
+ */
+final class ReferenceJsonWriter {
+
+    private ReferenceJsonWriter() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Writes the content of a method ID report file, as described by {@link MethodIdsReportJson}
+     *
+     * @param writer
+     *            The writer to output JSON to
+     * @param methods
+     *            The methods to identify
+     * @param idGenerator
+     *            The generator to create method identifiers with
+     * @param signatureIds
+     *            Populated with the signature identifier of each method, in the same order as the methods
+     * @throws IOException
+     *             If there is an error writing the JSON
+     */
+    static void writeMethodIds(JsonWriter writer, List<ReferencedMethod> methods, MethodIdGenerator idGenerator, String[] signatureIds) throws IOException {
+        writer.beginObject();
+        writer.name("methodIds");
+        writer.beginArray();
+
+        for (int i = 0; i < methods.size(); i++) {
+            ReferencedMethod method = methods.get(i);
+            String inputs = MethodIdGenerator.toInputsString(method.getInputs());
+
+            signatureIds[i] = idGenerator.getSignatureId(method, inputs);
+
+            writer.beginObject();
+            writer.name("signature").value(signatureIds[i]);
+            writer.name("methodOwner").value(idGenerator.getComponentId(method.getMethodOwner()));
+            writer.name("methodName").value(idGenerator.getComponentId(method.getMethodName()));
+            writer.name("inputs").value(idGenerator.getComponentId(inputs));
+            writer.name("outputs").value(idGenerator.getComponentId(method.getOutput()));
+            writer.endObject();
+        }
+
+        writer.endArray();
+        writer.endObject();
+    }
+
+    /**
+     * Writes the content of a method use report file, as described by {@link MethodReferencesReportJson}
+     *
+     * @param writer
+     *            The writer to output JSON to
+     * @param methods
+     *            The methods to describe the uses of
+     * @param methodUses
+     *            The uses of each method, in the same order as the methods
+     * @param signatureIds
+     *            The signature identifier of each method, in the same order as the methods
+     * @throws IOException
+     *             If there is an error writing the JSON
+     */
+    static void writeMethodUses(JsonWriter writer, List<ReferencedMethod> methods, List<Collection<MethodUse>> methodUses, String[] signatureIds) throws IOException {
+        writer.beginObject();
+        writer.name("methodUses");
+        writer.beginArray();
+
+        for (int i = 0; i < methods.size(); i++) {
+            ReferencedMethod method = methods.get(i);
+
+            writer.beginObject();
+            writer.name("method");
+            writer.beginObject();
+            writer.name("id").value(signatureIds[i]);
+            writer.name("methodOwner").value(method.getMethodOwner());
+            writer.name("methodName").value(method.getMethodName());
+            writer.name("inputs");
+            writer.beginArray();
+
+            for (String input : method.getInputs()) {
+                writer.value(input);
+            }
+
+            writer.endArray();
+            writer.name("output").value(method.getOutput());
+            writer.endObject();
+
+            writer.name("uses");
+            writer.beginArray();
+
+            for (MethodUse use : methodUses.get(i)) {
+                writer.beginObject();
+                writer.name("qualifiedMethodName").value(use.getQualifiedMethodName());
+
+                // Absent line numbers are omitted, matching the default handling of null values during serialization
+                Optional<Integer> lineNumber = use.getLineNumber();
+
+                if (lineNumber.isPresent()) {
+                    writer.name("lineNumber").value(lineNumber.get());
+                }
+
+                writer.endObject();
+            }
+
+            writer.endArray();
+            writer.endObject();
+        }
+
+        writer.endArray();
+        writer.endObject();
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.report;
+
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteSource;
+
+/**
+ * Represents a single completed report file, as provided to a {@link ReportChunkConsumer}
+ *
+ * <p>
+ * Each chunk corresponds to one file within a report archive. Its content is the UTF-8 encoded JSON of the file, in
+ * the format documented for that file's type
+ *
+ * @author romeara
+ */
+public final class ReportChunk {
+
+    /**
+     * Represents the types of file which make up a report
+     *
+     * @author romeara
+     */
+    public enum Type {
+
+        /**
+         * Information about the report and the analysis which produced it, as described by {@link MetaDataReportJson}.
+         * Each report contains exactly one meta-data file
+         */
+        META_DATA,
+
+        /**
+         * Identifiers of a partition of the referenced methods, as described by {@link MethodIdsReportJson}
+         */
+        METHOD_IDS,
+
+        /**
+         * Uses of the same partition of referenced methods as the method ID file with the same index, as described by
+         * {@link MethodReferencesReportJson}
+         */
+        METHOD_USES,
+
+        /**
+         * A partition of the files which could not be analyzed, as described by {@link BrokenFilesReportJson}
+         */
+        BROKEN_FILES;
+
+    }
+
+    private final Type type;
+
+    private final int index;
+
+    private final String path;
+
+    private final byte[] content;
+
+    /**
+     * @param type
+     *            The type of report file the chunk contains
+     * @param index
+     *            The index of the chunk within the report files of the same type
+     * @param path
+     *            The relative path of the report file within a report archive
+     * @param content
+     *            The UTF-8 encoded JSON content of the report file. Not copied, so must not be modified once provided
+     */
+    ReportChunk(Type type, int index, String path, byte[] content) {
+        Preconditions.checkArgument(index >= 0, "Index must be non-negative (was %s)", index);
+
+        this.type = Objects.requireNonNull(type);
+        this.index = index;
+        this.path = Objects.requireNonNull(path);
+        this.content = Objects.requireNonNull(content);
+    }
+
+    /**
+     * @return The type of report file the chunk contains
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The index of the chunk within the report files of the same type. Method ID and method use chunks with the
+     *         same index describe the same methods
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The relative path the report file has within a report archive, such as
+     *         {@code referenced-methods/referenced-methods-0.json}
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return The UTF-8 encoded JSON content of the report file
+     */
+    public ByteSource getContent() {
+        return ByteSource.wrap(content);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("type", getType())
+                .add("index", getIndex())
+                .add("path", getPath())
+                .add("size", content.length)
+                .toString();
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.report;
+
+import java.io.IOException;
+
+/**
+ * Represents a destination for the files of a report, which receives each file as soon as it is complete instead of
+ * once the full report archive has been written
+ *
+ * <p>
+ * Chunks are provided on the thread generating the report, in the order they would appear within a report archive -
+ * the meta-data file, then each pair of method ID and method use files, then any broken file report files. Consumers
+ * which perform slow operations, such as uploads, may hand chunks off to other threads to allow report generation to
+ * continue
+ *
+ * @author romeara
+ */
+@FunctionalInterface
+public interface ReportChunkConsumer {
+
+    /**
+     * @param chunk
+     *            A completed report file
+     * @throws IOException
+     *             If there is an error handling the chunk. Stops generation of the report
+     */
+    void accept(ReportChunk chunk) throws IOException;
+
+}
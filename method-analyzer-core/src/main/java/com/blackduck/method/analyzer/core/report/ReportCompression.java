@@ -0,0 +1,136 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.report;
+
+import java.util.OptionalInt;
+import java.util.zip.Deflater;
+
+/**
+ * Represents the compression applied to the entries of a report archive, trading report size against the time taken to
+ * write the report
+ *
+ * @author romeara
+ */
+public enum ReportCompression {
+
+    /**
+     * Entries are stored without compression, for the fastest writing at the largest size
+     */
+    STORED {
+        @Override
+        OptionalInt getDeflateLevel(int size) {
+            return OptionalInt.empty();
+        }
+
+        @Override
+        int getUniformSize() {
+            return 0;
+        }
+    },
+
+    /**
+     * Entries are deflated at the fastest compression level
+     */
+    FAST {
+        @Override
+        OptionalInt getDeflateLevel(int size) {
+            return OptionalInt.of(Deflater.BEST_SPEED);
+        }
+
+        @Override
+        int getUniformSize() {
+            return 0;
+        }
+    },
+
+    /**
+     * Entries are deflated at the default compression level (the default)
+     */
+    DEFAULT {
+        @Override
+        OptionalInt getDeflateLevel(int size) {
+            return OptionalInt.of(Deflater.DEFAULT_COMPRESSION);
+        }
+
+        @Override
+        int getUniformSize() {
+            return 0;
+        }
+    },
+
+    /**
+     * Entries are deflated at the maximum compression level, for the smallest size at the slowest writing
+     */
+    MAXIMUM {
+        @Override
+        OptionalInt getDeflateLevel(int size) {
+            return OptionalInt.of(Deflater.BEST_COMPRESSION);
+        }
+
+        @Override
+        int getUniformSize() {
+            return 0;
+        }
+    },
+
+    /**
+     * Compression is selected per entry based on its size. Entries smaller than 1 KB, where compression saves little,
+     * are stored. Entries of 256 KB or larger, which account for most of the time spent compressing, are deflated at the
+     * fastest level. Other entries are deflated at the default level
+     */
+    ADAPTIVE {
+        @Override
+        OptionalInt getDeflateLevel(int size) {
+            if (size < ADAPTIVE_STORED_LIMIT) {
+                return OptionalInt.empty();
+            } else if (size >= ADAPTIVE_FAST_THRESHOLD) {
+                return OptionalInt.of(Deflater.BEST_SPEED);
+            }
+
+            return OptionalInt.of(Deflater.DEFAULT_COMPRESSION);
+        }
+
+        @Override
+        int getUniformSize() {
+            return ADAPTIVE_FAST_THRESHOLD;
+        }
+    };
+
+    private static final int ADAPTIVE_STORED_LIMIT = 1024;
+
+    private static final int ADAPTIVE_FAST_THRESHOLD = 256 * 1024;
+
+    /**
+     * @param size
+     *            The uncompressed size of an entry
+     * @return The level to deflate the entry at, or empty if the entry should be stored without compression
+     */
+    abstract OptionalInt getDeflateLevel(int size);
+
+    /**
+     * @return The entry size from which all larger entries are compressed alike, so the compression of an entry may be
+     *         selected once this much of its content is known
+     */
+    abstract int getUniformSize();
+
+}
@@ -22,38 +22,59 @@
  */
 package com.blackduck.method.analyzer.core.report;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import javax.annotation.Nullable;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.blackduck.method.analyzer.core.model.MethodReferences;
+import com.blackduck.method.analyzer.core.model.MethodReferences.ReferenceConsumer;
 import com.blackduck.method.analyzer.core.model.MethodUse;
 import com.blackduck.method.analyzer.core.model.ReferencedMethod;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Represents functionality for converting in-memory representations of method references to a stored file
@@ -65,6 +86,8 @@ public class ReportGenerator {
 
     private static final String EXTENSION = ".bdmu";
 
+    private static final String META_DATA_FILE_NAME = "metaData.json";
+
     private static final String REFERENCE_METHOD_LABEL = "referenced-methods";
 
     private static final String REFERENCE_METHOD_USE_LABEL = "referenced-method-uses";
@@ -79,13 +102,23 @@ public class ReportGenerator {
 
     private static final int BROKEN_FILE_MAX_CHUNK_SIZE = 1000;
 
-    private static final Gson GSON = new Gson();
+    // Initial size of the buffers report files are serialized to before compression
+    private static final int CONTENT_BUFFER_SIZE = 64 * 1024;
+
+    // Buffers are re-used for the files of a single report, unless grown beyond this size by an unusually large file
+    private static final int CONTENT_BUFFER_MAX_RETAINED_SIZE = 1024 * 1024;
+
+    // HTML escaping is unnecessary, as reports are not embedded in HTML, and would otherwise escape common method names
+    // such as "<init>"
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
 
     /** Logger reference to output information to the application log files */
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final MetaDataReportJson metaDataReport;
 
+    private final ReportOptions options;
+
     /**
      * @param hostName
      *            The name of the host the analysis was performed on. Used in report meta-data
@@ -95,7 +128,39 @@ public class ReportGenerator {
      *            A name to associate with the analyzed source. May be null. Used in report meta-data
      */
     public ReportGenerator(String hostName, String analyzedDirectory, @Nullable String codeLocationName) {
-        this.metaDataReport = new MetaDataReportJson(hostName, analyzedDirectory, codeLocationName);
+        this(hostName, analyzedDirectory, codeLocationName, ReportOptions.defaults());
+    }
+
+    /**
+     * @param hostName
+     *            The name of the host the analysis was performed on. Used in report meta-data
+     * @param analyzedDirectory
+     *            The directory which was analyzed. Used in report meta-data
+     * @param codeLocationName
+     *            A name to associate with the analyzed source. May be null. Used in report meta-data
+     * @param options
+     *            Configuration controlling how reports are written
+     */
+    public ReportGenerator(String hostName, String analyzedDirectory, @Nullable String codeLocationName, ReportOptions options) {
+        this(hostName, analyzedDirectory, codeLocationName, null, options);
+    }
+
+    /**
+     * @param hostName
+     *            The name of the host the analysis was performed on. Used in report meta-data
+     * @param analyzedDirectory
+     *            The directory which was analyzed. Used in report meta-data
+     * @param codeLocationName
+     *            A name to associate with the analyzed source. May be null. Used in report meta-data
+     * @param parseMode
+     *            The name of the parse mode the analysis was performed with, which determines the form of the uses
+     *            recorded. May be null if not known. Used in report meta-data
+     * @param options
+     *            Configuration controlling how reports are written
+     */
+    public ReportGenerator(String hostName, String analyzedDirectory, @Nullable String codeLocationName, @Nullable String parseMode, ReportOptions options) {
+        this.metaDataReport = new MetaDataReportJson(hostName, analyzedDirectory, codeLocationName, parseMode);
+        this.options = Objects.requireNonNull(options);
     }
 
     /**
@@ -136,152 +201,884 @@ public class ReportGenerator {
     public Path generateReport(Multimap<ReferencedMethod, MethodUse> references, Map<Path, String> brokenFiles, Path outputDirectory, String outputFileName)
             throws IOException {
         Objects.requireNonNull(references);
+
+        Objects.requireNonNull(brokenFiles);
+
+        Map<String, String> brokenLocations = brokenFiles.entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().toString(), Map.Entry::getValue));
+
+        return generateReport(MethodReferences.of(references), brokenLocations, outputDirectory, outputFileName);
+    }
+
+    /**
+     * Generates a report of the provided method references within a project
+     *
+     * <p>
+     * References are read once, and written to the report as they are read - only a single chunk of report content is
+     * held in memory at a time
+     *
+     * @param references
+     *            The references to describe in a report
+     * @param brokenFiles
+     *            Locations of any classes for which analysis was attempted, by failed due to parser incompatibly of broken
+     *            file formatting (mapped to a message indicating the specific error)
+     * @param outputDirectory
+     *            The directory to output the report to
+     * @param outputFileName
+     *            The file name to use for the report (without extension)
+     * @return The path of the generated report on the file system
+     * @throws IOException
+     *             If there is an error writing the report to the file system
+     */
+    public Path generateReport(MethodReferences references, Map<String, String> brokenFiles, Path outputDirectory, String outputFileName) throws IOException {
+        Objects.requireNonNull(references);
         Objects.requireNonNull(brokenFiles);
         Objects.requireNonNull(outputDirectory);
         Objects.requireNonNull(outputFileName);
 
         Path destinationFile = outputDirectory.resolve(outputFileName + EXTENSION);
-        List<MethodIdJson> uniqueMethodKeys = new LinkedList<>();
-        List<ReferencedMethodUsesJson> methodUses = new LinkedList<>();
 
-        for (Entry<ReferencedMethod, Collection<MethodUse>> entry : references.asMap().entrySet()) {
-            // Generation unique, opaque ID to match method uses against
-            MethodIdJson id = new MethodIdJson(entry.getKey());
+        try (OutputStream outputStream = Files.newOutputStream(destinationFile)) {
+            writeReport(newArchiveOutput(outputStream), references, brokenFiles);
+        }
 
-            // Add to segmented method use files
-            uniqueMethodKeys.add(id);
+        return destinationFile;
+    }
 
-            // Add to referenced uses file
-            methodUses.add(new ReferencedMethodUsesJson(id.getSignature(), entry.getKey(), entry.getValue()));
-        }
+    /**
+     * Generates a report of the provided method references within a project, writing the report archive directly to a
+     * stream
+     *
+     * <p>
+     * This allows a report to be sent to its destination, such as an upload, without first being saved to the file
+     * system. References are read once, and written to the report as they are read - only a single chunk of report
+     * content is held in memory at a time
+     *
+     * @param references
+     *            The references to describe in a report
+     * @param brokenFiles
+     *            Locations of any classes for which analysis was attempted, by failed due to parser incompatibly of broken
+     *            file formatting (mapped to a message indicating the specific error)
+     * @param outputStream
+     *            The stream to write the report archive to. Flushed, but not closed, by this method
+     * @throws IOException
+     *             If there is an error writing the report to the stream
+     */
+    public void generateReport(MethodReferences references, Map<String, String> brokenFiles, OutputStream outputStream) throws IOException {
+        Objects.requireNonNull(references);
+        Objects.requireNonNull(brokenFiles);
+        Objects.requireNonNull(outputStream);
 
-        List<BrokenFileJson> brokenFileRecords = brokenFiles.entrySet().stream()
-                .map(entry -> new BrokenFileJson(entry.getKey().toString(), entry.getValue()))
-                .collect(Collectors.toList());
+        writeReport(newArchiveOutput(outputStream), references, brokenFiles);
+    }
+
+    /**
+     * Generates a report of the provided method references within a project, writing the report archive directly to a
+     * channel
+     *
+     * <p>
+     * This allows a report to be sent to its destination, such as an upload, without first being saved to the file
+     * system. References are read once, and written to the report as they are read - only a single chunk of report
+     * content is held in memory at a time
+     *
+     * @param references
+     *            The references to describe in a report
+     * @param brokenFiles
+     *            Locations of any classes for which analysis was attempted, by failed due to parser incompatibly of broken
+     *            file formatting (mapped to a message indicating the specific error)
+     * @param outputChannel
+     *            The channel to write the report archive to. Not closed by this method
+     * @throws IOException
+     *             If there is an error writing the report to the channel
+     */
+    public void generateReport(MethodReferences references, Map<String, String> brokenFiles, WritableByteChannel outputChannel) throws IOException {
+        Objects.requireNonNull(outputChannel);
+
+        // The adapting stream is intentionally not closed, as that would close the channel
+        generateReport(references, brokenFiles, Channels.newOutputStream(outputChannel));
+    }
+
+    /**
+     * Generates a report of the provided method references within a project, passing each file of the report to a
+     * consumer as soon as it is complete
+     *
+     * <p>
+     * This allows report files to be sent to their destination, such as an upload, while the remainder of the report is
+     * generated. Files are provided as uncompressed JSON, and no report archive is written
+     *
+     * @param references
+     *            The references to describe in a report
+     * @param brokenFiles
+     *            Locations of any classes for which analysis was attempted, by failed due to parser incompatibly of broken
+     *            file formatting (mapped to a message indicating the specific error)
+     * @param consumer
+     *            The consumer to pass each completed report file to
+     * @throws IOException
+     *             If there is an error generating the report, or the consumer fails to handle a report file
+     */
+    public void generateReport(MethodReferences references, Map<String, String> brokenFiles, ReportChunkConsumer consumer) throws IOException {
+        Objects.requireNonNull(references);
+        Objects.requireNonNull(brokenFiles);
+        Objects.requireNonNull(consumer);
+
+        writeReport(new ConsumerOutput(consumer), references, brokenFiles);
+    }
+
+    /**
+     * @param destination
+     *            The stream to write a report archive to. Flushed, but not closed, once the report is complete
+     * @return An output which writes report files as compressed entries of an archive
+     */
+    private ReportOutput<?> newArchiveOutput(OutputStream destination) {
+        OutputStream archiveDestination = new UnclosedOutputStream(new BufferedOutputStream(destination));
+
+        if (options.getParallelism() > 1) {
+            return new ParallelArchiveOutput(new ZipArchiveOutputStream(archiveDestination), options.getCompression());
+        }
 
-        return writeReport(destinationFile, uniqueMethodKeys, methodUses, brokenFileRecords);
+        return new SequentialArchiveOutput(new ZipOutputStream(archiveDestination), options.getCompression());
     }
 
     /**
      * Generates multiple report files describing the method information provided
      *
-     * @param destinationFile
-     *            The location to output the completed report file
-     * @param uniqueMethodKeys
-     *            List of unique, opaque keys referencing discovered methods
-     * @param methodUses
-     *            Detailed description(s) of the method uses discovered
+     * <p>
+     * No intermediate files are written. Method ID and method use files are written in pairs as references are read, so
+     * each pair of files describes the same set of methods. These files are written as JSON directly from the references,
+     * without creating intermediate JSON model objects. When configured for parallelism, the content of each pair is
+     * serialized and encoded in the background while further references are read, and pairs are written in the order
+     * they were read
+     *
+     * @param output
+     *            The destination of the report files
+     * @param references
+     *            The references to describe in the report
      * @param brokenFiles
-     *            Description of files which failed to parse
-     * @return The path the report was written to
+     *            Locations of any classes which failed to parse, mapped to a description of the failure
      * @throws IOException
      *             If there is an error writing the report
      */
-    private Path writeReport(Path destinationFile, List<MethodIdJson> uniqueMethodKeys, List<ReferencedMethodUsesJson> methodUses,
-            List<BrokenFileJson> brokenFiles) throws IOException {
-        Objects.requireNonNull(destinationFile);
-        Objects.requireNonNull(uniqueMethodKeys);
-        Objects.requireNonNull(methodUses);
+    private <T> void writeReport(ReportOutput<T> output, MethodReferences references, Map<String, String> brokenFiles) throws IOException {
+        Objects.requireNonNull(output);
+        Objects.requireNonNull(references);
         Objects.requireNonNull(brokenFiles);
 
-        Map<Path, Path> outputFileMapping = new HashMap<>();
+        List<BrokenFileJson> brokenFileRecords = brokenFiles.entrySet().stream()
+                .map(entry -> new BrokenFileJson(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
 
-        Path workingDirectory = Files.createTempDirectory("blackduck-method-uses");
+        MethodIdGenerator idGenerator = new MethodIdGenerator(options.getMethodIdMemoFile().orElse(null));
+        idGenerator.load();
 
-        // Generate a meta-data file with various report information
-        Path metaDataFile = workingDirectory.resolve("metaData.json");
+        boolean parallel = options.getParallelism() > 1;
+        ExecutorService executorService = (parallel ? options.getExecutorService().orElseGet(() -> Executors.newFixedThreadPool(options.getParallelism())) : null);
 
-        try (BufferedWriter writer = Files.newBufferedWriter(metaDataFile)) {
-            GSON.toJson(metaDataReport, writer);
-            outputFileMapping.put(metaDataFile, metaDataFile.getFileName());
+        try {
+            // Generate a meta-data file with various report information
+            writeFile(output, ReportChunk.Type.META_DATA, 0, Paths.get(META_DATA_FILE_NAME), metaDataReport);
+
+            // Separate uses into chunks for more efficient processing within the application (without requiring opening
+            // and manipulating the file)
+            ReferenceChunkWriter<T> referenceChunkWriter = new ReferenceChunkWriter<>(output, idGenerator, executorService, options.getParallelism());
+
+            try {
+                references.forEach(referenceChunkWriter);
+                referenceChunkWriter.finish();
+            } finally {
+                referenceChunkWriter.cancel();
+            }
+
+            List<List<BrokenFileJson>> brokenFilePartitions = Lists.partition(brokenFileRecords, BROKEN_FILE_MAX_CHUNK_SIZE);
+
+            for (int index = 0; index < brokenFilePartitions.size(); index++) {
+                writeFile(output, ReportChunk.Type.BROKEN_FILES, index, getChunkPath(BROKEN_FILE_LABEL, index), new BrokenFilesReportJson(brokenFilePartitions.get(index)));
+            }
+
+            output.finish();
+        } finally {
+            if (executorService != null && !options.getExecutorService().isPresent()) {
+                executorService.shutdownNow();
+            }
         }
 
-        // Separate uses into chunks for more efficient processing within the application (without requiring opening and
-        // manipulating the file)
+        // The memo only speeds up later reports, so failing to store it does not fail the completed report
+        try {
+            idGenerator.save();
+        } catch (IOException e) {
+            logger.warn("Unable to store method ID memo: {}", options.getMethodIdMemoFile().orElse(null), e);
+        }
+    }
+
+    /**
+     * Serializes a report file as JSON, and writes it to the report's output
+     *
+     * @param output
+     *            The destination of the report files
+     * @param type
+     *            The type of the report file
+     * @param index
+     *            The index of the report file within the files of the same type
+     * @param path
+     *            The relative path of the report file within the report
+     * @param content
+     *            The JSON model to serialize as the file's content
+     * @throws IOException
+     *             If there is an error writing the file
+     */
+    private static <T> void writeFile(ReportOutput<T> output, ReportChunk.Type type, int index, Path path, Object content) throws IOException {
+        Objects.requireNonNull(output);
+        Objects.requireNonNull(content);
+
+        output.write(output.encode(type, index, path, writer -> GSON.toJson(content, content.getClass(), writer)));
+    }
+
+    /**
+     * Serializes a report file as UTF-8 encoded JSON
+     *
+     * @param destination
+     *            The stream to write the content to. Closed once the content is written
+     * @param content
+     *            The JSON content of the report file
+     * @throws IOException
+     *             If there is an error generating or writing the content
+     */
+    private static void serialize(OutputStream destination, JsonContent content) throws IOException {
+        Objects.requireNonNull(destination);
+        Objects.requireNonNull(content);
+
+        JsonWriter jsonWriter = new JsonWriter(new BufferedWriter(new OutputStreamWriter(destination, StandardCharsets.UTF_8)));
+        jsonWriter.setHtmlSafe(false);
+
+        content.write(jsonWriter);
+        jsonWriter.close();
+    }
+
+    /**
+     * @param label
+     *            The label of the report file type, which is also the directory the files are stored in
+     * @param index
+     *            The index of the chunk within the report files of the given type
+     * @return The relative path of the chunk's report file within the compressed archive
+     */
+    private static Path getChunkPath(String label, int index) {
+        return Paths.get(label).resolve(label + "-" + index + ".json");
+    }
 
-        List<List<MethodIdJson>> methodIdPartitions = Lists.partition(uniqueMethodKeys, REFERENCE_MAX_CHUNK_SIZE);
+    /**
+     * @param chunk
+     *            A chunk whose content is being generated in the background
+     * @return The generated content
+     * @throws IOException
+     *             If generation failed, or the calling thread was interrupted while waiting
+     */
+    private static <T> ReferenceChunk<T> awaitChunk(Future<ReferenceChunk<T>> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
 
-        for (int index = 0; index < methodIdPartitions.size(); index++) {
-            List<MethodIdJson> idPartition = methodIdPartitions.get(index);
+            throw new IOException("Interrupted while waiting for report content to be generated", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
 
-            Path referencedMethodsFile = workingDirectory.resolve(REFERENCE_METHOD_LABEL + "-" + index + ".json");
-            try (BufferedWriter writer = Files.newBufferedWriter(referencedMethodsFile)) {
-                GSON.toJson(new MethodIdsReportJson(idPartition), writer);
-                outputFileMapping.put(referencedMethodsFile, Paths.get(REFERENCE_METHOD_LABEL).resolve(referencedMethodsFile.getFileName()));
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
             }
+
+            throw new IOException("Error during parallel report generation", cause);
         }
+    }
+
+    /**
+     * Represents a destination report files are written to once serialized
+     *
+     * <p>
+     * Encoding of files may be performed concurrently by multiple threads, while files are always written by a single
+     * thread in report order
+     *
+     * @param <T>
+     *            The form report files are encoded to before being written
+     * @author romeara
+     */
+    private interface ReportOutput<T> {
+
+        /**
+         * Converts the content of a report file to the form written to the destination. May be called concurrently
+         *
+         * @param type
+         *            The type of the report file
+         * @param index
+         *            The index of the report file within the files of the same type
+         * @param path
+         *            The relative path of the report file within the report
+         * @param content
+         *            The JSON content of the report file
+         * @return The encoded report file
+         * @throws IOException
+         *             If there is an error generating the content
+         */
+        T encode(ReportChunk.Type type, int index, Path path, JsonContent content) throws IOException;
+
+        /**
+         * @param file
+         *            An encoded report file to write to the destination
+         * @throws IOException
+         *             If there is an error writing the file
+         */
+        void write(T file) throws IOException;
+
+        /**
+         * Completes the report, once all files have been written
+         *
+         * @throws IOException
+         *             If there is an error completing the report
+         */
+        void finish() throws IOException;
+
+    }
+
+    /**
+     * Handles writing report files as entries of a report archive, compressing each entry as it is serialized
+     *
+     * <p>
+     * Only as much of an entry's content as is needed to select its compression is buffered - entries which are stored
+     * are buffered in full, as their size and checksum precede their content within the archive
+     *
+     * @author romeara
+     */
+    private static final class SequentialArchiveOutput implements ReportOutput<DeferredEntry> {
+
+        private final ZipOutputStream archive;
 
-        List<List<ReferencedMethodUsesJson>> methodUsePartitions = Lists.partition(methodUses, REFERENCE_MAX_CHUNK_SIZE);
+        private final ReportCompression compression;
 
-        for (int index = 0; index < methodUsePartitions.size(); index++) {
-            List<ReferencedMethodUsesJson> methodUsePartition = methodUsePartitions.get(index);
+        private final ContentBufferPool buffers;
 
-            Path referencedMethodUsesFile = workingDirectory.resolve(REFERENCE_METHOD_USE_LABEL + "-" + index + ".json");
-            try (BufferedWriter writer = Files.newBufferedWriter(referencedMethodUsesFile)) {
-                GSON.toJson(new MethodReferencesReportJson(methodUsePartition), writer);
-                outputFileMapping.put(referencedMethodUsesFile, Paths.get(REFERENCE_METHOD_USE_LABEL).resolve(referencedMethodUsesFile.getFileName()));
+        private SequentialArchiveOutput(ZipOutputStream archive, ReportCompression compression) {
+            this.archive = Objects.requireNonNull(archive);
+            this.compression = Objects.requireNonNull(compression);
+            this.buffers = new ContentBufferPool();
+        }
+
+        @Override
+        public DeferredEntry encode(ReportChunk.Type type, int index, Path path, JsonContent content) {
+            // Content is serialized once written, directly to the archive
+            return new DeferredEntry(path.toString(), content);
+        }
+
+        @Override
+        public void write(DeferredEntry file) throws IOException {
+            ContentBuffer buffer = buffers.acquire();
+
+            try {
+                serialize(new EntryOutputStream(archive, file.name, compression, buffer), file.content);
+            } finally {
+                buffers.release(buffer);
             }
         }
 
-        List<List<BrokenFileJson>> brokenFilePartitions = Lists.partition(brokenFiles, BROKEN_FILE_MAX_CHUNK_SIZE);
+        @Override
+        public void finish() throws IOException {
+            // The destination of the archive is flushed, but not closed
+            archive.close();
+        }
+
+    }
+
+    /**
+     * Handles writing report files as entries of a report archive, where each entry is compressed as it is encoded, and
+     * appended to the archive as-is when written
+     *
+     * @author romeara
+     */
+    private static final class ParallelArchiveOutput implements ReportOutput<CompressedEntry> {
+
+        private final ZipArchiveOutputStream archive;
+
+        private final ReportCompression compression;
+
+        private final ContentBufferPool buffers;
+
+        private ParallelArchiveOutput(ZipArchiveOutputStream archive, ReportCompression compression) {
+            this.archive = Objects.requireNonNull(archive);
+            this.compression = Objects.requireNonNull(compression);
+            this.buffers = new ContentBufferPool();
+        }
+
+        @Override
+        public CompressedEntry encode(ReportChunk.Type type, int index, Path path, JsonContent content) throws IOException {
+            ContentBuffer buffer = buffers.acquire();
 
-        for (int index = 0; index < brokenFilePartitions.size(); index++) {
-            List<BrokenFileJson> brokenFilePartition = brokenFilePartitions.get(index);
+            try {
+                serialize(buffer, content);
 
-            Path brokenFilesFile = workingDirectory.resolve(BROKEN_FILE_LABEL + "-" + index + ".json");
-            try (BufferedWriter writer = Files.newBufferedWriter(brokenFilesFile)) {
-                GSON.toJson(new BrokenFilesReportJson(brokenFilePartition), writer);
-                outputFileMapping.put(brokenFilesFile, Paths.get(BROKEN_FILE_LABEL).resolve(brokenFilesFile.getFileName()));
+                return buffer.compress(path.toString(), compression);
+            } finally {
+                buffers.release(buffer);
             }
         }
 
-        writeZipFile(destinationFile, outputFileMapping);
+        @Override
+        public void write(CompressedEntry file) throws IOException {
+            archive.addRawArchiveEntry(file.entry, new ByteArrayInputStream(file.compressedContent));
+        }
 
-        // GH-22: Explicitly clean up temporary files once use of them is complete
-        try {
-            try (Stream<Path> walk = Files.walk(workingDirectory)) {
-                walk.sorted(Comparator.reverseOrder())
-                        .map(Path::toFile)
-                        .forEach(File::delete);
+        @Override
+        public void finish() throws IOException {
+            // The destination of the archive is flushed, but not closed
+            archive.close();
+        }
+
+    }
+
+    /**
+     * Handles passing report files to a consumer as soon as each is complete
+     *
+     * @author romeara
+     */
+    private static final class ConsumerOutput implements ReportOutput<ReportChunk> {
+
+        private final ReportChunkConsumer consumer;
+
+        private final ContentBufferPool buffers;
+
+        private ConsumerOutput(ReportChunkConsumer consumer) {
+            this.consumer = Objects.requireNonNull(consumer);
+            this.buffers = new ContentBufferPool();
+        }
+
+        @Override
+        public ReportChunk encode(ReportChunk.Type type, int index, Path path, JsonContent content) throws IOException {
+            ContentBuffer buffer = buffers.acquire();
+
+            try {
+                serialize(buffer, content);
+
+                return new ReportChunk(type, index, path.toString(), buffer.toByteArray());
+            } finally {
+                buffers.release(buffer);
             }
-        } catch (IOException e) {
-            logger.warn("Error cleaning up temporary report files", e);
         }
 
-        return destinationFile;
+        @Override
+        public void write(ReportChunk file) throws IOException {
+            consumer.accept(file);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // Each chunk is complete once provided to the consumer
+        }
+
     }
 
     /**
-     * Writes multiple files into a compressed archive
+     * Handles accumulating referenced methods into chunks, and writing the method ID and method use report files for each
+     * chunk once it is full
      *
-     * @param destination
-     *            The location to output the archive to
-     * @param filesToZip
-     *            Mapping of file system paths to archive, to their relative paths within the compressed archive
-     * @throws IOException
-     *             If there is an error writing the files to the compressed archive
+     * <p>
+     * When an executor is provided, the content of each full chunk is serialized and encoded on the executor while
+     * further references are accumulated. At most {@code maximumPendingChunks} chunks are generated at once, and chunks
+     * are always written in the order they were accumulated
+     *
+     * @param <T>
+     *            The form report files are encoded to before being written
+     * @author romeara
      */
-    private void writeZipFile(Path destination, Map<Path, Path> filesToZip) throws IOException {
-        Objects.requireNonNull(destination);
-        Objects.requireNonNull(filesToZip);
-
-        try (ZipOutputStream outputStream = new ZipOutputStream(new FileOutputStream(destination.toFile()))) {
-            for (Entry<Path, Path> entry : filesToZip.entrySet()) {
-                try (FileInputStream inputStream = new FileInputStream(entry.getKey().toFile())) {
-                    ZipEntry zipEntry = new ZipEntry(entry.getValue().toString());
-                    outputStream.putNextEntry(zipEntry);
-
-                    try {
-                        byte[] bytes = new byte[1024];
-                        int length;
-                        while ((length = inputStream.read(bytes)) >= 0) {
-                            outputStream.write(bytes, 0, length);
-                        }
-                    } finally {
-                        outputStream.closeEntry();
+    private static final class ReferenceChunkWriter<T> implements ReferenceConsumer {
+
+        private final ReportOutput<T> output;
+
+        private final MethodIdGenerator idGenerator;
+
+        @Nullable
+        private final ExecutorService executorService;
+
+        private final int maximumPendingChunks;
+
+        private final Deque<Future<ReferenceChunk<T>>> pendingChunks;
+
+        private List<ReferencedMethod> methods;
+
+        private List<Collection<MethodUse>> methodUses;
+
+        private int chunkIndex;
+
+        private ReferenceChunkWriter(ReportOutput<T> output, MethodIdGenerator idGenerator, @Nullable ExecutorService executorService, int maximumPendingChunks) {
+            this.output = Objects.requireNonNull(output);
+            this.idGenerator = Objects.requireNonNull(idGenerator);
+            this.executorService = executorService;
+            this.maximumPendingChunks = maximumPendingChunks;
+            this.pendingChunks = new ArrayDeque<>();
+            this.methods = new ArrayList<>(REFERENCE_MAX_CHUNK_SIZE);
+            this.methodUses = new ArrayList<>(REFERENCE_MAX_CHUNK_SIZE);
+            this.chunkIndex = 0;
+        }
+
+        @Override
+        public void accept(ReferencedMethod method, Collection<MethodUse> uses) throws IOException {
+            methods.add(method);
+            methodUses.add(uses);
+
+            if (methods.size() == REFERENCE_MAX_CHUNK_SIZE) {
+                submitChunk();
+            }
+        }
+
+        /**
+         * Writes any partially filled chunk which remains once all references have been read, and any chunks still being
+         * generated
+         *
+         * @throws IOException
+         *             If there is an error writing a chunk
+         */
+        private void finish() throws IOException {
+            if (!methods.isEmpty()) {
+                submitChunk();
+            }
+
+            while (!pendingChunks.isEmpty()) {
+                writeChunk(awaitChunk(pendingChunks.poll()));
+            }
+        }
+
+        /**
+         * Stops generation of any chunks which have not been written, if the report could not be completed
+         */
+        private void cancel() {
+            for (Future<ReferenceChunk<T>> pendingChunk : pendingChunks) {
+                pendingChunk.cancel(true);
+            }
+
+            pendingChunks.clear();
+        }
+
+        private void submitChunk() throws IOException {
+            List<ReferencedMethod> chunkMethods = methods;
+            List<Collection<MethodUse>> chunkMethodUses = methodUses;
+
+            int index = chunkIndex++;
+
+            if (executorService == null) {
+                // Write directly to the output, re-using the accumulated lists for the next chunk
+                writeChunk(createChunk(index, chunkMethods, chunkMethodUses));
+
+                methods.clear();
+                methodUses.clear();
+            } else {
+                methods = new ArrayList<>(REFERENCE_MAX_CHUNK_SIZE);
+                methodUses = new ArrayList<>(REFERENCE_MAX_CHUNK_SIZE);
+
+                pendingChunks.add(executorService.submit(() -> createChunk(index, chunkMethods, chunkMethodUses)));
+
+                // Bound the number of chunks held in memory, by writing the oldest once enough are being generated
+                while (pendingChunks.size() > maximumPendingChunks) {
+                    writeChunk(awaitChunk(pendingChunks.poll()));
+                }
+            }
+        }
+
+        private ReferenceChunk<T> createChunk(int index, List<ReferencedMethod> chunkMethods, List<Collection<MethodUse>> chunkMethodUses) throws IOException {
+            // Generation unique, opaque ID to match method uses against. IDs are assigned as the method ID file is
+            // serialized, which always occurs before the method use file is serialized
+            String[] signatureIds = new String[chunkMethods.size()];
+
+            T methodIds = output.encode(ReportChunk.Type.METHOD_IDS, index, getChunkPath(REFERENCE_METHOD_LABEL, index),
+                    writer -> ReferenceJsonWriter.writeMethodIds(writer, chunkMethods, idGenerator, signatureIds));
+            T methodUsesContent = output.encode(ReportChunk.Type.METHOD_USES, index, getChunkPath(REFERENCE_METHOD_USE_LABEL, index),
+                    writer -> ReferenceJsonWriter.writeMethodUses(writer, chunkMethods, chunkMethodUses, signatureIds));
+
+            return new ReferenceChunk<>(methodIds, methodUsesContent);
+        }
+
+        private void writeChunk(ReferenceChunk<T> chunk) throws IOException {
+            output.write(chunk.methodIds);
+            output.write(chunk.methodUses);
+        }
+
+    }
+
+    /**
+     * Represents the encoded content of the method ID and method use report files for a single chunk
+     *
+     * @param <T>
+     *            The form report files are encoded to before being written
+     * @author romeara
+     */
+    private static final class ReferenceChunk<T> {
+
+        private final T methodIds;
+
+        private final T methodUses;
+
+        private ReferenceChunk(T methodIds, T methodUses) {
+            this.methodIds = Objects.requireNonNull(methodIds);
+            this.methodUses = Objects.requireNonNull(methodUses);
+        }
+
+    }
+
+    /**
+     * Represents a report file whose content is serialized once it is written
+     *
+     * @author romeara
+     */
+    private static final class DeferredEntry {
+
+        private final String name;
+
+        private final JsonContent content;
+
+        private DeferredEntry(String name, JsonContent content) {
+            this.name = Objects.requireNonNull(name);
+            this.content = Objects.requireNonNull(content);
+        }
+
+    }
+
+    /**
+     * Represents a compressed report file, ready to be appended to a report archive
+     *
+     * @author romeara
+     */
+    private static final class CompressedEntry {
+
+        private final ZipArchiveEntry entry;
+
+        private final byte[] compressedContent;
+
+        private CompressedEntry(ZipArchiveEntry entry, byte[] compressedContent) {
+            this.entry = Objects.requireNonNull(entry);
+            this.compressedContent = Objects.requireNonNull(compressedContent);
+        }
+
+    }
+
+    /**
+     * Represents the buffers report files are serialized to while a single report is written
+     *
+     * <p>
+     * Buffers are re-used between report files, so that a buffer is only grown to the size of the largest report file
+     * once. Buffers are released with the report, and any buffer grown beyond
+     * {@link ReportGenerator#CONTENT_BUFFER_MAX_RETAINED_SIZE} is released once used. Instances are thread-safe
+     *
+     * @author romeara
+     */
+    private static final class ContentBufferPool {
+
+        private final Queue<ContentBuffer> buffers;
+
+        private ContentBufferPool() {
+            this.buffers = new ConcurrentLinkedQueue<>();
+        }
+
+        /**
+         * @return An empty buffer, which is not used elsewhere until {@link #release(ContentBuffer) released}
+         */
+        private ContentBuffer acquire() {
+            ContentBuffer buffer = buffers.poll();
+
+            return (buffer != null ? buffer : new ContentBuffer());
+        }
+
+        /**
+         * @param buffer
+         *            A buffer which is no longer in use
+         */
+        private void release(ContentBuffer buffer) {
+            if (buffer.getCapacity() <= CONTENT_BUFFER_MAX_RETAINED_SIZE) {
+                buffer.reset();
+                buffers.offer(buffer);
+            }
+        }
+
+    }
+
+    /**
+     * Represents a buffer of serialized report file content, which may be compressed without first copying the content
+     *
+     * @author romeara
+     */
+    private static final class ContentBuffer extends ByteArrayOutputStream {
+
+        private ContentBuffer() {
+            super(CONTENT_BUFFER_SIZE);
+        }
+
+        /**
+         * @return The number of bytes the buffer may hold without growing
+         */
+        private int getCapacity() {
+            return buf.length;
+        }
+
+        /**
+         * @return The CRC-32 checksum of the current content of the buffer
+         */
+        private long getChecksum() {
+            CRC32 crc = new CRC32();
+            crc.update(buf, 0, count);
+
+            return crc.getValue();
+        }
+
+        /**
+         * @param name
+         *            The name of the entry within the archive
+         * @param compression
+         *            The compression to apply to the entry
+         * @return The compressed entry, containing the current content of the buffer
+         * @throws IOException
+         *             If there is an error compressing the content
+         */
+        private CompressedEntry compress(String name, ReportCompression compression) throws IOException {
+            ZipArchiveEntry entry = new ZipArchiveEntry(name);
+            entry.setTime(System.currentTimeMillis());
+            entry.setSize(count);
+            entry.setCrc(getChecksum());
+
+            OptionalInt level = compression.getDeflateLevel(count);
+
+            if (!level.isPresent()) {
+                entry.setMethod(ZipEntry.STORED);
+                entry.setCompressedSize(count);
+
+                return new CompressedEntry(entry, Arrays.copyOf(buf, count));
+            }
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            Deflater deflater = new Deflater(level.getAsInt(), true);
+
+            try (DeflaterOutputStream deflaterStream = new DeflaterOutputStream(compressed, deflater)) {
+                deflaterStream.write(buf, 0, count);
+            } finally {
+                deflater.end();
+            }
+
+            entry.setMethod(ZipEntry.DEFLATED);
+            entry.setCompressedSize(compressed.size());
+
+            return new CompressedEntry(entry, compressed.toByteArray());
+        }
+
+    }
+
+    /**
+     * Represents the content of a single entry of a report archive as it is written, which selects the compression of
+     * the entry once enough content is known to do so
+     *
+     * @author romeara
+     */
+    private static final class EntryOutputStream extends OutputStream {
+
+        private final ZipOutputStream archive;
+
+        private final String name;
+
+        private final ReportCompression compression;
+
+        // Holds content written before the compression of the entry was selected
+        private final ContentBuffer buffer;
+
+        private boolean started;
+
+        private EntryOutputStream(ZipOutputStream archive, String name, ReportCompression compression, ContentBuffer buffer) {
+            this.archive = Objects.requireNonNull(archive);
+            this.name = Objects.requireNonNull(name);
+            this.compression = Objects.requireNonNull(compression);
+            this.buffer = Objects.requireNonNull(buffer);
+            this.started = false;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (started) {
+                archive.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+
+                if (buffer.size() >= compression.getUniformSize()) {
+                    OptionalInt level = compression.getDeflateLevel(buffer.size());
+
+                    // Stored entries cannot be started until all content is known
+                    if (level.isPresent()) {
+                        startEntry(level);
                     }
                 }
             }
         }
+
+        @Override
+        public void close() throws IOException {
+            if (!started) {
+                startEntry(compression.getDeflateLevel(buffer.size()));
+            }
+
+            archive.closeEntry();
+        }
+
+        private void startEntry(OptionalInt level) throws IOException {
+            ZipEntry entry = new ZipEntry(name);
+
+            if (level.isPresent()) {
+                entry.setMethod(ZipEntry.DEFLATED);
+                archive.setLevel(level.getAsInt());
+            } else {
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(buffer.size());
+                entry.setCompressedSize(buffer.size());
+                entry.setCrc(buffer.getChecksum());
+            }
+
+            archive.putNextEntry(entry);
+            buffer.writeTo(archive);
+            buffer.reset();
+
+            started = true;
+        }
+
+    }
+
+    /**
+     * Represents a stream which flushes, but does not close, the stream it wraps when closed
+     *
+     * @author romeara
+     */
+    private static final class UnclosedOutputStream extends FilterOutputStream {
+
+        private UnclosedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
     }
+
+    /**
+     * Represents content of a report file which is written as a stream of JSON tokens
+     *
+     * @author romeara
+     */
+    @FunctionalInterface
+    private interface JsonContent {
+
+        void write(JsonWriter writer) throws IOException;
+
+    }
+
 }
@@ -0,0 +1,199 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.core.report;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Represents configuration which controls how a {@link ReportGenerator} writes reports
+ *
+ * <p>
+ * Instances are immutable, and are created via {@link #builder()}. The {@link #defaults()} options match the behavior
+ * of the report generator prior to the introduction of configuration
+ *
+ * @author romeara
+ */
+public final class ReportOptions {
+
+    private static final ReportOptions DEFAULTS = builder().build();
+
+    private final int parallelism;
+
+    @Nullable
+    private final ExecutorService executorService;
+
+    @Nullable
+    private final Path methodIdMemoFile;
+
+    private final ReportCompression compression;
+
+    private ReportOptions(Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.executorService = builder.executorService;
+        this.methodIdMemoFile = builder.methodIdMemoFile;
+        this.compression = builder.compression;
+    }
+
+    /**
+     * @return Options which generate report content on the calling thread
+     */
+    public static ReportOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @return A builder for creating a customized set of options
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The number of report chunks which may be generated concurrently
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return A caller-managed executor to generate report chunks on, if one was provided. When absent, a pool is created
+     *         and shut down for each report
+     */
+    public Optional<ExecutorService> getExecutorService() {
+        return Optional.ofNullable(executorService);
+    }
+
+    /**
+     * @return The file generated method identifiers are stored in between reports, if one was provided
+     */
+    public Optional<Path> getMethodIdMemoFile() {
+        return Optional.ofNullable(methodIdMemoFile);
+    }
+
+    /**
+     * @return The compression applied to the entries of report archives
+     */
+    public ReportCompression getCompression() {
+        return compression;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues()
+                .add("parallelism", getParallelism())
+                .add("executorService", executorService)
+                .add("methodIdMemoFile", methodIdMemoFile)
+                .add("compression", getCompression())
+                .toString();
+    }
+
+    /**
+     * Handles step-wise construction of {@link ReportOptions} instances
+     *
+     * @author romeara
+     */
+    public static final class Builder {
+
+        private int parallelism;
+
+        @Nullable
+        private ExecutorService executorService;
+
+        @Nullable
+        private Path methodIdMemoFile;
+
+        private ReportCompression compression;
+
+        private Builder() {
+            this.parallelism = 1;
+            this.executorService = null;
+            this.methodIdMemoFile = null;
+            this.compression = ReportCompression.DEFAULT;
+        }
+
+        /**
+         * @param parallelism
+         *            The number of report chunks which may be serialized and compressed concurrently, while earlier
+         *            chunks are written. A value of 1 (the default) generates all content on the calling thread
+         * @return This builder
+         */
+        public Builder parallelism(int parallelism) {
+            Preconditions.checkArgument(parallelism > 0, "Parallelism must be a positive value (was %s)", parallelism);
+
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param executorService
+         *            A caller-managed executor to generate report chunks on when parallelism is greater than one. The
+         *            executor is not shut down by the report generator. May be null to have the generator manage its
+         *            own pool
+         * @return This builder
+         */
+        public Builder executorService(@Nullable ExecutorService executorService) {
+            this.executorService = executorService;
+            return this;
+        }
+
+        /**
+         * @param methodIdMemoFile
+         *            A file to load previously generated method identifiers from, and to store identifiers to once a
+         *            report is written, so repeated reports for a project skip generating identifiers for values seen
+         *            before. May be null to only re-use identifiers within a single report (the default)
+         * @return This builder
+         */
+        public Builder methodIdMemoFile(@Nullable Path methodIdMemoFile) {
+            this.methodIdMemoFile = methodIdMemoFile;
+            return this;
+        }
+
+        /**
+         * @param compression
+         *            The compression to apply to the entries of report archives. Defaults to
+         *            {@link ReportCompression#DEFAULT}
+         * @return This builder
+         */
+        public Builder compression(ReportCompression compression) {
+            this.compression = Objects.requireNonNull(compression);
+            return this;
+        }
+
+        /**
+         * @return A new options instance reflecting the current state of this builder
+         */
+        public ReportOptions build() {
+            return new ReportOptions(this);
+        }
+
+    }
+
+}
@@ -23,23 +23,58 @@
 package com.blackduck.method.analyzer.test.core;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import com.blackduck.method.analyzer.core.AnalysisOptions;
+import com.blackduck.method.analyzer.core.AnalysisResult;
+import com.blackduck.method.analyzer.core.ClassAnalysisCache;
+import com.blackduck.method.analyzer.core.ClassSource;
+import com.blackduck.method.analyzer.core.ClassSourceVisitor;
 import com.blackduck.method.analyzer.core.MethodUseAnalyzer;
+import com.blackduck.method.analyzer.core.ParseMode;
+import com.blackduck.method.analyzer.core.WalkOptions;
+import com.blackduck.method.analyzer.core.model.MethodUse;
+import com.blackduck.method.analyzer.core.model.ReferencedMethod;
+import com.blackduck.method.analyzer.core.report.BrokenFilesReportJson;
+import com.blackduck.method.analyzer.core.report.MetaDataReportJson;
 import com.blackduck.method.analyzer.core.report.MethodIdJson;
 import com.blackduck.method.analyzer.core.report.MethodIdsReportJson;
 import com.blackduck.method.analyzer.core.report.MethodReferencesReportJson;
@@ -127,6 +162,684 @@ public class MethodUseAnalyzerTest {
         }
     }
 
+    @Test
+    public void analyzeParallel() throws Exception {
+        assertSameAsSequential(AnalysisOptions.builder()
+                .parallelism(4)
+                .build());
+    }
+
+    @Test(timeOut = 60_000)
+    public void analyzeParallelFailure() throws Exception {
+        Path classFile = null;
+
+        try (Stream<Path> files = Files.walk(TEST_PROJECT_DIRECTORY)) {
+            classFile = files.filter(f -> f.toString().endsWith(".class")).findFirst().get();
+        }
+
+        Path failingFile = classFile;
+        AtomicInteger provided = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        // Fails once, early, and otherwise provides the same class file indefinitely - workers must stop on the failure
+        ClassSource source = new ClassSource() {
+
+            @Override
+            public String getLocation() {
+                return "failing";
+            }
+
+            @Override
+            public void accept(ClassSourceVisitor visitor) throws IOException {
+                visitor.visitClassFiles(() -> {
+                    if (provided.incrementAndGet() == 10) {
+                        throw new IOException("Expected failure");
+                    }
+
+                    return failingFile;
+                });
+            }
+
+        };
+
+        try {
+            MethodUseAnalyzer analyzer = new MethodUseAnalyzer(AnalysisOptions.builder()
+                    .parallelism(4)
+                    .executorService(executorService)
+                    .build());
+
+            try {
+                analyzer.analyze(source).close();
+                Assert.fail("Expected analysis to fail");
+            } catch (IOException e) {
+                Assert.assertEquals(e.getMessage(), "Expected failure");
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void analyzeDiscoverOwnersFirst() throws Exception {
+        assertSameAsSequential(AnalysisOptions.builder()
+                .discoverOwnersFirst(true)
+                .build());
+        assertSameAsSequential(AnalysisOptions.builder()
+                .discoverOwnersFirst(true)
+                .parallelism(4)
+                .build());
+    }
+
+    @Test
+    public void analyzeSkipFrames() throws Exception {
+        assertSameAsSequential(AnalysisOptions.builder()
+                .parseMode(ParseMode.SKIP_FRAMES)
+                .build());
+    }
+
+    @Test
+    public void analyzeCoarse() throws Exception {
+        MethodUseAnalyzer analyzer = new MethodUseAnalyzer();
+        MethodUseAnalyzer coarseAnalyzer = new MethodUseAnalyzer(AnalysisOptions.builder()
+                .parseMode(ParseMode.COARSE)
+                .build());
+
+        try (AnalysisResult result = analyzer.analyze(TEST_PROJECT_DIRECTORY);
+                AnalysisResult coarseResult = coarseAnalyzer.analyze(TEST_PROJECT_DIRECTORY)) {
+            Multimap<ReferencedMethod, MethodUse> references = result.getReferenceMultimap();
+            Multimap<ReferencedMethod, MethodUse> coarseReferences = coarseResult.getReferenceMultimap();
+
+            Assert.assertEquals(coarseReferences.keySet(), references.keySet());
+
+            for (ReferencedMethod method : references.keySet()) {
+                Set<String> usingMethods = references.get(method).stream()
+                        .map(MethodUse::getQualifiedMethodName)
+                        .collect(Collectors.toSet());
+
+                Assert.assertTrue(coarseReferences.get(method).stream().noneMatch(use -> use.getLineNumber().isPresent()));
+                Assert.assertEquals(coarseReferences.get(method).stream()
+                        .map(MethodUse::getQualifiedMethodName)
+                        .collect(Collectors.toSet()), usingMethods);
+            }
+        }
+    }
+
+    @Test
+    public void analyzeReportsParseMode() throws Exception {
+        for (ParseMode parseMode : ParseMode.values()) {
+            MethodUseAnalyzer analyzer = new MethodUseAnalyzer(AnalysisOptions.builder()
+                    .parseMode(parseMode)
+                    .build());
+
+            Path result = analyzer.analyze(TEST_PROJECT_DIRECTORY, Files.createTempDirectory("blackduck-method-uses-analyzer-test"), null);
+
+            // Consumers need the mode to tell uses by class, recorded by constant pool parsing, from uses by method
+            try (BufferedReader reader = Files.newBufferedReader(unzip(result).resolve("metaData.json"))) {
+                Assert.assertEquals(GSON.fromJson(reader, MetaDataReportJson.class).getParseMode(), parseMode.name());
+            }
+        }
+    }
+
+    @Test
+    public void analyzeMemoryBudget() throws Exception {
+        assertSameAsSequential(AnalysisOptions.builder()
+                .memoryBudget(1)
+                .build());
+        assertSameAsSequential(AnalysisOptions.builder()
+                .memoryBudget(1)
+                .parallelism(4)
+                .build());
+    }
+
+    private static AnalysisResult analyzeWithWalkOptions(Path source, WalkOptions.Builder walkOptions) throws IOException {
+        MethodUseAnalyzer analyzer = new MethodUseAnalyzer(AnalysisOptions.builder()
+                .walkOptions(walkOptions.build())
+                .build());
+
+        return analyzer.analyze(source);
+    }
+
+    private static byte[] createCallerClass() {
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "example/Caller", null, "java/lang/Object", null);
+
+        MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "call", "()V", null, null);
+        methodVisitor.visitCode();
+        methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "example/Helper", "help", "()V", false);
+        methodVisitor.visitInsn(Opcodes.RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        classWriter.visitEnd();
+
+        return classWriter.toByteArray();
+    }
+
+    private static byte[] createHelperClass() {
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "example/Helper", null, "java/lang/Object", null);
+
+        MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "help", "()V", null, null);
+        methodVisitor.visitCode();
+        methodVisitor.visitInsn(Opcodes.RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        classWriter.visitEnd();
+
+        return classWriter.toByteArray();
+    }
+
+    private static Path copyTestProject(int minimumClassFiles) throws IOException {
+        List<Path> classFiles = null;
+
+        try (Stream<Path> files = Files.walk(TEST_PROJECT_DIRECTORY)) {
+            classFiles = files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList());
+        }
+
+        Path copiesDirectory = Files.createTempDirectory("blackduck-method-uses-analyzer-test-copies");
+        int copies = minimumClassFiles / classFiles.size() + 1;
+
+        for (int i = 0; i < copies; i++) {
+            for (Path classFile : classFiles) {
+                Path copy = copiesDirectory.resolve("copy-" + i).resolve(TEST_PROJECT_DIRECTORY.relativize(classFile));
+
+                Files.createDirectories(copy.getParent());
+                Files.copy(classFile, copy);
+            }
+        }
+
+        return copiesDirectory;
+    }
+
+    private void assertSameAsSequential(AnalysisOptions options) throws Exception {
+        MethodUseAnalyzer sequentialAnalyzer = new MethodUseAnalyzer();
+        MethodUseAnalyzer configuredAnalyzer = new MethodUseAnalyzer(options);
+
+        Path sequentialResult = sequentialAnalyzer.analyze(TEST_PROJECT_DIRECTORY, Files.createTempDirectory("blackduck-method-uses-analyzer-test"), null);
+        Path configuredResult = configuredAnalyzer.analyze(TEST_PROJECT_DIRECTORY, Files.createTempDirectory("blackduck-method-uses-analyzer-test"), null);
+
+        Assert.assertNotNull(configuredResult);
+        Assert.assertTrue(Files.exists(configuredResult));
+
+        Path sequentialExpandedDirectory = unzip(sequentialResult);
+        Path configuredExpandedDirectory = unzip(configuredResult);
+
+        MethodIdsReportJson sequentialIds = null;
+        MethodIdsReportJson configuredIds = null;
+        MethodReferencesReportJson sequentialUses = null;
+        MethodReferencesReportJson configuredUses = null;
+
+        try (BufferedReader reader = Files.newBufferedReader(sequentialExpandedDirectory.resolve("referenced-methods").resolve("referenced-methods-0.json"))) {
+            sequentialIds = GSON.fromJson(reader, MethodIdsReportJson.class);
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(configuredExpandedDirectory.resolve("referenced-methods").resolve("referenced-methods-0.json"))) {
+            configuredIds = GSON.fromJson(reader, MethodIdsReportJson.class);
+        }
+
+        try (BufferedReader reader = Files
+                .newBufferedReader(sequentialExpandedDirectory.resolve("referenced-method-uses").resolve("referenced-method-uses-0.json"))) {
+            sequentialUses = GSON.fromJson(reader, MethodReferencesReportJson.class);
+        }
+
+        try (BufferedReader reader = Files
+                .newBufferedReader(configuredExpandedDirectory.resolve("referenced-method-uses").resolve("referenced-method-uses-0.json"))) {
+            configuredUses = GSON.fromJson(reader, MethodReferencesReportJson.class);
+        }
+
+        Assert.assertEquals(new HashSet<>(configuredIds.getMethodIds()), new HashSet<>(sequentialIds.getMethodIds()));
+
+        Multimap<String, MethodUseJson> sequentialUsesById = HashMultimap.create();
+        Multimap<String, MethodUseJson> configuredUsesById = HashMultimap.create();
+
+        sequentialUses.getMethodUses().forEach(use -> sequentialUsesById.putAll(use.getMethod().getId(), use.getUses()));
+        configuredUses.getMethodUses().forEach(use -> configuredUsesById.putAll(use.getMethod().getId(), use.getUses()));
+
+        Assert.assertEquals(configuredUsesById, sequentialUsesById);
+    }
+
+    @Test
+    public void analyzeToStream() throws Exception {
+        MethodUseAnalyzer analyzer = new MethodUseAnalyzer();
+
+        Path fileResult = unzip(analyzer.analyze(TEST_PROJECT_DIRECTORY, Files.createTempDirectory("blackduck-method-uses-analyzer-test"), null));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        analyzer.analyze(TEST_PROJECT_DIRECTORY, outputStream, null);
+
+        Path streamResultFile = Files.createTempDirectory("blackduck-method-uses-analyzer-test").resolve("stream.bdmu");
+        Files.write(streamResultFile, outputStream.toByteArray());
+
+        Path streamResult = unzip(streamResultFile);
+
+        for (Path reportFile : Arrays.asList(Paths.get("referenced-methods").resolve("referenced-methods-0.json"),
+                Paths.get("referenced-method-uses").resolve("referenced-method-uses-0.json"))) {
+            Assert.assertEquals(Files.readAllBytes(streamResult.resolve(reportFile)), Files.readAllBytes(fileResult.resolve(reportFile)));
+        }
+    }
+
+    @Test
+    public void analyzeInMemory() throws Exception {
+        MethodUseAnalyzer analyzer = new MethodUseAnalyzer();
+
+        try (AnalysisResult result = analyzer.analyze(TEST_PROJECT_DIRECTORY)) {
+            Multimap<ReferencedMethod, MethodUse> references = result.getReferenceMultimap();
+
+            Assert.assertEquals(result.getSourceLocation(), TEST_PROJECT_DIRECTORY.toString());
+            Assert.assertEquals(references.keySet().size(), 10);
+            Assert.assertTrue(result.getBrokenFiles().isEmpty());
+            Assert.assertFalse(result.getDuration().isNegative());
+
+            Path fileResult = unzip(analyzer.analyze(TEST_PROJECT_DIRECTORY, Files.createTempDirectory("blackduck-method-uses-analyzer-test"), null));
+            Path renderedResult = unzip(result.generateReport(Files.createTempDirectory("blackduck-method-uses-analyzer-test"), "rendered", null));
+
+            for (Path reportFile : Arrays.asList(Paths.get("referenced-methods").resolve("referenced-methods-0.json"),
+                    Paths.get("referenced-method-uses").resolve("referenced-method-uses-0.json"))) {
+                Assert.assertEquals(Files.readAllBytes(renderedResult.resolve(reportFile)), Files.readAllBytes(fileResult.resolve(reportFile)));
+            }
+        }
+    }
+
+    @Test
+    public void analyzeManyClassFiles() throws Exception {
+        // Copy the project enough times that discovered files must wait for analysis to make space for them
+        Path copiesDirectory = copyTestProject(2048);
+
+        try (AnalysisResult expected = new MethodUseAnalyzer().analyze(TEST_PROJECT_DIRECTORY)) {
+            for (int parallelism : new int[] { 1, 4 }) {
+                MethodUseAnalyzer analyzer = new MethodUseAnalyzer(AnalysisOptions.builder()
+                        .parallelism(parallelism)
+                        .build());
+
+                try (AnalysisResult result = analyzer.analyze(copiesDirectory)) {
+                    Assert.assertEquals(HashMultimap.create(result.getReferenceMultimap()), HashMultimap.create(expected.getReferenceMultimap()));
+                    Assert.assertTrue(result.getBrokenFiles().isEmpty());
+
+                    Assert.assertTrue(result.getStatistics().getWalkDuration().compareTo(Duration.ZERO) > 0);
+                    Assert.assertTrue(result.getStatistics().getParseDuration().compareTo(Duration.ZERO) > 0);
+                    Assert.assertEquals(result.getStatistics().getMergeDuration().compareTo(Duration.ZERO) > 0, parallelism > 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void analyzeWalkOnCallerExecutor() throws Exception {
+        Path copiesDirectory = copyTestProject(64);
+        AtomicInteger submitted = new AtomicInteger();
+
+        // Only two threads are available, so that workers beyond the first wait for the walk to complete
+        ExecutorService executorService = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()) {
+
+            @Override
+            public void execute(Runnable command) {
+                submitted.incrementAndGet();
+                super.execute(command);
+            }
+
+        };
+
+        try (AnalysisResult expected = new MethodUseAnalyzer().analyze(TEST_PROJECT_DIRECTORY)) {
+            for (int parallelism : new int[] { 1, 2, 4 }) {
+                MethodUseAnalyzer analyzer = new MethodUseAnalyzer(AnalysisOptions.builder()
+                        .parallelism(parallelism)
+                        .executorService(executorService)
+                        .build());
+
+                submitted.set(0);
+
+                try (AnalysisResult result = analyzer.analyze(copiesDirectory)) {
+                    Assert.assertEquals(HashMultimap.create(result.getReferenceMultimap()), HashMultimap.create(expected.getReferenceMultimap()));
+                    Assert.assertTrue(result.getBrokenFiles().isEmpty());
+
+                    // The walk, and each parallel worker
+                    Assert.assertEquals(submitted.get(), (parallelism > 1 ? parallelism + 1 : 1));
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void analyzeParallelWalk() throws Exception {
+        Path copiesDirectory = copyTestProject(64);
+
+        // Links back to the top of the tree form a cycle, which must not be searched repeatedly
+        Files.createSymbolicLink(copiesDirectory.resolve("copy-0").resolve("cycle"), copiesDirectory);
+
+        try (AnalysisResult expected = new MethodUseAnalyzer().analyze(TEST_PROJECT_DIRECTORY)) {
+            for (boolean followLinks : new boolean[] { false, true }) {
+                for (int walkParallelism : new int[] { 1, 4 }) {
+                    MethodUseAnalyzer analyzer = new MethodUseAnalyzer(AnalysisOptions.builder()
+                            .walkOptions(WalkOptions.builder()
+                                    .parallelism(walkParallelism)
+                                    .followLinks(followLinks)
+                                    .build())
+                            .build());
+
+                    try (AnalysisResult result = analyzer.analyze(copiesDirectory)) {
+                        Assert.assertEquals(HashMultimap.create(result.getReferenceMultimap()), HashMultimap.create(expected.getReferenceMultimap()));
+                        Assert.assertTrue(result.getBrokenFiles().isEmpty());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void analyzeWithPathFilters() throws Exception {
+        Path root = Files.createTempDirectory("blackduck-method-uses-analyzer-test-filters");
+        Path generated = Files.createDirectories(root.resolve("generated"));
+
+        Files.write(Files.createDirectories(root.resolve("main")).resolve("Caller.class"), createCallerClass());
+        Files.write(generated.resolve("Helper.class"), createHelperClass());
+        Files.write(generated.resolve("Broken.class"), new byte[] { 1, 2, 3 });
+
+        ReferencedMethod helperMethod = new ReferencedMethod("example.Helper", "help", Collections.emptyList(), "void");
+
+        for (int walkParallelism : new int[] { 1, 4 }) {
+            // Without filters, the helper is part of the project and its broken neighbor is analyzed
+            try (AnalysisResult result = analyzeWithWalkOptions(root, WalkOptions.builder().parallelism(walkParallelism))) {
+                Assert.assertFalse(result.getReferenceMultimap().containsKey(helperMethod));
+                Assert.assertEquals(result.getBrokenFiles().size(), 1);
+            }
+
+            try (AnalysisResult result = analyzeWithWalkOptions(root, WalkOptions.builder().parallelism(walkParallelism).exclude("generated"))) {
+                Assert.assertTrue(result.getReferenceMultimap().containsKey(helperMethod));
+                Assert.assertTrue(result.getBrokenFiles().isEmpty());
+            }
+
+            try (AnalysisResult result = analyzeWithWalkOptions(root, WalkOptions.builder().parallelism(walkParallelism).include("main/**"))) {
+                Assert.assertTrue(result.getReferenceMultimap().containsKey(helperMethod));
+                Assert.assertTrue(result.getBrokenFiles().isEmpty());
+            }
+
+            try (AnalysisResult result = analyzeWithWalkOptions(root,
+                    WalkOptions.builder().parallelism(walkParallelism).exclude("generated").countExcludedAsOwners(true))) {
+                Assert.assertFalse(result.getReferenceMultimap().containsKey(helperMethod));
+                Assert.assertTrue(result.getBrokenFiles().isEmpty());
+            }
+        }
+
+        // Excluded files are found by the same walk as analyzed files, and may be read after references to their classes
+        MethodUseAnalyzer parallelAnalyzer = new MethodUseAnalyzer(AnalysisOptions.builder()
+                .parallelism(4)
+                .walkOptions(WalkOptions.builder().exclude("generated").countExcludedAsOwners(true).build())
+                .build());
+
+        try (AnalysisResult result = parallelAnalyzer.analyze(root)) {
+            Assert.assertFalse(result.getReferenceMultimap().containsKey(helperMethod));
+            Assert.assertTrue(result.getBrokenFiles().isEmpty());
+        }
+
+        // Patterns are matched relative to each root directory of a file system source
+        Path archive = root.resolve("classes.jar");
+
+        try (ZipOutputStream archiveStream = new ZipOutputStream(Files.newOutputStream(archive))) {
+            for (String entry : Arrays.asList("main/Caller.class", "generated/Helper.class", "generated/Broken.class")) {
+                archiveStream.putNextEntry(new ZipEntry(entry));
+                archiveStream.write(Files.readAllBytes(root.resolve(entry)));
+                archiveStream.closeEntry();
+            }
+        }
+
+        MethodUseAnalyzer analyzer = new MethodUseAnalyzer();
+
+        try (FileSystem archiveFileSystem = FileSystems.newFileSystem(archive, (ClassLoader) null);
+                AnalysisResult result = analyzer.analyze(ClassSource.fileSystem(archiveFileSystem, WalkOptions.builder().exclude("generated").build()))) {
+            Assert.assertTrue(result.getReferenceMultimap().containsKey(helperMethod));
+            Assert.assertTrue(result.getBrokenFiles().isEmpty());
+        }
+
+        // Patterns are not applied to archive entries, so are rejected rather than ignored
+        try {
+            analyzeWithWalkOptions(archive, WalkOptions.builder().exclude("generated")).close();
+            Assert.fail("Expected patterns to be rejected for an archive");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains(archive.toString()), e.getMessage());
+        }
+    }
+
+    @Test
+    public void analyzeClassSources() throws Exception {
+        MethodUseAnalyzer analyzer = new MethodUseAnalyzer(AnalysisOptions.builder()
+                .discoverOwnersFirst(true)
+                .build());
+
+        List<Path> classFiles = null;
+
+        try (Stream<Path> files = Files.walk(TEST_PROJECT_DIRECTORY)) {
+            classFiles = files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList());
+        }
+
+        List<byte[]> classes = new ArrayList<>();
+        List<ByteBuffer> directBuffers = new ArrayList<>();
+        List<String> classNames = new ArrayList<>();
+
+        for (Path classFile : classFiles) {
+            byte[] content = Files.readAllBytes(classFile);
+            ByteBuffer directBuffer = ByteBuffer.allocateDirect(content.length);
+            directBuffer.put(content).flip();
+
+            classes.add(content);
+            directBuffers.add(directBuffer);
+            classNames.add(TEST_PROJECT_DIRECTORY.relativize(classFile).toString().replace(File.separatorChar, '.').replaceAll("\\.class$", ""));
+        }
+
+        Path archive = Files.createTempDirectory("blackduck-method-uses-analyzer-test-archive").resolve("classes.jar");
+
+        try (ZipOutputStream archiveStream = new ZipOutputStream(Files.newOutputStream(archive))) {
+            for (Path classFile : classFiles) {
+                archiveStream.putNextEntry(new ZipEntry(TEST_PROJECT_DIRECTORY.relativize(classFile).toString()));
+                archiveStream.write(Files.readAllBytes(classFile));
+                archiveStream.closeEntry();
+            }
+        }
+
+        Multimap<ReferencedMethod, MethodUse> expected = null;
+
+        try (AnalysisResult result = analyzer.analyze(TEST_PROJECT_DIRECTORY)) {
+            expected = result.getReferenceMultimap();
+        }
+
+        try (FileSystem archiveFileSystem = FileSystems.newFileSystem(archive, (ClassLoader) null);
+                URLClassLoader classLoader = new URLClassLoader(new URL[] { TEST_PROJECT_DIRECTORY.toUri().toURL() }, null)) {
+            for (ClassSource source : Arrays.asList(ClassSource.classes("memory", classes), ClassSource.buffers("direct", directBuffers),
+                    ClassSource.fileSystem(archiveFileSystem), ClassSource.classLoader("classLoader", classLoader, classNames))) {
+                try (AnalysisResult result = analyzer.analyze(source)) {
+                    Assert.assertEquals(result.getReferenceMultimap(), expected, source.toString());
+                    Assert.assertTrue(result.getBrokenFiles().isEmpty(), source.toString());
+                }
+            }
+        }
+
+        // Reading classes from buffers does not move their position
+        for (ByteBuffer directBuffer : directBuffers) {
+            Assert.assertEquals(directBuffer.position(), 0);
+        }
+    }
+
+    @Test
+    public void analyzeBrokenClassSources() throws Exception {
+        MethodUseAnalyzer analyzer = new MethodUseAnalyzer();
+        List<byte[]> classes = Arrays.asList(createCallerClass(), new byte[] { 1, 2, 3 });
+
+        // Locations of classes which are not stored as files are recorded as provided, even where they would not be valid
+        // file system paths
+        for (String location : Arrays.asList("memory", "jar:file:/application.jar", "memory<*>?")) {
+            try (AnalysisResult result = analyzer.analyze(ClassSource.classes(location, classes))) {
+                Assert.assertEquals(result.getBrokenFiles().keySet(), Collections.singleton(location + "[1]"));
+            }
+        }
+    }
+
+    @Test
+    public void analyzeNestedArchive() throws Exception {
+        Path archiveDirectory = Files.createTempDirectory("blackduck-method-uses-analyzer-test-archive");
+        Path archive = archiveDirectory.resolve("application.jar");
+
+        try (ZipOutputStream outerArchive = new ZipOutputStream(Files.newOutputStream(archive))) {
+            outerArchive.putNextEntry(new ZipEntry("BOOT-INF/lib/library.jar"));
+
+            // Nested archive is not closed, as that would close the outer archive
+            ZipOutputStream innerArchive = new ZipOutputStream(outerArchive);
+
+            try (Stream<Path> files = Files.walk(TEST_PROJECT_DIRECTORY)) {
+                for (Path classFile : files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList())) {
+                    innerArchive.putNextEntry(new ZipEntry(TEST_PROJECT_DIRECTORY.relativize(classFile).toString()));
+                    innerArchive.write(Files.readAllBytes(classFile));
+                    innerArchive.closeEntry();
+                }
+            }
+
+            innerArchive.finish();
+            outerArchive.closeEntry();
+
+            outerArchive.putNextEntry(new ZipEntry("broken/Broken.class"));
+            outerArchive.write(new byte[] { 1, 2, 3, 4 });
+            outerArchive.closeEntry();
+
+            // A nested archive which ends part-way through a class entry cannot be read to its end
+            ByteArrayOutputStream truncatedArchive = new ByteArrayOutputStream();
+
+            try (ZipOutputStream truncatedArchiveStream = new ZipOutputStream(truncatedArchive)) {
+                truncatedArchiveStream.putNextEntry(new ZipEntry("Truncated.class"));
+                truncatedArchiveStream.write(new byte[4096]);
+                truncatedArchiveStream.closeEntry();
+            }
+
+            outerArchive.putNextEntry(new ZipEntry("WEB-INF/lib/truncated.jar"));
+            outerArchive.write(Arrays.copyOf(truncatedArchive.toByteArray(), 40));
+            outerArchive.closeEntry();
+        }
+
+        MethodUseAnalyzer analyzer = new MethodUseAnalyzer();
+
+        Path resultFile = analyzer.analyze(archive, Files.createTempDirectory("blackduck-method-uses-analyzer-test"), null);
+
+        Assert.assertNotNull(resultFile);
+        Assert.assertTrue(Files.exists(resultFile));
+
+        Path resultExpandedDirectory = unzip(resultFile);
+
+        MethodIdsReportJson methodIdsReport = null;
+        BrokenFilesReportJson brokenFilesReport = null;
+
+        try (BufferedReader reader = Files.newBufferedReader(resultExpandedDirectory.resolve("referenced-methods").resolve("referenced-methods-0.json"))) {
+            methodIdsReport = GSON.fromJson(reader, MethodIdsReportJson.class);
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(resultExpandedDirectory.resolve("broken-files").resolve("broken-files-0.json"))) {
+            brokenFilesReport = GSON.fromJson(reader, BrokenFilesReportJson.class);
+        }
+
+        Assert.assertNotNull(methodIdsReport);
+        Assert.assertNotNull(brokenFilesReport);
+
+        // Same external uses as analyzing the test project's directory
+        Assert.assertEquals(methodIdsReport.getMethodIds().size(), 10);
+
+        Set<String> brokenPaths = brokenFilesReport.getBrokenFiles().stream()
+                .map(brokenFile -> brokenFile.getPath())
+                .collect(Collectors.toSet());
+
+        Assert.assertEquals(brokenPaths, new HashSet<>(Arrays.asList(Paths.get(archive.toString() + "!/broken/Broken.class").toString(),
+                Paths.get(archive.toString() + "!/WEB-INF/lib/truncated.jar").toString())));
+    }
+
+    @Test
+    public void analyzeCached() throws Exception {
+        ClassAnalysisCache cache = new ClassAnalysisCache(Files.createTempDirectory("blackduck-method-uses-analyzer-test-cache"));
+
+        MethodUseAnalyzer analyzer = new MethodUseAnalyzer(AnalysisOptions.builder()
+                .cache(cache)
+                .build());
+
+        Path initialResult = analyzer.analyze(TEST_PROJECT_DIRECTORY, Files.createTempDirectory("blackduck-method-uses-analyzer-test"), null);
+
+        Assert.assertEquals(cache.getHitCount(), 0);
+        Assert.assertEquals(cache.getMissCount(), 1);
+
+        Path cachedResult = analyzer.analyze(TEST_PROJECT_DIRECTORY, Files.createTempDirectory("blackduck-method-uses-analyzer-test"), null);
+
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getMissCount(), 0);
+
+        // Statistics of each analysis are kept with its result, unaffected by later analyses sharing the cache. Copies
+        // of the project are matched by content
+        try (AnalysisResult projectAnalysis = analyzer.analyze(TEST_PROJECT_DIRECTORY);
+                AnalysisResult copiesAnalysis = analyzer.analyze(copyTestProject(2))) {
+            Assert.assertEquals(projectAnalysis.getStatistics().getCacheHitCount(), 1);
+            Assert.assertEquals(projectAnalysis.getStatistics().getCacheMissCount(), 0);
+
+            Assert.assertEquals(copiesAnalysis.getStatistics().getCacheHitCount(), 3);
+            Assert.assertEquals(copiesAnalysis.getStatistics().getCacheMissCount(), 0);
+        }
+
+        MethodReferencesReportJson initialUses = null;
+        MethodReferencesReportJson cachedUses = null;
+
+        try (BufferedReader reader = Files
+                .newBufferedReader(unzip(initialResult).resolve("referenced-method-uses").resolve("referenced-method-uses-0.json"))) {
+            initialUses = GSON.fromJson(reader, MethodReferencesReportJson.class);
+        }
+
+        try (BufferedReader reader = Files
+                .newBufferedReader(unzip(cachedResult).resolve("referenced-method-uses").resolve("referenced-method-uses-0.json"))) {
+            cachedUses = GSON.fromJson(reader, MethodReferencesReportJson.class);
+        }
+
+        Multimap<String, MethodUseJson> initialUsesById = HashMultimap.create();
+        Multimap<String, MethodUseJson> cachedUsesById = HashMultimap.create();
+
+        initialUses.getMethodUses().forEach(use -> initialUsesById.putAll(use.getMethod().getId(), use.getUses()));
+        cachedUses.getMethodUses().forEach(use -> cachedUsesById.putAll(use.getMethod().getId(), use.getUses()));
+
+        Assert.assertEquals(cachedUsesById.keySet().size(), 10);
+        Assert.assertEquals(cachedUsesById, initialUsesById);
+    }
+
+    @Test
+    public void analyzeCachedDamaged() throws Exception {
+        Path cacheDirectory = Files.createTempDirectory("blackduck-method-uses-analyzer-test-cache");
+        ClassAnalysisCache cache = new ClassAnalysisCache(cacheDirectory);
+
+        MethodUseAnalyzer analyzer = new MethodUseAnalyzer(AnalysisOptions.builder()
+                .cache(cache)
+                .build());
+
+        try (AnalysisResult expected = analyzer.analyze(TEST_PROJECT_DIRECTORY)) {
+            Path cacheFile = cacheDirectory.resolve("method-use-analysis.cache");
+
+            // Counts too large for the remaining content are treated as damage, rather than allocated, for both the
+            // file and result counts. The result count follows the single file entry - its path, size, last-modified
+            // time, and result ordinal
+            byte[] content = Files.readAllBytes(cacheFile);
+            int fileEntryOffset = Integer.BYTES * 3;
+            int resultCountOffset = fileEntryOffset + Short.BYTES + Short.toUnsignedInt(ByteBuffer.wrap(content).getShort(fileEntryOffset)) + Long.BYTES * 2
+                    + Integer.BYTES;
+
+            for (int countOffset : new int[] { Integer.BYTES * 2, resultCountOffset }) {
+                byte[] damaged = content.clone();
+                ByteBuffer.wrap(damaged).putInt(countOffset, Integer.MAX_VALUE - 1);
+                Files.write(cacheFile, damaged);
+
+                try (AnalysisResult result = analyzer.analyze(TEST_PROJECT_DIRECTORY)) {
+                    Assert.assertEquals(result.getReferenceMultimap(), expected.getReferenceMultimap());
+                    Assert.assertEquals(result.getStatistics().getCacheHitCount(), 0);
+                    Assert.assertEquals(result.getStatistics().getCacheMissCount(), 1);
+                }
+            }
+
+            // The damaged cache is replaced once saved
+            try (AnalysisResult result = analyzer.analyze(TEST_PROJECT_DIRECTORY)) {
+                Assert.assertEquals(result.getStatistics().getCacheHitCount(), 1);
+            }
+        }
+    }
+
     // TODO utility? shared with report generator test code
     private Path unzip(Path zipArchive) throws IOException {
         Path outputDirectory = Files.createTempDirectory("blackduck-method-uses-test-output");
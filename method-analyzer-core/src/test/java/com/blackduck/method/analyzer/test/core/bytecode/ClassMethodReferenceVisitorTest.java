@@ -23,6 +23,8 @@
 package com.blackduck.method.analyzer.test.core.bytecode;
 
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -34,6 +36,9 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -50,6 +55,8 @@ public class ClassMethodReferenceVisitorTest {
 
     private static final String CLASS_FILE_REGEX = ".*\\.class";
 
+    private static final int INSTRUCTION_COUNT = 1_000_000;
+
     private Multimap<ReferencedMethod, MethodUse> result = null;
 
     @BeforeClass
@@ -133,4 +140,72 @@ public class ClassMethodReferenceVisitorTest {
                 "Unexpected reference: " + stringToUpperCaseReferences);
     }
 
+    // This covers IDETECT-3909, where descriptors are sometimes just a type, rather than a method
+    @Test
+    public void malformedDescriptorReference() throws Exception {
+        ClassMethodReferenceVisitor visitor = new ClassMethodReferenceVisitor();
+        visitor.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "com/example/Caller", null, "java/lang/Object", null);
+
+        MethodVisitor methodVisitor = visitor.visitMethod(Opcodes.ACC_PUBLIC, "call", "()V", null, null);
+        methodVisitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "com/example/Target", "typeOnly", "Ljava/lang/String;", false);
+        methodVisitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "com/example/Target", "unknown", "?", false);
+
+        Multimap<ReferencedMethod, MethodUse> references = visitor.getReferences();
+
+        Assert.assertTrue(references.containsKey(new ReferencedMethod("com.example.Target", "typeOnly", Collections.emptyList(), "java.lang.String")),
+                "Unexpected references: " + references.keySet());
+        Assert.assertTrue(references.containsKey(new ReferencedMethod("com.example.Target", "unknown", Collections.emptyList(), "java.lang.Object")),
+                "Unexpected references: " + references.keySet());
+    }
+
+    // This covers registering references to already known methods, which occurs for most method instructions
+    @Test
+    public void registerKnownReferenceAllocation() throws Exception {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+        // Allocation tracking is specific to HotSpot-derived JVMs
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean) || !((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+            return;
+        }
+
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        ClassMethodReferenceVisitor visitor = new ClassMethodReferenceVisitor();
+        visitor.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "com/example/Caller", null, "java/lang/Object", null);
+
+        MethodVisitor methodVisitor = visitor.visitMethod(Opcodes.ACC_PUBLIC, "call", "()V", null, null);
+        methodVisitor.visitLineNumber(1000, new Label());
+
+        // Resolves each reference, and allows the registration path to be compiled
+        visitMethodInstructions(methodVisitor);
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocationBean.getThreadAllocatedBytes(threadId);
+
+        visitMethodInstructions(methodVisitor);
+
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Assert.assertTrue(allocated < INSTRUCTION_COUNT, "Expected less than one byte allocated per instruction, found " + allocated + " bytes for " + INSTRUCTION_COUNT
+                + " instructions");
+        Assert.assertEquals(visitor.getReferences().keySet().size(), 3);
+    }
+
+    private static void visitMethodInstructions(MethodVisitor methodVisitor) {
+        for (int i = 0; i < INSTRUCTION_COUNT; i++) {
+            switch (i % 3) {
+            case 0:
+                methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/String", "valueOf", "(I)Ljava/lang/String;", false);
+                break;
+            case 1:
+                methodVisitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+                break;
+            default:
+                methodVisitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "[Ljava/lang/String;", "clone", "()Ljava/lang/Object;", false);
+                break;
+            }
+        }
+    }
+
 }
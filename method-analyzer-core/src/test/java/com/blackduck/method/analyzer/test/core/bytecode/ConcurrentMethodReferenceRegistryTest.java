@@ -0,0 +1,140 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.test.core.bytecode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.blackduck.method.analyzer.core.bytecode.ConcurrentMethodReferenceRegistry;
+import com.blackduck.method.analyzer.core.bytecode.MethodReferenceRegistry;
+import com.blackduck.method.analyzer.core.bytecode.SymbolTable;
+
+public class ConcurrentMethodReferenceRegistryTest {
+
+    private static final int THREAD_COUNT = 8;
+
+    private static final int OWNER_COUNT = 100;
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void constructNonPositiveStripeCount() throws Exception {
+        new ConcurrentMethodReferenceRegistry(Collections.emptySet(), new SymbolTable(), 0);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void registerReferenceNullMethodOwner() throws Exception {
+        new ConcurrentMethodReferenceRegistry().registerReference(null, "methodName", Collections.emptyList(), "output", "whereUsed", 1);
+    }
+
+    @Test
+    public void registerConcurrently() throws Exception {
+        MethodReferenceRegistry expected = new MethodReferenceRegistry();
+        ConcurrentMethodReferenceRegistry registry = new ConcurrentMethodReferenceRegistry(Collections.emptySet(), new SymbolTable(), 4);
+
+        for (int thread = 0; thread < THREAD_COUNT; thread++) {
+            register(expected, thread);
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+
+            for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                int workerThread = thread;
+
+                workers.add(executorService.submit(() -> register(registry, workerThread)));
+            }
+
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Assert.assertEquals(registry.getReferences(), expected.getReferences());
+        Assert.assertTrue(registry.getLockAcquisitionCount() > 0);
+        Assert.assertTrue(registry.getContendedLockAcquisitionCount() <= registry.getLockAcquisitionCount());
+
+        // Merging in either direction produces the same result
+        MethodReferenceRegistry merged = new MethodReferenceRegistry();
+        merged.merge(registry);
+
+        ConcurrentMethodReferenceRegistry concurrentMerged = new ConcurrentMethodReferenceRegistry();
+        concurrentMerged.merge(expected);
+
+        Assert.assertEquals(merged.getReferences(), expected.getReferences());
+        Assert.assertEquals(concurrentMerged.getReferences(), expected.getReferences());
+    }
+
+    @Test
+    public void mergeExclusions() throws Exception {
+        ConcurrentMethodReferenceRegistry registry = new ConcurrentMethodReferenceRegistry();
+        registry.registerExclusion("excludedOwner");
+
+        MethodReferenceRegistry other = new MethodReferenceRegistry();
+        other.registerReference("excludedOwner", "methodName", Collections.emptyList(), "output", "whereUsed", 1);
+        other.registerReference("methodOwner", "methodName", Collections.emptyList(), "output", "whereUsed", 1);
+
+        // Exclusions of the concurrent registry are applied when it is merged into another registry
+        MethodReferenceRegistry merged = new MethodReferenceRegistry();
+        merged.merge(other);
+        merged.merge(registry);
+
+        Assert.assertTrue(registry.isExcluded("excludedOwner"));
+        Assert.assertTrue(merged.isExcluded("excludedOwner"));
+        Assert.assertEquals(merged.getReferences().keySet().size(), 1);
+        Assert.assertEquals(merged.getReferences().keySet().iterator().next().getMethodOwner(), "methodOwner");
+
+        // Exclusions of other registries are applied to references already held by the concurrent registry
+        ConcurrentMethodReferenceRegistry concurrentMerged = new ConcurrentMethodReferenceRegistry();
+        concurrentMerged.merge(other);
+
+        MethodReferenceRegistry exclusions = new MethodReferenceRegistry();
+        exclusions.registerExclusion("methodOwner");
+        concurrentMerged.merge(exclusions);
+
+        Assert.assertTrue(concurrentMerged.isExcluded("methodOwner"));
+        Assert.assertEquals(concurrentMerged.getReferences().keySet().size(), 1);
+        Assert.assertEquals(concurrentMerged.getReferences().keySet().iterator().next().getMethodOwner(), "excludedOwner");
+    }
+
+    private static void register(MethodReferenceRegistry registry, int thread) {
+        for (int owner = 0; owner < OWNER_COUNT; owner++) {
+            registry.registerReference("methodOwner" + owner, "methodName", Collections.emptyList(), "output", "whereUsed" + thread, owner);
+
+            // Each thread excludes a different subset of owners, after other threads may have referenced them
+            if (owner % THREAD_COUNT == thread && owner % 3 == 0) {
+                registry.registerExclusion("methodOwner" + owner);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.test.core.bytecode;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.objectweb.asm.ClassReader;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.blackduck.method.analyzer.core.bytecode.ClassMethodReferenceVisitor;
+import com.blackduck.method.analyzer.core.bytecode.ConstantPoolReferenceScanner;
+import com.blackduck.method.analyzer.core.bytecode.MethodReferenceRegistry;
+import com.blackduck.method.analyzer.core.model.MethodUse;
+import com.blackduck.method.analyzer.core.model.ReferencedMethod;
+import com.blackduck.method.analyzer.test.core.TestProperties;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Bytes;
+
+public class ConstantPoolReferenceScannerTest {
+
+    private static final Path TEST_PROJECT_DIRECTORY = Paths.get(System.getProperty(TestProperties.TEST_PROJECT_DIRECTORY));
+
+    private Multimap<ReferencedMethod, MethodUse> scanned = null;
+
+    private Multimap<ReferencedMethod, MethodUse> visited = null;
+
+    @BeforeClass
+    public void analyze() throws Exception {
+        List<Path> classFiles = null;
+
+        try (Stream<Path> files = Files.walk(TEST_PROJECT_DIRECTORY)) {
+            classFiles = files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList());
+        }
+
+        MethodReferenceRegistry registry = new MethodReferenceRegistry();
+        ConstantPoolReferenceScanner scanner = new ConstantPoolReferenceScanner(registry);
+        ClassMethodReferenceVisitor visitor = new ClassMethodReferenceVisitor();
+
+        for (Path classFile : classFiles) {
+            try (InputStream inputStream = Files.newInputStream(classFile)) {
+                ClassReader reader = new ClassReader(inputStream);
+
+                scanner.scan(reader);
+                reader.accept(visitor, 0);
+            }
+        }
+
+        scanned = registry.getReferences();
+        visited = visitor.getReferences();
+    }
+
+    @Test
+    public void sameMethodsAsVisitor() throws Exception {
+        Assert.assertTrue(scanned.keySet().containsAll(visited.keySet()), "Missing " + Sets.difference(visited.keySet(), scanned.keySet()));
+
+        // Bootstrap methods are also found by their own name, as their Methodref entry is in the constant pool
+        Set<ReferencedMethod> additional = Sets.difference(scanned.keySet(), visited.keySet());
+
+        Assert.assertTrue(additional.stream().allMatch(method -> method.getMethodOwner().startsWith("java.lang.invoke.")), "Unexpected " + additional);
+    }
+
+    @Test
+    public void usesByClass() throws Exception {
+        ReferencedMethod stringFormatReference = new ReferencedMethod("java.lang.String", "format", Arrays.asList("java.lang.String", "java.lang.Object[]"),
+                "java.lang.String");
+        Collection<MethodUse> stringFormatReferences = scanned.get(stringFormatReference);
+
+        Assert.assertEquals(stringFormatReferences.size(), 1, "Found unexpected number of results: " + stringFormatReferences);
+        Assert.assertTrue(stringFormatReferences.contains(new MethodUse("com.blackduck.method.analyzer.test.project.BasicTestClass", null)),
+                "Unexpected reference: " + stringFormatReferences);
+
+        Assert.assertTrue(scanned.values().stream().noneMatch(use -> use.getLineNumber().isPresent()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void missingBootstrapMethods() throws Exception {
+        byte[] attributeName = "BootstrapMethods".getBytes(StandardCharsets.UTF_8);
+        byte[] content = null;
+
+        try (Stream<Path> files = Files.walk(TEST_PROJECT_DIRECTORY)) {
+            for (Path classFile : files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList())) {
+                byte[] classContent = Files.readAllBytes(classFile);
+
+                if (Bytes.indexOf(classContent, attributeName) >= 0) {
+                    content = classContent;
+                }
+            }
+        }
+
+        Assert.assertNotNull(content, "No test class with invokedynamic constants found");
+
+        // Rename the attribute, so that the class's invokedynamic constants have no bootstrap methods
+        content[Bytes.indexOf(content, attributeName) + attributeName.length - 1] = 'z';
+
+        new ConstantPoolReferenceScanner(new MethodReferenceRegistry()).scan(new ClassReader(content));
+    }
+
+}
@@ -22,8 +22,11 @@
  */
 package com.blackduck.method.analyzer.test.core.bytecode;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -31,6 +34,7 @@ import org.testng.annotations.Test;
 import com.blackduck.method.analyzer.core.bytecode.MethodReferenceRegistry;
 import com.blackduck.method.analyzer.core.model.MethodUse;
 import com.blackduck.method.analyzer.core.model.ReferencedMethod;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
 public class MethodReferenceRegistryTest {
@@ -102,6 +106,30 @@ public class MethodReferenceRegistryTest {
         Assert.assertTrue(whereUsedResult.contains(new MethodUse("whereUsed", 1)));
     }
 
+    @Test
+    public void registerReferenceDuplicateUses() throws Exception {
+        ReferencedMethod expectedKey = new ReferencedMethod("methodOwner", "methodName", Collections.emptyList(), "output");
+
+        MethodReferenceRegistry methodReferenceRegistry = new MethodReferenceRegistry();
+
+        for (int i = 0; i < 10; i++) {
+            methodReferenceRegistry.registerReference("methodOwner", "methodName", Collections.emptyList(), "output", "whereUsed", 1);
+            methodReferenceRegistry.registerReference("methodOwner", "methodName", Collections.emptyList(), "output", "whereUsed", null);
+            methodReferenceRegistry.registerReference("methodOwner", "methodName", Collections.emptyList(), "output", "otherWhereUsed", i % 3);
+        }
+
+        Multimap<ReferencedMethod, MethodUse> result = methodReferenceRegistry.getReferences();
+
+        Collection<MethodUse> whereUsedResult = result.get(expectedKey);
+        Assert.assertNotNull(whereUsedResult);
+        Assert.assertEquals(whereUsedResult.size(), 5);
+        Assert.assertTrue(whereUsedResult.contains(new MethodUse("whereUsed", 1)));
+        Assert.assertTrue(whereUsedResult.contains(new MethodUse("whereUsed", null)));
+        Assert.assertTrue(whereUsedResult.contains(new MethodUse("otherWhereUsed", 0)));
+        Assert.assertTrue(whereUsedResult.contains(new MethodUse("otherWhereUsed", 1)));
+        Assert.assertTrue(whereUsedResult.contains(new MethodUse("otherWhereUsed", 2)));
+    }
+
     @Test(expectedExceptions = NullPointerException.class)
     public void registerExclusionNullExcludedMethodOwner() throws Exception {
         new MethodReferenceRegistry().registerExclusion(null);
@@ -155,4 +183,101 @@ public class MethodReferenceRegistryTest {
         Assert.assertTrue(whereUsedResult.contains(new MethodUse("whereUsed", 1)));
     }
 
+    @Test(expectedExceptions = NullPointerException.class)
+    public void constructNullKnownMethodOwnerExclusions() throws Exception {
+        new MethodReferenceRegistry(null);
+    }
+
+    @Test
+    public void registerReferenceKnownExclusion() throws Exception {
+        String excludedMethodOwner = "excludedMethodOwner";
+        ReferencedMethod expectedKey = new ReferencedMethod("methodOwner", "methodName", Collections.emptyList(), "output");
+
+        MethodReferenceRegistry methodReferenceRegistry = new MethodReferenceRegistry(Collections.singleton(excludedMethodOwner));
+
+        methodReferenceRegistry.registerReference("methodOwner", "methodName", Collections.emptyList(), "output", "whereUsed", 1);
+        methodReferenceRegistry.registerReference(excludedMethodOwner, "methodName", Collections.emptyList(), "output", "whereUsed", 2);
+
+        Assert.assertTrue(methodReferenceRegistry.isExcluded(excludedMethodOwner));
+        Assert.assertFalse(methodReferenceRegistry.isExcluded("methodOwner"));
+
+        Multimap<ReferencedMethod, MethodUse> result = methodReferenceRegistry.getReferences();
+
+        Assert.assertNotNull(result);
+        Assert.assertEquals(result.keySet().size(), 1);
+        Assert.assertTrue(result.containsKey(expectedKey));
+
+        // Known exclusions of a merged registry apply to the combined references
+        MethodReferenceRegistry otherRegistry = new MethodReferenceRegistry(Collections.singleton("methodOwner"));
+        methodReferenceRegistry.merge(otherRegistry);
+
+        Assert.assertTrue(methodReferenceRegistry.getReferences().isEmpty());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void forEachNullConsumer() throws Exception {
+        new MethodReferenceRegistry().forEach(null);
+    }
+
+    @Test
+    public void forEach() throws Exception {
+        MethodReferenceRegistry methodReferenceRegistry = new MethodReferenceRegistry();
+
+        methodReferenceRegistry.registerReference("b.Owner", "methodName", Collections.emptyList(), "output", "whereUsed", 1);
+        methodReferenceRegistry.registerReference("a.Owner", "methodName", Collections.singletonList("input"), "output", "whereUsed", 2);
+        methodReferenceRegistry.registerReference("a.Owner", "methodName", Collections.emptyList(), "output", "whereUsed", 3);
+        methodReferenceRegistry.registerReference("a.Owner", "methodName", Collections.emptyList(), "output", "otherWhereUsed", 4);
+
+        List<ReferencedMethod> methods = new ArrayList<>();
+        Multimap<ReferencedMethod, MethodUse> uses = HashMultimap.create();
+
+        methodReferenceRegistry.forEach((method, methodUses) -> {
+            methods.add(method);
+            uses.putAll(method, methodUses);
+        });
+
+        Assert.assertEquals(methods, Arrays.asList(
+                new ReferencedMethod("a.Owner", "methodName", Collections.emptyList(), "output"),
+                new ReferencedMethod("a.Owner", "methodName", Collections.singletonList("input"), "output"),
+                new ReferencedMethod("b.Owner", "methodName", Collections.emptyList(), "output")));
+        Assert.assertEquals(uses, methodReferenceRegistry.getReferences());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void mergeNullOther() throws Exception {
+        new MethodReferenceRegistry().merge(null);
+    }
+
+    @Test
+    public void merge() throws Exception {
+        String excludedMethodOwner = "excludedMethodOwner";
+        ReferencedMethod expectedKey = new ReferencedMethod("methodOwner", "methodName", Collections.emptyList(), "output");
+
+        MethodReferenceRegistry methodReferenceRegistry = new MethodReferenceRegistry();
+        methodReferenceRegistry.registerReference("methodOwner", "methodName", Collections.emptyList(), "output", "whereUsed", 1);
+        methodReferenceRegistry.registerReference(excludedMethodOwner, "methodName", Collections.emptyList(), "output", "whereUsed", 2);
+
+        MethodReferenceRegistry otherRegistry = new MethodReferenceRegistry();
+        otherRegistry.registerReference("methodOwner", "methodName", Collections.emptyList(), "output", "whereUsed", 3);
+        otherRegistry.registerExclusion(excludedMethodOwner);
+
+        methodReferenceRegistry.merge(otherRegistry);
+
+        // Exclusions merged in apply to all later registrations as well
+        methodReferenceRegistry.registerReference(excludedMethodOwner, "methodName", Collections.emptyList(), "output", "whereUsed", 4);
+
+        Multimap<ReferencedMethod, MethodUse> result = methodReferenceRegistry.getReferences();
+
+        Assert.assertNotNull(result);
+        Assert.assertEquals(result.keySet().size(), 1);
+
+        Assert.assertTrue(result.containsKey(expectedKey));
+
+        Collection<MethodUse> whereUsedResult = result.get(expectedKey);
+        Assert.assertNotNull(whereUsedResult);
+        Assert.assertEquals(whereUsedResult.size(), 2);
+        Assert.assertTrue(whereUsedResult.contains(new MethodUse("whereUsed", 1)));
+        Assert.assertTrue(whereUsedResult.contains(new MethodUse("whereUsed", 3)));
+    }
+
 }
@@ -0,0 +1,146 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.test.core.bytecode;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.blackduck.method.analyzer.core.bytecode.MethodReferenceRegistry;
+import com.blackduck.method.analyzer.core.bytecode.SpillingMethodReferenceRegistry;
+import com.blackduck.method.analyzer.core.bytecode.SymbolTable;
+
+public class SpillingMethodReferenceRegistryTest {
+
+    private static final int OWNER_COUNT = 50;
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void constructNonPositiveMemoryBudget() throws Exception {
+        new SpillingMethodReferenceRegistry(Collections.emptySet(), new SymbolTable(), 0, null);
+    }
+
+    @Test
+    public void registerBeyondMemoryBudget() throws Exception {
+        Path spillDirectory = Files.createTempDirectory("spill-test");
+        MethodReferenceRegistry expected = new MethodReferenceRegistry();
+        SymbolTable symbols = new SymbolTable();
+
+        try {
+            try (SpillingMethodReferenceRegistry registry = new SpillingMethodReferenceRegistry(Collections.emptySet(), symbols, 1_000, spillDirectory);
+                    SpillingMethodReferenceRegistry other = new SpillingMethodReferenceRegistry(Collections.emptySet(), symbols, 1_000, spillDirectory)) {
+                register(expected);
+                register(registry);
+                register(other);
+
+                Assert.assertTrue(registry.getRunCount() > 0);
+
+                // Exclusions registered after references were written to disk still apply
+                expected.registerExclusion("methodOwner7");
+                registry.registerExclusion("methodOwner7");
+
+                registry.merge(other);
+
+                Assert.assertEquals(other.getRunCount(), 0);
+                Assert.assertEquals(registry.getReferences(), expected.getReferences());
+            }
+
+            // Closing the registries removes all runs written to disk
+            try (Stream<Path> remaining = Files.list(spillDirectory)) {
+                Assert.assertEquals(remaining.count(), 0L);
+            }
+        } finally {
+            Files.deleteIfExists(spillDirectory);
+        }
+    }
+
+    @Test
+    public void registerWithinMemoryBudget() throws Exception {
+        Path spillDirectory = Files.createTempDirectory("spill-test");
+
+        try (SpillingMethodReferenceRegistry registry = new SpillingMethodReferenceRegistry(Collections.emptySet(), new SymbolTable(), 1_000, spillDirectory)) {
+            for (int owner = 0; owner < OWNER_COUNT; owner++) {
+                for (int line = 0; line < 10; line++) {
+                    registry.registerReference("methodOwner" + owner, "methodName", Collections.emptyList(), "output", "whereUsed", line);
+
+                    Assert.assertTrue(registry.getEstimatedMemory() <= 1_000);
+                }
+            }
+
+            Assert.assertTrue(registry.getRunCount() > 0);
+        } finally {
+            Files.deleteIfExists(spillDirectory);
+        }
+    }
+
+    @Test
+    public void mergeWithinMemoryBudget() throws Exception {
+        Path spillDirectory = Files.createTempDirectory("spill-test");
+        SymbolTable symbols = new SymbolTable();
+
+        try (SpillingMethodReferenceRegistry registry = new SpillingMethodReferenceRegistry(Collections.emptySet(), symbols, 1_000, spillDirectory);
+                SpillingMethodReferenceRegistry small = new SpillingMethodReferenceRegistry(Collections.emptySet(), symbols, 1_000, spillDirectory);
+                SpillingMethodReferenceRegistry large = new SpillingMethodReferenceRegistry(Collections.emptySet(), symbols, 1_000, spillDirectory)) {
+            small.registerReference("smallOwner", "methodName", Collections.emptyList(), "output", "whereUsed", 1);
+
+            for (int line = 0; line < 20; line++) {
+                large.registerReference("largeOwner", "methodName", Collections.emptyList(), "output", "whereUsed", line);
+            }
+
+            Assert.assertEquals(large.getRunCount(), 0);
+
+            // References which fit within the budget are moved into memory
+            registry.merge(small);
+
+            Assert.assertEquals(registry.getRunCount(), 0);
+            Assert.assertEquals(small.getEstimatedMemory(), 0);
+            Assert.assertTrue(registry.getEstimatedMemory() > 0);
+
+            // References which would exceed the budget are written to disk, rather than held by both registries
+            registry.merge(large);
+
+            Assert.assertEquals(registry.getRunCount(), 1);
+            Assert.assertEquals(large.getEstimatedMemory(), 0);
+            Assert.assertTrue(registry.getEstimatedMemory() <= 1_000);
+            Assert.assertEquals(registry.getReferences().size(), 21);
+        } finally {
+            try (Stream<Path> remaining = Files.list(spillDirectory)) {
+                remaining.forEach(path -> path.toFile().delete());
+            }
+
+            Files.deleteIfExists(spillDirectory);
+        }
+    }
+
+    private static void register(MethodReferenceRegistry registry) {
+        for (int owner = 0; owner < OWNER_COUNT; owner++) {
+            for (int line = 0; line < 10; line++) {
+                registry.registerReference("methodOwner" + owner, "methodName", Collections.singletonList("input"), "output", "whereUsed" + owner, line);
+            }
+        }
+    }
+
+}
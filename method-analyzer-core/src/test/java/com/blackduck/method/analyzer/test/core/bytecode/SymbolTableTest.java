@@ -0,0 +1,56 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.test.core.bytecode;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.blackduck.method.analyzer.core.bytecode.SymbolTable;
+
+public class SymbolTableTest {
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void toIdNullSymbol() throws Exception {
+        new SymbolTable().toId(null);
+    }
+
+    @Test
+    public void toId() throws Exception {
+        SymbolTable symbols = new SymbolTable();
+
+        int first = symbols.toId("a");
+        int second = symbols.toId("b");
+
+        Assert.assertEquals(symbols.toId(new String("a")), first);
+        Assert.assertNotEquals(second, first);
+        Assert.assertEquals(symbols.fromId(first), "a");
+        Assert.assertEquals(symbols.fromId(second), "b");
+        Assert.assertEquals(symbols.size(), 2);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void fromIdUnassigned() throws Exception {
+        new SymbolTable().fromId(0);
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * method-use-analyzer
+ *
+ * Copyright (C) 2026 Black Duck Software, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackduck.method.analyzer.test.core.report;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.blackduck.method.analyzer.core.model.ReferencedMethod;
+import com.blackduck.method.analyzer.core.report.MethodIdGenerator;
+import com.blackduck.method.analyzer.core.report.MethodIdJson;
+
+public class MethodIdGeneratorTest {
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void generateNullMethod() throws Exception {
+        new MethodIdGenerator().generate(null);
+    }
+
+    @Test
+    public void generate() throws Exception {
+        MethodIdGenerator generator = new MethodIdGenerator();
+        ReferencedMethod method = new ReferencedMethod("methodOwner", "methodName", Arrays.asList(" input1", "input2 "), "output");
+        ReferencedMethod otherMethod = new ReferencedMethod("methodOwner", "otherMethodName", Collections.emptyList(), "output");
+
+        Assert.assertEquals(generator.generate(method), new MethodIdJson(method));
+        Assert.assertEquals(generator.generate(otherMethod), new MethodIdJson(otherMethod));
+
+        // Owner and output identifiers are re-used for the second method
+        Assert.assertEquals(generator.getGeneratedCount(), 6);
+    }
+
+    @Test
+    public void generateMemoized() throws Exception {
+        Path memoFile = Files.createTempDirectory("blackduck-method-uses-test").resolve("method-ids.memo");
+        ReferencedMethod method = new ReferencedMethod("methodOwner", "methodName", Collections.singletonList("input"), "output");
+
+        MethodIdGenerator generator = new MethodIdGenerator(memoFile);
+        generator.load();
+        generator.generate(method);
+        generator.save();
+
+        Assert.assertEquals(generator.getGeneratedCount(), 4);
+
+        MethodIdGenerator memoizedGenerator = new MethodIdGenerator(memoFile);
+        memoizedGenerator.load();
+
+        Assert.assertEquals(memoizedGenerator.generate(method), new MethodIdJson(method));
+        Assert.assertEquals(memoizedGenerator.getGeneratedCount(), 0);
+    }
+
+    @Test
+    public void generateDamagedMemo() throws Exception {
+        Path memoFile = Files.createTempDirectory("blackduck-method-uses-test").resolve("method-ids.memo");
+        ReferencedMethod method = new ReferencedMethod("methodOwner", "methodName", Collections.singletonList("input"), "output");
+
+        MethodIdGenerator generator = new MethodIdGenerator(memoFile);
+        generator.load();
+        generator.generate(method);
+        generator.save();
+
+        // Corrupt the identifier count which follows the format header, both to a negative count and to one too large
+        // for the memo file to contain
+        byte[] content = Files.readAllBytes(memoFile);
+
+        for (int count : new int[] { -1, Integer.MAX_VALUE - 1 }) {
+            byte[] damaged = content.clone();
+            ByteBuffer.wrap(damaged).putInt(Integer.BYTES * 2, count);
+            Files.write(memoFile, damaged);
+
+            MethodIdGenerator regeneratingGenerator = new MethodIdGenerator(memoFile);
+            regeneratingGenerator.load();
+
+            Assert.assertFalse(Files.exists(memoFile));
+            Assert.assertEquals(regeneratingGenerator.generate(method), new MethodIdJson(method));
+            Assert.assertEquals(regeneratingGenerator.getGeneratedCount(), 4);
+
+            regeneratingGenerator.save();
+
+            MethodIdGenerator memoizedGenerator = new MethodIdGenerator(memoFile);
+            memoizedGenerator.load();
+
+            Assert.assertEquals(memoizedGenerator.generate(method), new MethodIdJson(method));
+            Assert.assertEquals(memoizedGenerator.getGeneratedCount(), 0);
+        }
+    }
+
+}
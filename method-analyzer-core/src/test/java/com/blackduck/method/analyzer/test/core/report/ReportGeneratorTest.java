@@ -23,25 +23,38 @@
 package com.blackduck.method.analyzer.test.core.report;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import com.blackduck.method.analyzer.core.bytecode.MethodReferenceRegistry;
 import com.blackduck.method.analyzer.core.model.MethodUse;
 import com.blackduck.method.analyzer.core.model.ReferencedMethod;
 import com.blackduck.method.analyzer.core.report.BrokenFileJson;
@@ -51,12 +64,17 @@ import com.blackduck.method.analyzer.core.report.MethodIdJson;
 import com.blackduck.method.analyzer.core.report.MethodIdsReportJson;
 import com.blackduck.method.analyzer.core.report.MethodReferencesReportJson;
 import com.blackduck.method.analyzer.core.report.ReferencedMethodUsesJson;
-import com.blackduck.method.analyzer.core.report.ReportGenerator;
 import com.blackduck.method.analyzer.core.report.ReferencedMethodUsesJson.MethodUseJson;
+import com.blackduck.method.analyzer.core.report.ReportChunk;
+import com.blackduck.method.analyzer.core.report.ReportCompression;
+import com.blackduck.method.analyzer.core.report.ReportGenerator;
+import com.blackduck.method.analyzer.core.report.ReportOptions;
 import com.google.common.base.Functions;
+import com.google.common.base.Strings;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 
 public class ReportGeneratorTest {
 
@@ -354,6 +372,289 @@ public class ReportGeneratorTest {
         Assert.assertTrue(allIds.containsAll(usesById.keySet()));
     }
 
+    @Test
+    public void partitionedReportMethodReferences() throws Exception {
+        MethodReferenceRegistry references = new MethodReferenceRegistry();
+
+        for (int i = 0; i < 1500; i++) {
+            references.registerReference("methodOwner" + i, "methodName" + i, Collections.singletonList("input" + i), "output" + i, "use" + i, i);
+        }
+
+        Path result = reportGenerator.generateReport(references, Collections.emptyMap(), testReportDirectory, "methodReferencesReport");
+
+        Assert.assertNotNull(result);
+        Assert.assertTrue(Files.exists(result));
+
+        Path resultExpandedDirectory = unzip(result);
+
+        for (int index = 0; index < 2; index++) {
+            MethodIdsReportJson methodIdsReport = null;
+            MethodReferencesReportJson methodReferencesReport = null;
+
+            try (BufferedReader reader = Files.newBufferedReader(resultExpandedDirectory.resolve("referenced-methods").resolve("referenced-methods-" + index + ".json"))) {
+                methodIdsReport = GSON.fromJson(reader, MethodIdsReportJson.class);
+            }
+
+            try (BufferedReader reader = Files
+                    .newBufferedReader(resultExpandedDirectory.resolve("referenced-method-uses").resolve("referenced-method-uses-" + index + ".json"))) {
+                methodReferencesReport = GSON.fromJson(reader, MethodReferencesReportJson.class);
+            }
+
+            // Each pair of ID and use files describes the same methods
+            Set<String> signatureIds = methodIdsReport.getMethodIds().stream()
+                    .map(MethodIdJson::getSignature)
+                    .collect(Collectors.toSet());
+            Set<String> useIds = methodReferencesReport.getMethodUses().stream()
+                    .map(use -> use.getMethod().getId())
+                    .collect(Collectors.toSet());
+
+            Assert.assertEquals(signatureIds.size(), (index == 0 ? 1000 : 500));
+            Assert.assertEquals(useIds, signatureIds);
+        }
+
+        Assert.assertFalse(Files.exists(resultExpandedDirectory.resolve("broken-files")));
+    }
+
+    @Test
+    public void unwritableMethodIdMemo() throws Exception {
+        MethodReferenceRegistry references = new MethodReferenceRegistry();
+        references.registerReference("methodOwner", "methodName", Collections.singletonList("input"), "output", "use", 1);
+
+        // The memo's directory cannot be created, as a file occupies its path
+        Path blockingFile = Files.createFile(testReportDirectory.resolve("blocking-file"));
+
+        ReportGenerator memoizingReportGenerator = new ReportGenerator("hostName", "analyzedDirectory", "codeLocationName", ReportOptions.builder()
+                .methodIdMemoFile(blockingFile.resolve("method-ids.memo"))
+                .build());
+
+        Path result = memoizingReportGenerator.generateReport(references, Collections.emptyMap(), testReportDirectory, "unwritableMemoReport");
+
+        Assert.assertTrue(Files.exists(unzip(result).resolve("referenced-methods").resolve("referenced-methods-0.json")));
+    }
+
+    @Test
+    public void parallelReport() throws Exception {
+        MethodReferenceRegistry references = new MethodReferenceRegistry();
+
+        for (int i = 0; i < 3500; i++) {
+            references.registerReference("methodOwner" + (i % 10), "methodName" + i, Collections.singletonList("input" + (i % 7)), "output", "use" + i, i);
+        }
+
+        ReportGenerator parallelReportGenerator = new ReportGenerator("hostName", "analyzedDirectory", "codeLocationName", ReportOptions.builder()
+                .parallelism(3)
+                .methodIdMemoFile(testReportDirectory.resolve("method-ids.memo"))
+                .build());
+
+        Path sequentialResult = unzip(reportGenerator.generateReport(references, Collections.emptyMap(), testReportDirectory, "sequentialReport"));
+
+        // The second parallel report re-uses the identifiers memoized by the first
+        for (int run = 0; run < 2; run++) {
+            Path parallelResult = unzip(parallelReportGenerator.generateReport(references, Collections.emptyMap(), testReportDirectory, "parallelReport" + run));
+
+            for (int index = 0; index < 4; index++) {
+                Path methodIds = Paths.get("referenced-methods").resolve("referenced-methods-" + index + ".json");
+                Path methodUses = Paths.get("referenced-method-uses").resolve("referenced-method-uses-" + index + ".json");
+
+                Assert.assertEquals(Files.readAllBytes(parallelResult.resolve(methodIds)), Files.readAllBytes(sequentialResult.resolve(methodIds)));
+                Assert.assertEquals(Files.readAllBytes(parallelResult.resolve(methodUses)), Files.readAllBytes(sequentialResult.resolve(methodUses)));
+            }
+
+            Assert.assertFalse(Files.exists(parallelResult.resolve("referenced-methods").resolve("referenced-methods-4.json")));
+        }
+    }
+
+    @Test
+    public void parallelReportArchive() throws Exception {
+        MethodReferenceRegistry references = new MethodReferenceRegistry();
+
+        for (int i = 0; i < 2500; i++) {
+            references.registerReference("methodOwner", "methodName" + i, Collections.emptyList(), "output", "use", i);
+        }
+
+        ReportGenerator parallelReportGenerator = new ReportGenerator("hostName", "analyzedDirectory", "codeLocationName", ReportOptions.builder()
+                .parallelism(2)
+                .build());
+
+        Path result = parallelReportGenerator.generateReport(references, Collections.singletonMap("broken", "message"), testReportDirectory,
+                "parallelReportArchive");
+
+        // Entries compressed in parallel should be recorded in the archive's central directory in a deterministic order
+        try (ZipFile zipFile = new ZipFile(result.toFile())) {
+            List<String> entryNames = zipFile.stream()
+                    .map(ZipEntry::getName)
+                    .collect(Collectors.toList());
+
+            Assert.assertEquals(entryNames, Arrays.asList("metaData.json",
+                    "referenced-methods/referenced-methods-0.json", "referenced-method-uses/referenced-method-uses-0.json",
+                    "referenced-methods/referenced-methods-1.json", "referenced-method-uses/referenced-method-uses-1.json",
+                    "referenced-methods/referenced-methods-2.json", "referenced-method-uses/referenced-method-uses-2.json",
+                    "broken-files/broken-files-0.json"));
+
+            try (Reader reader = new InputStreamReader(zipFile.getInputStream(zipFile.getEntry("broken-files/broken-files-0.json")), StandardCharsets.UTF_8)) {
+                BrokenFilesReportJson brokenFiles = GSON.fromJson(reader, BrokenFilesReportJson.class);
+
+                Assert.assertEquals(brokenFiles.getBrokenFiles(), Collections.singletonList(new BrokenFileJson("broken", "message")));
+            }
+        }
+    }
+
+    @Test
+    public void streamReport() throws Exception {
+        MethodReferenceRegistry references = new MethodReferenceRegistry();
+
+        for (int i = 0; i < 1500; i++) {
+            references.registerReference("methodOwner", "methodName" + i, Collections.emptyList(), "output", "use", i);
+        }
+
+        Path fileResult = unzip(reportGenerator.generateReport(references, Collections.emptyMap(), testReportDirectory, "fileReport"));
+
+        ByteArrayOutputStream streamContent = new ByteArrayOutputStream();
+        AtomicBoolean streamClosed = new AtomicBoolean(false);
+
+        reportGenerator.generateReport(references, Collections.emptyMap(), new FilterOutputStream(streamContent) {
+
+            @Override
+            public void close() throws IOException {
+                streamClosed.set(true);
+                super.close();
+            }
+
+        });
+
+        Path channelResultFile = testReportDirectory.resolve("channelReport.bdmu");
+
+        try (FileChannel channel = FileChannel.open(channelResultFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            reportGenerator.generateReport(references, Collections.emptyMap(), channel);
+
+            Assert.assertTrue(channel.isOpen());
+        }
+
+        Assert.assertFalse(streamClosed.get());
+
+        Path streamResultFile = testReportDirectory.resolve("streamReport.bdmu");
+        Files.write(streamResultFile, streamContent.toByteArray());
+
+        for (Path result : Arrays.asList(unzip(streamResultFile), unzip(channelResultFile))) {
+            for (int index = 0; index < 2; index++) {
+                Path methodIds = Paths.get("referenced-methods").resolve("referenced-methods-" + index + ".json");
+                Path methodUses = Paths.get("referenced-method-uses").resolve("referenced-method-uses-" + index + ".json");
+
+                Assert.assertEquals(Files.readAllBytes(result.resolve(methodIds)), Files.readAllBytes(fileResult.resolve(methodIds)));
+                Assert.assertEquals(Files.readAllBytes(result.resolve(methodUses)), Files.readAllBytes(fileResult.resolve(methodUses)));
+            }
+        }
+    }
+
+    @Test
+    public void chunkConsumer() throws Exception {
+        MethodReferenceRegistry references = new MethodReferenceRegistry();
+
+        for (int i = 0; i < 1500; i++) {
+            references.registerReference("methodOwner", "methodName" + i, Collections.emptyList(), "output", "use", i);
+        }
+
+        Map<String, String> brokenFiles = Collections.singletonMap("broken.class", "error");
+
+        Path fileResult = unzip(reportGenerator.generateReport(references, brokenFiles, testReportDirectory, "fileReport"));
+
+        List<ReportChunk> chunks = new ArrayList<>();
+        reportGenerator.generateReport(references, brokenFiles, chunks::add);
+
+        Assert.assertEquals(chunks.stream().map(ReportChunk::getType).collect(Collectors.toList()), Arrays.asList(ReportChunk.Type.META_DATA,
+                ReportChunk.Type.METHOD_IDS, ReportChunk.Type.METHOD_USES, ReportChunk.Type.METHOD_IDS, ReportChunk.Type.METHOD_USES, ReportChunk.Type.BROKEN_FILES));
+        Assert.assertEquals(chunks.stream().map(ReportChunk::getIndex).collect(Collectors.toList()), Arrays.asList(0, 0, 0, 1, 1, 0));
+
+        for (ReportChunk chunk : chunks.subList(1, chunks.size())) {
+            Assert.assertEquals(chunk.getContent().read(), Files.readAllBytes(fileResult.resolve(chunk.getPath())), chunk.getPath());
+        }
+    }
+
+    @Test
+    public void reportCompression() throws Exception {
+        MethodReferenceRegistry references = new MethodReferenceRegistry();
+
+        for (int i = 0; i < 1001; i++) {
+            references.registerReference("methodOwner", "methodName" + i, Collections.emptyList(), "output", "use", i);
+        }
+
+        Path defaultResult = unzip(reportGenerator.generateReport(references, Collections.emptyMap(), testReportDirectory, "defaultCompressionReport"));
+        Path methodUses = Paths.get("referenced-method-uses").resolve("referenced-method-uses-1.json");
+
+        for (ReportCompression compression : ReportCompression.values()) {
+            ReportGenerator compressedReportGenerator = new ReportGenerator("hostName", "analyzedDirectory", "codeLocationName", ReportOptions.builder()
+                    .compression(compression)
+                    .build());
+
+            Path result = compressedReportGenerator.generateReport(references, Collections.emptyMap(), testReportDirectory, "compressionReport" + compression);
+
+            // The method uses file of the single method in the second chunk is small enough to be stored by the adaptive policy
+            try (ZipFile zipFile = new ZipFile(result.toFile())) {
+                int expectedMethod = (compression == ReportCompression.STORED || compression == ReportCompression.ADAPTIVE ? ZipEntry.STORED : ZipEntry.DEFLATED);
+
+                Assert.assertEquals(zipFile.getEntry("referenced-method-uses/referenced-method-uses-1.json").getMethod(), expectedMethod, compression.toString());
+            }
+
+            Assert.assertEquals(Files.readAllBytes(unzip(result).resolve(methodUses)), Files.readAllBytes(defaultResult.resolve(methodUses)), compression.toString());
+        }
+    }
+
+    @Test
+    public void reportCompressionLargeEntry() throws Exception {
+        MethodReferenceRegistry references = new MethodReferenceRegistry();
+        String methodOwner = Strings.repeat("methodOwner", 50);
+
+        for (int i = 0; i < 1000; i++) {
+            references.registerReference(methodOwner, "methodName" + i, Collections.emptyList(), "output", "use", i);
+        }
+
+        Path defaultResult = unzip(reportGenerator.generateReport(references, Collections.emptyMap(), testReportDirectory, "defaultLargeEntryReport"));
+        Path methodUses = Paths.get("referenced-method-uses").resolve("referenced-method-uses-0.json");
+
+        // The method uses file is large enough to be deflated at the fastest level by the adaptive policy, once enough of
+        // it has been written to select the level
+        Assert.assertTrue(Files.size(defaultResult.resolve(methodUses)) > 256 * 1024);
+
+        for (int parallelism : new int[] { 1, 2 }) {
+            for (ReportCompression compression : Arrays.asList(ReportCompression.STORED, ReportCompression.ADAPTIVE)) {
+                ReportGenerator compressedReportGenerator = new ReportGenerator("hostName", "analyzedDirectory", "codeLocationName", ReportOptions.builder()
+                        .parallelism(parallelism)
+                        .compression(compression)
+                        .build());
+
+                Path result = compressedReportGenerator.generateReport(references, Collections.emptyMap(), testReportDirectory, "largeEntryReport" + compression);
+
+                try (ZipFile zipFile = new ZipFile(result.toFile())) {
+                    int expectedMethod = (compression == ReportCompression.STORED ? ZipEntry.STORED : ZipEntry.DEFLATED);
+
+                    Assert.assertEquals(zipFile.getEntry("referenced-method-uses/referenced-method-uses-0.json").getMethod(), expectedMethod, compression.toString());
+                }
+
+                Assert.assertEquals(Files.readAllBytes(unzip(result).resolve(methodUses)), Files.readAllBytes(defaultResult.resolve(methodUses)),
+                        compression.toString());
+            }
+        }
+    }
+
+    @Test
+    public void streamedReportMatchesModelSerialization() throws Exception {
+        Multimap<ReferencedMethod, MethodUse> references = HashMultimap.create();
+        references.put(new ReferencedMethod("methodOwner", "<init>", Collections.emptyList(), "void"), new MethodUse("use<T>", 1));
+        references.put(new ReferencedMethod("methodOwner", "methodName", Arrays.asList("input", "java.util.List<T>"), "output&\u00e9"), new MethodUse("use", null));
+
+        Path result = unzip(reportGenerator.generateReport(references, Collections.emptyMap(), testReportDirectory, "streamedReport"));
+
+        String methodIds = new String(Files.readAllBytes(result.resolve("referenced-methods").resolve("referenced-methods-0.json")), StandardCharsets.UTF_8);
+        String methodUses = new String(Files.readAllBytes(result.resolve("referenced-method-uses").resolve("referenced-method-uses-0.json")), StandardCharsets.UTF_8);
+
+        // Streamed content should be exactly what serializing the JSON models would produce, without HTML escaping
+        Gson unescapedGson = new GsonBuilder().disableHtmlEscaping().create();
+
+        Assert.assertEquals(methodIds, unescapedGson.toJson(GSON.fromJson(methodIds, MethodIdsReportJson.class)));
+        Assert.assertEquals(methodUses, unescapedGson.toJson(GSON.fromJson(methodUses, MethodReferencesReportJson.class)));
+        Assert.assertTrue(methodUses.contains("\"methodName\":\"<init>\""));
+        Assert.assertFalse(methodUses.contains("\"use\",\"lineNumber\""));
+    }
+
     private Path unzip(Path zipArchive) throws IOException {
         Path outputDirectory = Files.createTempDirectory("blackduck-method-uses-test-output");
 